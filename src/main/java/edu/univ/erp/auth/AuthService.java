@@ -0,0 +1,327 @@
+package edu.univ.erp.auth;
+
+import edu.univ.erp.data.DBConfig;
+import edu.univ.erp.domain.Auth;
+import edu.univ.erp.data.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// login pipeline: the user lookup runs on a virtual thread, the bcrypt check runs on a fixed pool
+// sized to the cores with a bounded queue, so a burst of logins queues (or is turned away) instead of
+// starving the rest of the machine.
+public class AuthService {
+
+    public record Stats(
+            long attempts,
+            long succeeded,
+            long rejected,      // unknown user / bad password
+            long busy,          // turned away because the verify queue was full
+            long throttled,     // over an attempt limit; no lookup or bcrypt done
+            long locked,        // account was (or just became) locked
+            long errors,
+            int inFlight,
+            double throughputPerSec,
+            double meanMicros,
+            long p50Micros,
+            long p95Micros,
+            long p99Micros,
+            long maxMicros,
+            double meanVerifyMicros,
+            long p95QueueWaitMicros,
+            long rehashed       // hashes upgraded to the current bcrypt cost
+    ) {}
+
+    public static final String STATUS_LOCKED = "LOCKED";
+
+    record UserRow(String userId, String username, Auth.Role role, String passwordHash, String status) {}
+
+    private static final int WORKERS = Integer.getInteger("erp.auth.workers", Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE_CAPACITY = Integer.getInteger("erp.auth.queue", WORKERS * 32);
+
+    private static final ExecutorService IO = Executors.newVirtualThreadPerTaskExecutor();
+    private static final ThreadPoolExecutor VERIFY_POOL = new ThreadPoolExecutor(
+            WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            new VerifyThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy());
+    private static final LoginThrottle THROTTLE = LoginThrottle.fromSystemProperties(WORKERS);
+
+    private static final LongAdder attempts = new LongAdder();
+    private static final LongAdder succeeded = new LongAdder();
+    private static final LongAdder rejected = new LongAdder();
+    private static final LongAdder busy = new LongAdder();
+    private static final LongAdder throttled = new LongAdder();
+    private static final LongAdder locked = new LongAdder();
+    private static final LongAdder errors = new LongAdder();
+    private static final LongAdder rehashed = new LongAdder();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicLong statsSinceNanos = new AtomicLong(System.nanoTime());
+    private static final LatencyHistogram latency = new LatencyHistogram();
+    private static final LatencyHistogram verifyTime = new LatencyHistogram();
+    private static final LatencyHistogram queueWait = new LatencyHistogram();
+
+    static {
+        if (Boolean.getBoolean("erp.auth.stats.dumpOnExit")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dumpStats(System.out), "erp-auth-stats"));
+        }
+    }
+
+    private final LoginThrottle throttle;
+    private final ThreadPoolExecutor verifyPool;
+    private final Function<String, UserRow> lookup;
+    private final BiPredicate<String, String> checkPassword;
+
+    public AuthService() {
+        this(THROTTLE, VERIFY_POOL, null, HashUtil::checkPassword);
+    }
+
+    // tests swap in their own limits, pool, user lookup (null = the database) and password check
+    AuthService(LoginThrottle throttle, ThreadPoolExecutor verifyPool,
+                Function<String, UserRow> lookup, BiPredicate<String, String> checkPassword) {
+        this.throttle = throttle;
+        this.verifyPool = verifyPool;
+        this.lookup = lookup != null ? lookup : this::findUser;
+        this.checkPassword = checkPassword;
+    }
+
+    // progress is called from worker threads; UI callers should hop back to the EDT themselves
+    public CompletableFuture<Auth.Result> login(String username, String password, Consumer<Auth.Stage> progress) {
+        long started = System.nanoTime();
+        attempts.increment();
+        inFlight.incrementAndGet();
+        Consumer<Auth.Stage> stage = progress == null ? s -> {} : progress;
+
+        // cheap in-memory check first; a flood of attempts never reaches the database or bcrypt
+        LoginThrottle.Verdict verdict = throttle.tryAcquire(username);
+        CompletableFuture<Auth.Result> pipeline;
+        if (verdict != LoginThrottle.Verdict.ALLOW) {
+            pipeline = CompletableFuture.completedFuture(Auth.Result.failure(Auth.Outcome.THROTTLED,
+                    verdict == LoginThrottle.Verdict.USER_LIMIT
+                            ? "Too many login attempts for this account. Please wait a minute and try again."
+                            : "Too many login attempts right now. Please try again in a moment."));
+        } else {
+            pipeline = CompletableFuture
+                    .supplyAsync(() -> {
+                        stage.accept(Auth.Stage.LOOKUP);
+                        return lookup.apply(username);
+                    }, IO)
+                    .thenCompose(user -> {
+                        if (user == null) {
+                            return CompletableFuture.completedFuture(
+                                    Auth.Result.failure(Auth.Outcome.UNKNOWN_USER, "Invalid username!"));
+                        }
+                        if (STATUS_LOCKED.equalsIgnoreCase(user.status())) {
+                            return CompletableFuture.completedFuture(lockedResult());
+                        }
+                        stage.accept(Auth.Stage.VERIFY);
+                        return verify(user, password);
+                    });
+        }
+
+        return pipeline
+                .thenApply(result -> {
+                    if (result.isSuccess()) {
+                        stage.accept(Auth.Stage.FINISH);
+                        // write-behind; the login does not wait for the UPDATE
+                        LastLoginBuffer.record(result.session().userId(), result.session().loginAtMillis());
+                    }
+                    return result;
+                })
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    cause.printStackTrace();
+                    return Auth.Result.failure(Auth.Outcome.ERROR, "Database error: " + cause.getMessage());
+                })
+                .whenComplete((result, ex) -> {
+                    inFlight.decrementAndGet();
+                    latency.record((System.nanoTime() - started) / 1_000);
+                    Auth.Outcome outcome = result == null ? Auth.Outcome.ERROR : result.outcome();
+                    switch (outcome) {
+                        case SUCCESS -> succeeded.increment();
+                        case UNKNOWN_USER, BAD_PASSWORD -> rejected.increment();
+                        case BUSY -> busy.increment();
+                        case THROTTLED -> throttled.increment();
+                        case LOCKED -> locked.increment();
+                        case ERROR -> errors.increment();
+                    }
+                });
+    }
+
+    private CompletableFuture<Auth.Result> verify(UserRow user, String password) {
+        long queued = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long begin = System.nanoTime();
+                queueWait.record((begin - queued) / 1_000);
+                boolean ok = checkPassword.test(password, user.passwordHash());
+                verifyTime.record((System.nanoTime() - begin) / 1_000);
+                if (!ok) {
+                    if (throttle.recordFailure(user.username())) {
+                        lockAccount(user);
+                        return lockedResult();
+                    }
+                    return Auth.Result.failure(Auth.Outcome.BAD_PASSWORD, "Incorrect password!");
+                }
+                throttle.recordSuccess(user.username());
+                if (user.role() == null) {
+                    return Auth.Result.failure(Auth.Outcome.ERROR,
+                            "This account has no valid role. Please contact an administrator.");
+                }
+                if (HashUtil.needsRehash(user.passwordHash())) {
+                    scheduleRehash(user, password);
+                }
+                return Auth.Result.success(new Auth.Session(
+                        user.userId(), user.username(), user.role(), System.currentTimeMillis()));
+            }, verifyPool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(Auth.Result.failure(Auth.Outcome.BUSY,
+                    "The server is handling too many logins right now. Please try again in a moment."));
+        }
+    }
+
+    // upgrade a hash stored at an outdated cost, off the login's critical path. skipped when the verify
+    // queue is busy; the next login will try again
+    private void scheduleRehash(UserRow user, String password) {
+        try {
+            verifyPool.execute(() -> {
+                String newHash = HashUtil.hashPassword(password);
+                IO.execute(() -> storeRehash(user, newHash));
+            });
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void storeRehash(UserRow user, String newHash) {
+        // only replace the hash we verified against, so a password change in the meantime wins
+        String sql = "UPDATE users_auth SET password_hash = ? WHERE user_id = ? AND password_hash = ?";
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, newHash);
+            ps.setString(2, user.userId());
+            ps.setString(3, user.passwordHash());
+            if (ps.executeUpdate() > 0) rehashed.increment();
+        } catch (SQLException e) {
+            System.err.println("Warning: password rehash failed for " + user.userId() + ": " + e.getMessage());
+        }
+    }
+
+    private static Auth.Result lockedResult() {
+        return Auth.Result.failure(Auth.Outcome.LOCKED,
+                "This account is locked after too many failed logins. Please contact an administrator.");
+    }
+
+    // runs on the verify worker; the write is small and the lock must be in place before we answer
+    private void lockAccount(UserRow user) {
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement("UPDATE users_auth SET status = ? WHERE user_id = ?")) {
+            ps.setString(1, STATUS_LOCKED);
+            ps.setString(2, user.userId());
+            ps.executeUpdate();
+            System.err.println("Account locked after repeated failed logins: " + user.username());
+        } catch (SQLException e) {
+            System.err.println("Warning: could not lock account " + user.username() + ": " + e.getMessage());
+        }
+    }
+
+    private UserRow findUser(String username) {
+        String sql = "SELECT user_id, username, role, password_hash, status FROM users_auth WHERE username = ?";
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return null;
+                return new UserRow(
+                        rs.getString("user_id"),
+                        rs.getString("username"),
+                        Auth.Role.from(rs.getString("role")),     // null when the role is not one we know
+                        rs.getString("password_hash"),
+                        rs.getString("status")
+                );
+            }
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    public static Stats getStats() {
+        long completed = latency.getCount();
+        double seconds = (System.nanoTime() - statsSinceNanos.get()) / 1e9;
+        return new Stats(
+                attempts.sum(),
+                succeeded.sum(),
+                rejected.sum(),
+                busy.sum(),
+                throttled.sum(),
+                locked.sum(),
+                errors.sum(),
+                inFlight.get(),
+                seconds > 0 ? completed / seconds : 0.0,
+                latency.getMeanMicros(),
+                latency.percentileMicros(50),
+                latency.percentileMicros(95),
+                latency.percentileMicros(99),
+                latency.getMaxMicros(),
+                verifyTime.getMeanMicros(),
+                queueWait.percentileMicros(95),
+                rehashed.sum()
+        );
+    }
+
+    public static void resetStats() {
+        attempts.reset();
+        succeeded.reset();
+        rejected.reset();
+        busy.reset();
+        throttled.reset();
+        locked.reset();
+        errors.reset();
+        rehashed.reset();
+        latency.reset();
+        verifyTime.reset();
+        queueWait.reset();
+        statsSinceNanos.set(System.nanoTime());
+    }
+
+    public static void dumpStats(PrintStream out) {
+        Stats s = getStats();
+        out.println("==== Login metrics (" + WORKERS + " verify workers, times in ms) ====");
+        out.printf("attempts=%d ok=%d rejected=%d busy=%d throttled=%d locked=%d errors=%d inFlight=%d rehashed=%d " +
+                        "throughput=%.2f/s%n",
+                s.attempts(), s.succeeded(), s.rejected(), s.busy(), s.throttled(), s.locked(), s.errors(),
+                s.inFlight(), s.rehashed(), s.throughputPerSec());
+        out.printf("latency mean=%.2f p50=%.2f p95=%.2f p99=%.2f max=%.2f | bcrypt mean=%.2f | queue wait p95=%.2f%n",
+                s.meanMicros() / 1000.0, s.p50Micros() / 1000.0, s.p95Micros() / 1000.0,
+                s.p99Micros() / 1000.0, s.maxMicros() / 1000.0,
+                s.meanVerifyMicros() / 1000.0, s.p95QueueWaitMicros() / 1000.0);
+    }
+
+    private static final class VerifyThreadFactory implements ThreadFactory {
+        private final AtomicInteger seq = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "erp-auth-verify-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package edu.univ.erp.auth;
+
+import edu.univ.erp.data.SettingsCache;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// picks bcrypt work factors. the interactive cost is calibrated once against this host's login budget and
+// stored in the settings table; bulk imports use a cheaper cost, and those hashes are upgraded on first login.
+public final class BcryptCost {
+
+    public enum Policy {
+        INTERACTIVE,    // passwords set by/for a single user; calibrated cost
+        BULK            // admin imports; cheap so large batches stay fast
+    }
+
+    public record Calibration(
+            int cost,
+            double measuredMs,
+            long targetMs
+    ) {}
+
+    public static final String SETTING_KEY = "bcrypt_cost";
+    public static final String BULK_SETTING_KEY = "bcrypt_bulk_cost";
+
+    public static final int DEFAULT_COST = 10;          // jBCrypt's gensalt() default
+    // never calibrate below the library default, even on a slow host
+    static final int MIN_INTERACTIVE_COST = 10;
+    static final int MAX_COST = 16;
+    static final int MIN_BULK_COST = 6;
+
+    private static final long TARGET_MS = Long.getLong("erp.bcrypt.targetMs", 250L);
+    private static final int DEFAULT_BULK_COST = Integer.getInteger("erp.bcrypt.bulkCost", 8);
+
+    private static final AtomicBoolean calibrationStarted = new AtomicBoolean(false);
+
+    private BcryptCost() {}
+
+    public static int cost(Policy policy) {
+        int interactive = clamp(parse(SettingsCache.get(SETTING_KEY), DEFAULT_COST), MIN_INTERACTIVE_COST, MAX_COST);
+        if (policy == Policy.INTERACTIVE) return interactive;
+        int bulk = parse(SettingsCache.get(BULK_SETTING_KEY), DEFAULT_BULK_COST);
+        return clamp(bulk, MIN_BULK_COST, interactive);
+    }
+
+    // largest cost whose hash time stays within targetMs, measured on this host
+    public static Calibration calibrate(long targetMs) {
+        // let the JIT settle before timing anything
+        for (int i = 0; i < 3; i++) time(6);
+
+        int base = 8;
+        double baseMs = time(base);
+        // each cost step doubles the work
+        int cost = base + (int) Math.floor(Math.log(targetMs / Math.max(baseMs, 0.01)) / Math.log(2));
+        cost = clamp(cost, MIN_INTERACTIVE_COST, MAX_COST);
+
+        double measured = time(cost);
+        while (measured > targetMs && cost > MIN_INTERACTIVE_COST) {
+            cost--;
+            measured = time(cost);
+        }
+        return new Calibration(cost, measured, targetMs);
+    }
+
+    public static Calibration calibrateAndStore(long targetMs) throws SQLException {
+        Calibration c = calibrate(targetMs);
+        SettingsCache.store(SETTING_KEY, Integer.toString(c.cost()));
+        System.err.printf("bcrypt cost calibrated to %d (%.1f ms per hash, target %d ms)%n",
+                c.cost(), c.measuredMs(), c.targetMs());
+        return c;
+    }
+
+    // calibrates on the calling thread the first time the app starts without a stored cost. call it before the UI
+    // and the other startup work begin, so the timings are not skewed by them
+    public static void ensureCalibrated() {
+        if (SettingsCache.get(SETTING_KEY) != null || !calibrationStarted.compareAndSet(false, true)) return;
+        try {
+            calibrateAndStore(TARGET_MS);
+        } catch (Exception e) {
+            System.err.println("Warning: bcrypt calibration failed: " + e.getMessage());
+        }
+    }
+
+    // median of three runs, in ms
+    private static double time(int cost) {
+        double[] runs = new double[3];
+        for (int i = 0; i < runs.length; i++) {
+            String salt = BCrypt.gensalt(cost);
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration-password", salt);
+            runs[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(runs);
+        return runs[1];
+    }
+
+    private static int parse(String value, int fallback) {
+        if (value == null || value.isBlank()) return fallback;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: ignoring invalid bcrypt cost: " + value);
+            return fallback;
+        }
+    }
+
+    private static int clamp(int v, int min, int max) {
+        return Math.max(min, Math.min(max, v));
+    }
+}
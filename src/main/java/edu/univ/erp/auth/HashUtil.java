@@ -4,12 +4,38 @@ import org.mindrot.jbcrypt.BCrypt;
 
 public class HashUtil {
 
-    // produce a BCrypt hash for storage
+    // produce a BCrypt hash for storage, at the calibrated interactive cost
     public static String hashPassword(String password) {
+        return hashPassword(password, BcryptCost.Policy.INTERACTIVE);
+    }
+
+    public static String hashPassword(String password, BcryptCost.Policy policy) {
+        return hashPassword(password, BcryptCost.cost(policy));
+    }
+
+    public static String hashPassword(String password, int cost) {
         if (password == null) {
             throw new IllegalArgumentException("Password cannot be null.");
         }
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    // work factor encoded in a hash like $2a$10$..., or -1 if it cannot be read
+    public static int costOf(String storedHash) {
+        if (storedHash == null || storedHash.length() < 7 || storedHash.charAt(0) != '$') return -1;
+        int sep = storedHash.indexOf('$', 1);
+        if (sep < 0 || sep + 3 > storedHash.length()) return -1;
+        try {
+            return Integer.parseInt(storedHash.substring(sep + 1, sep + 3));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // true when the hash was made at a lower cost than we use today (e.g. bulk imports, or before calibration)
+    public static boolean needsRehash(String storedHash) {
+        int cost = costOf(storedHash);
+        return cost >= 0 && cost < BcryptCost.cost(BcryptCost.Policy.INTERACTIVE);
     }
 
     // verify a plain password against stored BCrypt hash
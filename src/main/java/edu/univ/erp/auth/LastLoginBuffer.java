@@ -0,0 +1,102 @@
+package edu.univ.erp.auth;
+
+import edu.univ.erp.data.DBConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// write-behind buffer for users_auth.last_login. logins only drop the timestamp in a map (keeping the newest
+// per user); a background job writes whatever is pending in one batched UPDATE every flush interval, and
+// once more at shutdown.
+public final class LastLoginBuffer {
+
+    private static final long FLUSH_MS = Long.getLong("erp.auth.lastLogin.flushMs", 2_000L);
+    // flush early when this many users are waiting, so one busy interval cannot build a huge batch
+    private static final int EAGER_FLUSH_AT = Integer.getInteger("erp.auth.lastLogin.batchSize", 500);
+
+    private static final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private static final AtomicBoolean flushQueued = new AtomicBoolean(false);
+    private static final LongAdder recorded = new LongAdder();
+    private static final LongAdder written = new LongAdder();
+
+    private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "erp-last-login-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        flusher.scheduleWithFixedDelay(LastLoginBuffer::flushQuietly, FLUSH_MS, FLUSH_MS, TimeUnit.MILLISECONDS);
+        DBConfig.addShutdownTask(LastLoginBuffer::flushQuietly);
+    }
+
+    private LastLoginBuffer() {}
+
+    public static void record(String userId, long loginAtMillis) {
+        pending.merge(userId, loginAtMillis, Math::max);
+        recorded.increment();
+        if (pending.size() >= EAGER_FLUSH_AT && flushQueued.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushQueued.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    // logins recorded vs rows actually written; the gap is what coalescing saved
+    public static long getRecorded() {
+        return recorded.sum();
+    }
+
+    public static long getWritten() {
+        return written.sum();
+    }
+
+    // synchronized so the scheduled job and the shutdown hook never write the same batch twice
+    public static synchronized int flush() throws SQLException {
+        if (pending.isEmpty()) return 0;
+
+        List<Map.Entry<String, Long>> batch = new ArrayList<>();
+        for (Map.Entry<String, Long> e : pending.entrySet()) {
+            // only take the value we saw; a newer login that lands meanwhile stays for the next flush
+            if (pending.remove(e.getKey(), e.getValue())) batch.add(Map.entry(e.getKey(), e.getValue()));
+        }
+        if (batch.isEmpty()) return 0;
+
+        // GREATEST keeps a newer value if one was written some other way
+        String sql = "UPDATE users_auth SET last_login = GREATEST(COALESCE(last_login, 0), ?) WHERE user_id = ?";
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Map.Entry<String, Long> e : batch) {
+                ps.setLong(1, e.getValue());
+                ps.setString(2, e.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            written.add(batch.size());
+            return batch.size();
+        } catch (SQLException e) {
+            // put them back so the next flush retries
+            for (Map.Entry<String, Long> entry : batch) pending.merge(entry.getKey(), entry.getValue(), Math::max);
+            throw e;
+        }
+    }
+
+    private static void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException e) {
+            System.err.println("Warning: last_login flush failed, will retry: " + e.getMessage());
+        }
+    }
+}
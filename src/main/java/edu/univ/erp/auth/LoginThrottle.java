@@ -0,0 +1,185 @@
+package edu.univ.erp.auth;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// attempt limits checked before any bcrypt work. counters are sliding windows made of a few time slots, each
+// slot packing (epoch, count) into one long that is updated with CAS, so nothing here ever takes a lock.
+// an attempt is counted first and checked after, and taken back when it is over a limit, so concurrent
+// callers can never be let through past a limit.
+// per-username attempt windows live in a fixed table of stripes: memory stays bounded no matter how many
+// names are tried, and two names in one stripe share a rate limit. lockout failures are different, since a
+// lock lands on one account: they are counted per exact username, in a map capped at maxTrackedUsers.
+public final class LoginThrottle {
+
+    public enum Verdict {
+        ALLOW,
+        USER_LIMIT,     // too many attempts for this username
+        GLOBAL_LIMIT    // too many attempts overall
+    }
+
+    private static final int USER_STRIPES = 4096;
+    // the global counter is hit by every login, so it is spread over a few windows and summed on read
+    private static final int GLOBAL_STRIPES = 16;
+
+    private final SlidingWindow[] userAttempts = new SlidingWindow[USER_STRIPES];
+    private final SlidingWindow[] globalAttempts = new SlidingWindow[GLOBAL_STRIPES];
+    private final Map<String, SlidingWindow> userFailures = new ConcurrentHashMap<>();
+
+    private final int userMaxAttempts;
+    private final int globalMaxAttempts;
+    private final int failuresBeforeLock;
+    private final long failureWindowMs;
+    private final int maxTrackedUsers;
+
+    public LoginThrottle(int userMaxAttempts, long userWindowMs,
+                         int globalMaxAttempts, long globalWindowMs,
+                         int failuresBeforeLock, long failureWindowMs, int maxTrackedUsers) {
+        this.userMaxAttempts = userMaxAttempts;
+        this.globalMaxAttempts = globalMaxAttempts;
+        this.failuresBeforeLock = failuresBeforeLock;
+        this.failureWindowMs = failureWindowMs;
+        this.maxTrackedUsers = Math.max(1, maxTrackedUsers);
+        for (int i = 0; i < USER_STRIPES; i++) {
+            userAttempts[i] = new SlidingWindow(userWindowMs);
+        }
+        for (int i = 0; i < GLOBAL_STRIPES; i++) {
+            globalAttempts[i] = new SlidingWindow(globalWindowMs);
+        }
+    }
+
+    // limits come from system properties; the global default allows roughly what the verify pool can hash
+    public static LoginThrottle fromSystemProperties(int verifyWorkers) {
+        return new LoginThrottle(
+                Integer.getInteger("erp.auth.throttle.userMax", 10),
+                Long.getLong("erp.auth.throttle.userWindowMs", 60_000L),
+                Integer.getInteger("erp.auth.throttle.globalMax", verifyWorkers * 10),
+                Long.getLong("erp.auth.throttle.globalWindowMs", 1_000L),
+                Integer.getInteger("erp.auth.lockout.failures", 5),
+                Long.getLong("erp.auth.lockout.windowMs", 15 * 60_000L),
+                Integer.getInteger("erp.auth.lockout.maxTracked", 100_000)
+        );
+    }
+
+    // counts the attempt when it is allowed; rejected attempts are not counted, so a flood cannot keep
+    // a username blocked forever once it stops
+    public Verdict tryAcquire(String username) {
+        return tryAcquire(username, System.currentTimeMillis());
+    }
+
+    Verdict tryAcquire(String username, long now) {
+        SlidingWindow user = userAttempts[stripe(username)];
+        if (user.increment(now) > userMaxAttempts) {
+            user.decrement(now);
+            return Verdict.USER_LIMIT;
+        }
+
+        SlidingWindow mine = globalAttempts[(int) (Thread.currentThread().threadId() & (GLOBAL_STRIPES - 1))];
+        mine.increment(now);
+        long global = 0;
+        for (SlidingWindow w : globalAttempts) global += w.count(now);
+        if (global > globalMaxAttempts) {
+            mine.decrement(now);
+            user.decrement(now);
+            return Verdict.GLOBAL_LIMIT;
+        }
+        return Verdict.ALLOW;
+    }
+
+    // returns true when this failure reaches the lockout threshold
+    public boolean recordFailure(String username) {
+        return recordFailure(username, System.currentTimeMillis());
+    }
+
+    boolean recordFailure(String username, long now) {
+        String key = key(username);
+        SlidingWindow w = userFailures.get(key);
+        if (w == null) {
+            if (userFailures.size() >= maxTrackedUsers) evict(now);
+            w = userFailures.computeIfAbsent(key, k -> new SlidingWindow(failureWindowMs));
+        }
+        return w.increment(now) >= failuresBeforeLock;
+    }
+
+    public void recordSuccess(String username) {
+        userFailures.remove(key(username));
+    }
+
+    int trackedUsers() {
+        return userFailures.size();
+    }
+
+    // drops users whose failures have all expired; if every entry is still live, drops one anyway so the map
+    // stays bounded. that needs maxTrackedUsers real accounts failing within one lockout window
+    private void evict(long now) {
+        userFailures.entrySet().removeIf(e -> e.getValue().count(now) == 0);
+        if (userFailures.size() < maxTrackedUsers) return;
+        Iterator<String> it = userFailures.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    static int stripe(String username) {
+        int h = key(username).hashCode();
+        h ^= (h >>> 16);
+        return h & (USER_STRIPES - 1);
+    }
+
+    // window split into SLOTS time slots; each slot is (epoch << 24 | count) where epoch = now / slotMs
+    static final class SlidingWindow {
+        private static final int SLOTS = 6;
+        private static final int COUNT_BITS = 24;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final long slotMs;
+        private final AtomicLongArray slots = new AtomicLongArray(SLOTS);
+
+        SlidingWindow(long windowMs) {
+            this.slotMs = Math.max(10, windowMs / SLOTS);
+        }
+
+        // adds one and returns the new total for the window
+        int increment(long now) {
+            long epoch = now / slotMs;
+            int i = (int) (epoch % SLOTS);
+            while (true) {
+                long v = slots.get(i);
+                long next = (v >>> COUNT_BITS) == epoch
+                        ? (v & COUNT_MASK) == COUNT_MASK ? v : v + 1
+                        : (epoch << COUNT_BITS) | 1;
+                if (slots.compareAndSet(i, v, next)) break;
+            }
+            return count(now);
+        }
+
+        int count(long now) {
+            long epoch = now / slotMs;
+            int total = 0;
+            for (int i = 0; i < SLOTS; i++) {
+                long v = slots.get(i);
+                if (epoch - (v >>> COUNT_BITS) < SLOTS) total += (int) (v & COUNT_MASK);
+            }
+            return total;
+        }
+
+        // takes back one increment made at the same now
+        void decrement(long now) {
+            long epoch = now / slotMs;
+            int i = (int) (epoch % SLOTS);
+            while (true) {
+                long v = slots.get(i);
+                if ((v >>> COUNT_BITS) != epoch || (v & COUNT_MASK) == 0) return;
+                if (slots.compareAndSet(i, v, v - 1)) return;
+            }
+        }
+    }
+}
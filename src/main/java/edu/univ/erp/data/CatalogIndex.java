@@ -0,0 +1,252 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// course catalog search without LIKE '%kw%' scans. every section (with its course code/name) is held in an immutable
+// snapshot with a trigram index over code and name and a bitset per semester. keywords of 3+ characters intersect
+// trigram postings and verify the candidates; shorter ones scan the lowercased strings, which is still cheap at
+// catalog size. admin writes call refresh(); other processes pick changes up within the TTL.
+// seat counts are not in here: they change with every registration and are read live by the caller.
+public final class CatalogIndex {
+
+    private static final long TTL_MS = Long.getLong("erp.catalog.ttlMs", 60_000L);
+    private static final long RETRY_MS = 5_000L;
+
+    public record Entry(
+            String sectionId,
+            int courseId,
+            String courseCode,
+            String courseName,
+            int credits,
+            String instructorId,
+            String semester,
+            int year,
+            String room,
+            String day,
+            String startTime,
+            String endTime
+    ) {}
+
+    // search results come back in this order; sorted here rather than trusting the database collation so that
+    // callers can seek into a result with the same comparator
+    public static final Comparator<Entry> ORDER =
+            Comparator.comparing(Entry::courseCode, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(Entry::sectionId);
+
+    private record Snapshot(
+            Entry[] entries,              // in ORDER
+            String[] codes,               // lowercased, parallel to entries
+            String[] names,
+            Map<String, int[]> trigrams,  // trigram -> ascending entry positions
+            Map<String, BitSet> semesters, // lowercased semester -> entry positions
+            Map<String, Entry> bySection,
+            Map<Integer, String> courseCodes, // course_id -> course_code, for courses that have sections
+            long loadedAtMillis
+    ) {}
+
+    private static final Snapshot EMPTY = new Snapshot(new Entry[0], new String[0], new String[0], Map.of(), Map.of(), Map.of(),
+            Map.of(), 0L);
+
+    private static volatile Snapshot current;
+    private static final AtomicBoolean loading = new AtomicBoolean(false);
+
+    private CatalogIndex() {}
+
+    // sections whose course code or name contains keyword (case-insensitive), optionally in one semester
+    public static List<Entry> search(String keyword, String semester) {
+        Snapshot snap = snapshot();
+        String kw = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        String sem = semester == null ? "" : semester.trim().toLowerCase(Locale.ROOT);
+
+        BitSet facet = null;
+        if (!sem.isEmpty()) {
+            facet = snap.semesters().get(sem);
+            if (facet == null) return List.of();
+        }
+
+        List<Entry> out = new ArrayList<>();
+        if (kw.length() < 3) {
+            for (int i = 0; i < snap.entries().length; i++) {
+                if (facet != null && !facet.get(i)) continue;
+                if (kw.isEmpty() || snap.codes()[i].contains(kw) || snap.names()[i].contains(kw)) out.add(snap.entries()[i]);
+            }
+            return out;
+        }
+
+        int[] candidates = null;
+        for (int i = 0; i + 3 <= kw.length(); i++) {
+            int[] postings = snap.trigrams().get(kw.substring(i, i + 3));
+            if (postings == null) return List.of();
+            candidates = candidates == null ? postings : intersect(candidates, postings);
+            if (candidates.length == 0) return List.of();
+        }
+        for (int i : candidates) {
+            if (facet != null && !facet.get(i)) continue;
+            // trigrams can match across code and name, or out of order; confirm the substring
+            if (snap.codes()[i].contains(kw) || snap.names()[i].contains(kw)) out.add(snap.entries()[i]);
+        }
+        return out;
+    }
+
+    // one section by id, or null if it isn't in the snapshot (e.g. created by another process within the TTL)
+    public static Entry find(String sectionId) {
+        return sectionId == null ? null : snapshot().bySection().get(sectionId);
+    }
+
+    // course code for a course that has at least one section in the snapshot, otherwise null
+    public static String courseCode(int courseId) {
+        return snapshot().courseCodes().get(courseId);
+    }
+
+    // distinct semesters with their section counts, for the facet filter
+    public static Map<String, Integer> semesterCounts() {
+        Snapshot snap = snapshot();
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Entry e : snap.entries()) {
+            if (e.semester() != null) counts.merge(e.semester(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    // call after writing courses or sections so this client sees the change immediately
+    public static void refresh() {
+        synchronized (CatalogIndex.class) {
+            reload();
+        }
+    }
+
+    // builds the index ahead of the first search
+    public static void warmUp() {
+        snapshot();
+    }
+
+    // an expired snapshot keeps serving while one background reload replaces it
+    private static Snapshot snapshot() {
+        Snapshot snap = current;
+        if (snap == null) {
+            synchronized (CatalogIndex.class) {
+                if (current == null) reload();
+                return current;
+            }
+        }
+        if (System.currentTimeMillis() - snap.loadedAtMillis() > TTL_MS && loading.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("catalog-reload").start(() -> {
+                try {
+                    synchronized (CatalogIndex.class) {
+                        // a refresh() got there first; its snapshot is at least as new as ours would be
+                        if (current == snap) reload();
+                    }
+                } finally {
+                    loading.set(false);
+                }
+            });
+        }
+        return snap;
+    }
+
+    // callers hold the class lock, so reloads never overlap and the last one to finish is also the newest
+    private static void reload() {
+        String sql = "SELECT sec.section_id, c.course_id, c.course_code, c.course_name, c.credits, " +
+                "COALESCE(instr.user_id, 'TBA') AS instructor_id, sec.semester, sec.year, sec.room, " +
+                "sec.day, sec.start_time, sec.end_time " +
+                "FROM sections sec " +
+                "JOIN courses c ON sec.course_id = c.course_id " +
+                "LEFT JOIN instructors instr ON sec.instructor_id = instr.user_id";
+        List<Entry> entries = new ArrayList<>();
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                entries.add(new Entry(
+                        rs.getString("section_id"),
+                        rs.getInt("course_id"),
+                        rs.getString("course_code"),
+                        rs.getString("course_name"),
+                        rs.getInt("credits"),
+                        rs.getString("instructor_id"),
+                        rs.getString("semester"),
+                        rs.getInt("year"),
+                        rs.getString("room"),
+                        rs.getString("day"),
+                        rs.getString("start_time"),
+                        rs.getString("end_time")
+                ));
+            }
+            current = build(entries, System.currentTimeMillis());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            // keep serving the old snapshot (or nothing) and retry soon
+            Snapshot old = current == null ? EMPTY : current;
+            current = new Snapshot(old.entries(), old.codes(), old.names(), old.trigrams(), old.semesters(), old.bySection(),
+                    old.courseCodes(), System.currentTimeMillis() - TTL_MS + RETRY_MS);
+        }
+    }
+
+    private static Snapshot build(List<Entry> list, long loadedAt) {
+        Entry[] entries = list.toArray(new Entry[0]);
+        Arrays.sort(entries, ORDER);
+        String[] codes = new String[entries.length];
+        String[] names = new String[entries.length];
+        Map<String, BitSet> semesters = new HashMap<>();
+        Map<String, BitSet> grams = new HashMap<>();
+        Map<String, Entry> bySection = new HashMap<>(entries.length * 2);
+        Map<Integer, String> courseCodes = new HashMap<>();
+
+        for (int i = 0; i < entries.length; i++) {
+            codes[i] = lower(entries[i].courseCode());
+            names[i] = lower(entries[i].courseName());
+            bySection.put(entries[i].sectionId(), entries[i]);
+            courseCodes.put(entries[i].courseId(), entries[i].courseCode());
+            addTrigrams(grams, codes[i], i);
+            addTrigrams(grams, names[i], i);
+            if (entries[i].semester() != null) {
+                semesters.computeIfAbsent(lower(entries[i].semester()), k -> new BitSet()).set(i);
+            }
+        }
+
+        Map<String, int[]> trigrams = new HashMap<>(grams.size() * 2);
+        grams.forEach((g, bits) -> trigrams.put(g, bits.stream().toArray()));
+        return new Snapshot(entries, codes, names, Collections.unmodifiableMap(trigrams),
+                Collections.unmodifiableMap(semesters), Collections.unmodifiableMap(bySection),
+                Collections.unmodifiableMap(courseCodes), loadedAt);
+    }
+
+    private static void addTrigrams(Map<String, BitSet> grams, String s, int position) {
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            grams.computeIfAbsent(s.substring(i, i + 3), k -> new BitSet()).set(position);
+        }
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,324 @@
+package edu.univ.erp.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// small bounded JDBC pool; connections handed out are proxies whose close() returns them here
+public class ConnectionPool {
+
+    public record Settings(
+            int minIdle,
+            int maxSize,
+            long idleTimeoutMs,
+            long maxLifetimeMs,
+            long borrowTimeoutMs,
+            long validationBypassMs,
+            int validationTimeoutSec
+    ) {}
+
+    public record Stats(
+            String name,
+            int total,
+            int idle,
+            int active,
+            int waiting,
+            long created,
+            long destroyed
+    ) {}
+
+    private final String name;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Settings settings;
+    private final Consumer<Connection> initializer;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger createdCount = new AtomicInteger();
+    private final AtomicInteger destroyedCount = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    public ConnectionPool(String name, String url, String user, String password,
+                          Settings settings, Consumer<Connection> initializer) {
+        if (settings.maxSize() < 1) throw new IllegalArgumentException("Pool max size must be at least 1");
+        this.name = name;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+        this.initializer = initializer;
+        this.permits = new Semaphore(settings.maxSize(), true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "erp-pool-" + name);
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(settings.idleTimeoutMs(), 30_000) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool '" + name + "' is closed");
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.borrowTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (!acquired) {
+            throw new SQLException("Timed out after " + settings.borrowTimeoutMs()
+                    + " ms waiting for a database connection (pool '" + name + "', max " + settings.maxSize() + ")");
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (isUsable(pc)) {
+                    return pc.lease();
+                }
+                destroy(pc);
+            }
+            return create().lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public Stats getStats() {
+        int idleNow = idle.size();
+        int totalNow = total.get();
+        return new Stats(name, totalNow, idleNow, Math.max(0, totalNow - idleNow),
+                permits.getQueueLength(), createdCount.get(), destroyedCount.get());
+    }
+
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            destroy(pc);
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        long now = System.currentTimeMillis();
+        if (pc.isExpired(now)) return false;
+        // skip the ping for connections that were in use a moment ago
+        if (now - pc.lastReturnedAt < settings.validationBypassMs()) return true;
+        try {
+            return pc.physical.isValid(settings.validationTimeoutSec());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        PooledConnection pc;
+        try {
+            if (initializer != null) {
+                initializer.accept(physical);
+            }
+            pc = new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            physical.close();
+            throw e;
+        }
+        total.incrementAndGet();
+        createdCount.incrementAndGet();
+        return pc;
+    }
+
+    private void destroy(PooledConnection pc) {
+        total.decrementAndGet();
+        destroyedCount.incrementAndGet();
+        try {
+            pc.physical.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private void release(PooledConnection pc) {
+        try {
+            boolean keep = !closed && total.get() <= settings.maxSize()
+                    && !pc.isExpired(System.currentTimeMillis()) && pc.reset();
+            if (keep) {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pc); // LIFO keeps the hot connections hot and lets the rest idle out
+            } else {
+                destroy(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            List<PooledConnection> evicted = new ArrayList<>();
+            // oldest-returned connections sit at the tail
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext()) {
+                PooledConnection pc = it.next();
+                boolean idleTooLong = now - pc.lastReturnedAt > settings.idleTimeoutMs()
+                        && total.get() - evicted.size() > settings.minIdle();
+                if ((pc.isExpired(now) || idleTooLong) && idle.removeLastOccurrence(pc)) {
+                    evicted.add(pc);
+                }
+            }
+            evicted.forEach(this::destroy);
+
+            while (!closed && idle.size() < settings.minIdle() && total.get() < settings.maxSize()) {
+                PooledConnection pc = create();
+                pc.lastReturnedAt = now;
+                idle.offerLast(pc);
+            }
+        } catch (Exception e) {
+            System.err.println("Warning: pool '" + name + "' housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private final class PooledConnection {
+        final Connection physical;
+        final long createdAt;
+        volatile long lastReturnedAt;
+        // session state a borrower changed and we must put back before reuse
+        boolean autoCommitChanged;
+        boolean readOnlyChanged;
+        boolean isolationChanged;
+        boolean catalogChanged;
+        final int defaultIsolation;
+        final String defaultCatalog;
+
+        PooledConnection(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.createdAt = System.currentTimeMillis();
+            this.lastReturnedAt = createdAt;
+            this.defaultIsolation = physical.getTransactionIsolation();
+            this.defaultCatalog = physical.getCatalog();
+        }
+
+        boolean isExpired(long now) {
+            return settings.maxLifetimeMs() > 0 && now - createdAt > settings.maxLifetimeMs();
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+
+        boolean reset() {
+            try {
+                if (physical.isClosed()) return false;
+                if (autoCommitChanged) {
+                    if (!physical.getAutoCommit()) {
+                        physical.rollback();
+                        physical.setAutoCommit(true);
+                    }
+                    autoCommitChanged = false;
+                }
+                if (readOnlyChanged) {
+                    physical.setReadOnly(false);
+                    readOnlyChanged = false;
+                }
+                if (isolationChanged) {
+                    physical.setTransactionIsolation(defaultIsolation);
+                    isolationChanged = false;
+                }
+                if (catalogChanged) {
+                    physical.setCatalog(defaultCatalog);
+                    catalogChanged = false;
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Warning: discarding pooled connection: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released = false;
+
+        Handle(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String m = method.getName();
+            switch (m) {
+                case "close" -> {
+                    if (!released) {
+                        released = true;
+                        release(pc);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released || pc.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + name + "]" + pc.physical;
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                }
+                case "isWrapperFor" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) return true;
+                }
+                default -> {
+                }
+            }
+            if (released) {
+                throw new SQLException("Connection already returned to the pool");
+            }
+            switch (m) {
+                case "setAutoCommit" -> pc.autoCommitChanged = true;
+                case "setReadOnly" -> pc.readOnlyChanged = true;
+                case "setTransactionIsolation" -> pc.isolationChanged = true;
+                case "setCatalog" -> pc.catalogChanged = true;
+                default -> {
+                }
+            }
+            try {
+                return method.invoke(pc.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 public class DBConfig {
@@ -18,6 +20,29 @@ public class DBConfig {
     private static final String AUTH_DB_NAME = "auth_db";
     private static final String ERP_DB_NAME = "erp_db";
 
+    // pooling is on by default; run with -Derp.db.pool=false to get one physical connection per call
+    private static final boolean POOL_ENABLED = !"false".equalsIgnoreCase(System.getProperty("erp.db.pool"));
+
+    // statement timing/row counters (see SqlMetrics); -Derp.db.metrics=false turns the wrapper off
+    private static final boolean METRICS_ENABLED = !"false".equalsIgnoreCase(System.getProperty("erp.db.metrics"));
+
+    // both databases are pooled with the same limits
+    private static final ConnectionPool.Settings POOL_SETTINGS = new ConnectionPool.Settings(
+            Integer.getInteger("erp.db.pool.minIdle", 2),
+            Integer.getInteger("erp.db.pool.maxSize", 10),
+            Long.getLong("erp.db.pool.idleTimeoutMs", 5 * 60_000L),
+            Long.getLong("erp.db.pool.maxLifetimeMs", 30 * 60_000L),
+            Long.getLong("erp.db.pool.borrowTimeoutMs", 10_000L),
+            Long.getLong("erp.db.pool.validationBypassMs", 500L),
+            Integer.getInteger("erp.db.pool.validationTimeoutSec", 2)
+    );
+
+    private static volatile ConnectionPool authPool;
+    private static volatile ConnectionPool erpPool;
+
+    // run by the shutdown hook while the pools are still open (e.g. flushing write-behind buffers)
+    private static final List<Runnable> SHUTDOWN_TASKS = new CopyOnWriteArrayList<>();
+
     static {
         try {
             Class.forName(DRIVER);
@@ -25,26 +50,106 @@ public class DBConfig {
             System.err.println("MySQL JDBC Driver not found. Check libraries.");
             e.printStackTrace();
         }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (Runnable task : SHUTDOWN_TASKS) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+            if (METRICS_ENABLED && Boolean.getBoolean("erp.db.metrics.dumpOnExit")) {
+                SqlMetrics.dump(System.out);
+            }
+            shutdown();
+        }, "erp-db-shutdown"));
     }
 
-    public static Connection getConnection(String dbName) throws SQLException {
-
-        String url = String.format(
-                "jdbc:mysql://%s:%d/%s?serverTimezone=UTC&useSSL=false&useUnicode=true&characterEncoding=UTF-8",
+    private static String buildUrl(String dbName) {
+        // rewriteBatchedStatements turns executeBatch() into multi-row INSERTs instead of one round trip per row
+        return String.format(
+                "jdbc:mysql://%s:%d/%s?serverTimezone=UTC&useSSL=false&useUnicode=true&characterEncoding=UTF-8" +
+                        "&rewriteBatchedStatements=true",
                 HOST, PORT, dbName
         );
+    }
 
-        Connection conn = DriverManager.getConnection(url, DB_USER, DB_PASS);
+    public static Connection getConnection(String dbName) throws SQLException {
+        Connection conn = DriverManager.getConnection(buildUrl(dbName), DB_USER, DB_PASS);
         applyUtf8mb4Session(conn);
         return conn;
     }
 
     public static Connection getAuthConnection() throws SQLException {
-        return getConnection(AUTH_DB_NAME);
+        Connection conn = POOL_ENABLED ? authPool().getConnection() : getConnection(AUTH_DB_NAME);
+        return instrument(conn);
     }
 
     public static Connection getErpConnection() throws SQLException {
-        return getConnection(ERP_DB_NAME);
+        Connection conn = POOL_ENABLED ? erpPool().getConnection() : getConnection(ERP_DB_NAME);
+        return instrument(conn);
+    }
+
+    private static Connection instrument(Connection conn) {
+        return METRICS_ENABLED ? InstrumentedConnection.wrap(conn) : conn;
+    }
+
+    public static void addShutdownTask(Runnable task) {
+        SHUTDOWN_TASKS.add(task);
+    }
+
+    public static boolean isPoolingEnabled() {
+        return POOL_ENABLED;
+    }
+
+    public static ConnectionPool.Stats getAuthPoolStats() {
+        ConnectionPool pool = authPool;
+        return pool == null ? null : pool.getStats();
+    }
+
+    public static ConnectionPool.Stats getErpPoolStats() {
+        ConnectionPool pool = erpPool;
+        return pool == null ? null : pool.getStats();
+    }
+
+    public static synchronized void shutdown() {
+        if (authPool != null) {
+            authPool.close();
+            authPool = null;
+        }
+        if (erpPool != null) {
+            erpPool.close();
+            erpPool = null;
+        }
+    }
+
+    private static ConnectionPool authPool() {
+        ConnectionPool pool = authPool;
+        if (pool == null) {
+            synchronized (DBConfig.class) {
+                if (authPool == null) authPool = createPool(AUTH_DB_NAME);
+                pool = authPool;
+            }
+        }
+        return pool;
+    }
+
+    private static ConnectionPool erpPool() {
+        ConnectionPool pool = erpPool;
+        if (pool == null) {
+            synchronized (DBConfig.class) {
+                if (erpPool == null) erpPool = createPool(ERP_DB_NAME);
+                pool = erpPool;
+            }
+        }
+        return pool;
+    }
+
+    private static ConnectionPool createPool(String dbName) {
+        // local session state lets the driver answer getAutoCommit()/getCatalog() without a round trip
+        String url = buildUrl(dbName) + "&useLocalSessionState=true";
+        // charset is applied once per physical connection, not per borrow
+        return new ConnectionPool(dbName, url, DB_USER, DB_PASS, POOL_SETTINGS, DBConfig::applyUtf8mb4Session);
     }
 
     private static void applyUtf8mb4Session(Connection conn) {
@@ -0,0 +1,106 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// hi/lo id allocation. each named sequence reserves a block of values from erp_db.id_sequences with one atomic
+// UPDATE and then hands them out from memory, so most ids cost no round trip and two processes can never
+// receive the same value. values left in a block when the process exits are skipped, never reused.
+public final class IdAllocator {
+
+    // first value for a sequence that has no row yet; must be past anything already in use
+    @FunctionalInterface
+    public interface Seed {
+        long firstValue() throws SQLException;
+    }
+
+    private record Block(AtomicLong next, long end) {}
+
+    private static final class Sequence {
+        final String name;
+        final int blockSize;
+        final Seed seed;
+        volatile Block block;
+
+        Sequence(String name, int blockSize, Seed seed) {
+            this.name = name;
+            this.blockSize = blockSize;
+            this.seed = seed;
+        }
+    }
+
+    private static final Map<String, Sequence> SEQUENCES = new ConcurrentHashMap<>();
+
+    private IdAllocator() {}
+
+    // blockSize trades round trips for the size of the gap a restart leaves behind
+    public static long next(String name, int blockSize, Seed seed) throws SQLException {
+        Sequence seq = SEQUENCES.computeIfAbsent(name, n -> new Sequence(n, Math.max(1, blockSize), seed));
+        while (true) {
+            Block b = seq.block;
+            if (b != null) {
+                long v = b.next().getAndIncrement();
+                if (v < b.end()) return v;
+            }
+            // block used up: one thread reserves the next one, the others wait here briefly
+            synchronized (seq) {
+                if (seq.block == b) seq.block = reserve(seq);
+            }
+        }
+    }
+
+    // largest number after prefix among values like prefix123, or 0 when there are none
+    public static long maxNumericSuffix(Connection conn, String table, String column, String prefix) throws SQLException {
+        String sql = "SELECT MAX(CAST(SUBSTRING(" + column + ", ?) AS UNSIGNED)) FROM " + table +
+                " WHERE " + column + " REGEXP ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, prefix.length() + 1);
+            ps.setString(2, "^" + prefix.replaceAll("[^A-Za-z0-9]", "\\\\$0") + "[0-9]+$");
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        }
+    }
+
+    // a sequence this process has not used yet costs one extra statement for its row plus the seed query; the seed
+    // runs on its own connection before the upsert borrows one, so a reservation never holds two at once
+    private static Block reserve(Sequence seq) throws SQLException {
+        String bump = "UPDATE id_sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?";
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(bump)) {
+            ps.setInt(1, seq.blockSize);
+            ps.setString(2, seq.name);
+            if (ps.executeUpdate() == 1) return block(conn, seq);
+        }
+
+        // first use of this sequence: create its row already holding our block. if another process created it in
+        // the meantime, the duplicate-key branch bumps it like the UPDATE above and the seed is ignored
+        long first = seq.seed.firstValue();
+        String upsert = "INSERT INTO id_sequences (name, next_value) VALUES (?, LAST_INSERT_ID(? + ?)) " +
+                "ON DUPLICATE KEY UPDATE next_value = LAST_INSERT_ID(next_value + ?)";
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(upsert)) {
+            ps.setString(1, seq.name);
+            ps.setLong(2, first);
+            ps.setInt(3, seq.blockSize);
+            ps.setInt(4, seq.blockSize);
+            ps.executeUpdate();
+            return block(conn, seq);
+        }
+    }
+
+    // LAST_INSERT_ID(expr) makes the new high-water mark readable on this connection without a race
+    private static Block block(Connection conn, Sequence seq) throws SQLException {
+        try (PreparedStatement last = conn.prepareStatement("SELECT LAST_INSERT_ID()");
+             ResultSet rs = last.executeQuery()) {
+            rs.next();
+            long end = rs.getLong(1);
+            return new Block(new AtomicLong(end - seq.blockSize), end);
+        }
+    }
+}
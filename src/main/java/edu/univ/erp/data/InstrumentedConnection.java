@@ -0,0 +1,183 @@
+package edu.univ.erp.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// wraps a Connection so every statement it creates reports timings, row counts and batch sizes to SqlMetrics.
+// services keep using plain JDBC; nothing in their code changes.
+public final class InstrumentedConnection {
+
+    private InstrumentedConnection() {}
+
+    public static Connection wrap(Connection conn) {
+        return proxy(Connection.class, new ConnectionHandler(conn));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String m = method.getName();
+            if ("unwrap".equals(m) && ((Class<?>) args[0]).isInstance(proxy)) return proxy;
+            Object result = call(target, method, args);
+            if (result instanceof CallableStatement cs) {
+                return proxy(CallableStatement.class, new StatementHandler(cs, SqlMetrics.entryFor((String) args[0])));
+            }
+            if (result instanceof PreparedStatement ps) {
+                return proxy(PreparedStatement.class, new StatementHandler(ps, SqlMetrics.entryFor((String) args[0])));
+            }
+            if (result instanceof Statement st) {
+                return proxy(Statement.class, new StatementHandler(st, null));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        // null for plain Statements, where the SQL arrives with each execute call
+        private final SqlMetrics.Entry prepared;
+        private SqlMetrics.Entry lastEntry;
+        private int pendingBatch = 0;
+
+        StatementHandler(Statement target, SqlMetrics.Entry prepared) {
+            this.target = target;
+            this.prepared = prepared;
+            this.lastEntry = prepared;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String m = method.getName();
+            switch (m) {
+                case "addBatch" -> {
+                    pendingBatch++;
+                    if (prepared == null && args != null && args.length == 1) {
+                        lastEntry = SqlMetrics.entryFor((String) args[0]);
+                    }
+                    return call(target, method, args);
+                }
+                case "clearBatch" -> {
+                    pendingBatch = 0;
+                    return call(target, method, args);
+                }
+                case "executeBatch", "executeLargeBatch" -> {
+                    SqlMetrics.Entry entry = lastEntry != null ? lastEntry : SqlMetrics.entryFor("<batch>");
+                    int size = pendingBatch;
+                    pendingBatch = 0;
+                    Object result = timed(entry, method, args);
+                    entry.batches.increment();
+                    entry.batchedRows.add(size);
+                    entry.rowsAffected.add(sumCounts(result));
+                    return result;
+                }
+                case "executeQuery", "executeUpdate", "executeLargeUpdate", "execute" -> {
+                    SqlMetrics.Entry entry = entryForCall(args);
+                    Object result = timed(entry, method, args);
+                    if (result instanceof ResultSet rs) {
+                        return proxy(ResultSet.class, new ResultSetHandler(rs, entry, proxy));
+                    }
+                    if (result instanceof Number n) {
+                        entry.rowsAffected.add(n.longValue());
+                    }
+                    return result;
+                }
+                case "getResultSet" -> {
+                    Object result = call(target, method, args);
+                    if (result instanceof ResultSet rs && lastEntry != null) {
+                        return proxy(ResultSet.class, new ResultSetHandler(rs, lastEntry, proxy));
+                    }
+                    return result;
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                    return call(target, method, args);
+                }
+                default -> {
+                    return call(target, method, args);
+                }
+            }
+        }
+
+        private SqlMetrics.Entry entryForCall(Object[] args) {
+            if (prepared != null) return prepared;
+            if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                lastEntry = SqlMetrics.entryFor(sql);
+                return lastEntry;
+            }
+            return SqlMetrics.entryFor("<unknown>");
+        }
+
+        private Object timed(SqlMetrics.Entry entry, Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return call(target, method, args);
+            } catch (Throwable t) {
+                entry.errors.increment();
+                throw t;
+            } finally {
+                entry.latency.record((System.nanoTime() - start) / 1000);
+            }
+        }
+
+        // rewritten batches report SUCCESS_NO_INFO per statement; count those as one row each
+        private static long sumCounts(Object result) {
+            long sum = 0;
+            if (result instanceof int[] counts) {
+                for (int c : counts) if (c > 0) sum += c; else if (c == Statement.SUCCESS_NO_INFO) sum++;
+            } else if (result instanceof long[] counts) {
+                for (long c : counts) if (c > 0) sum += c; else if (c == Statement.SUCCESS_NO_INFO) sum++;
+            }
+            return sum;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final SqlMetrics.Entry entry;
+        private final Object statementProxy;
+
+        ResultSetHandler(ResultSet target, SqlMetrics.Entry entry, Object statementProxy) {
+            this.target = target;
+            this.entry = entry;
+            this.statementProxy = statementProxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String m = method.getName();
+            if ("getStatement".equals(m)) return statementProxy;
+            if ("unwrap".equals(m) && ((Class<?>) args[0]).isInstance(proxy)) return proxy;
+            Object result = call(target, method, args);
+            if ("next".equals(m) && Boolean.TRUE.equals(result)) {
+                entry.rowsReturned.increment();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package edu.univ.erp.data;
+
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// single-flight reads with a very short result cache. concurrent calls with equal keys share one query: the first
+// caller runs it, the others wait for its result. the result then answers further calls for ttlMs (keep it short;
+// readers may see data that old). failures are handed to everyone waiting but never cached. results are shared
+// between callers, so loaders should return immutable values. invalidateAll() starts a new generation: results
+// loaded under an older one are never served, and calls after it never join a query that started before it.
+public final class ReadCoalescer<K, V> {
+
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws SQLException;
+    }
+
+    public record Stats(
+            String name,
+            long executed,   // queries actually run
+            long coalesced,  // calls that joined an in-flight query
+            long cacheHits,  // calls answered from a recent result
+            long failures
+    ) {
+        public double savedRatio() {
+            long total = executed + coalesced + cacheHits;
+            return total == 0 ? 0.0 : (double) (coalesced + cacheHits) / total;
+        }
+    }
+
+    private record Recent<V>(V value, long loadedAtMillis, long generation) {}
+
+    private static final List<ReadCoalescer<?, ?>> ALL = new CopyOnWriteArrayList<>();
+    // distinct keys (e.g. search keywords) would otherwise pile up; past this many, expired ones are swept
+    private static final int SWEEP_AT = 256;
+
+    static {
+        if (Boolean.getBoolean("erp.coalesce.dumpOnExit")) {
+            DBConfig.addShutdownTask(() -> dumpStats(System.out));
+        }
+    }
+
+    private final String name;
+    private final long ttlMs;
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, Recent<V>> recent = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public ReadCoalescer(String name, long ttlMs) {
+        this.name = name;
+        this.ttlMs = ttlMs;
+        ALL.add(this);
+    }
+
+    public V get(K key, Loader<V> loader) throws SQLException {
+        Recent<V> r = recent.get(key);
+        if (r != null && r.generation() == generation.get() && System.currentTimeMillis() - r.loadedAtMillis() < ttlMs) {
+            cacheHits.increment();
+            return r.value();
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        // read after joining the map: an invalidation from here on makes this load stale
+        long gen = generation.get();
+        executed.increment();
+        try {
+            V value = loader.load();
+            // publish before leaving the in-flight map so nobody slips through to a second query
+            if (ttlMs > 0 && gen == generation.get()) {
+                long now = System.currentTimeMillis();
+                if (recent.size() >= SWEEP_AT) recent.values().removeIf(old -> now - old.loadedAtMillis() >= ttlMs);
+                recent.put(key, new Recent<>(value, now, gen));
+            }
+            mine.complete(value);
+            return value;
+        } catch (SQLException | RuntimeException e) {
+            failures.increment();
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // call after a write that changes what these reads return. queries already running still answer the callers
+    // that joined them, but their results are not kept and later calls start a fresh query
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        inFlight.clear();
+        recent.clear();
+    }
+
+    public Stats stats() {
+        return new Stats(name, executed.sum(), coalesced.sum(), cacheHits.sum(), failures.sum());
+    }
+
+    public static List<Stats> allStats() {
+        return ALL.stream().<Stats>map(ReadCoalescer::stats).toList();
+    }
+
+    public static void dumpStats(PrintStream out) {
+        out.println("==== Read coalescing ====");
+        for (Stats s : allStats()) {
+            out.printf("%-20s executed=%d coalesced=%d cacheHits=%d failures=%d saved=%.0f%%%n",
+                    s.name(), s.executed(), s.coalesced(), s.cacheHits(), s.failures(), s.savedRatio() * 100);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) throws SQLException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a shared query", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException se) throw se;
+            if (cause instanceof RuntimeException re) throw re;
+            throw new SQLException(cause);
+        }
+    }
+}
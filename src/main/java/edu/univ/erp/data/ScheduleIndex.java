@@ -0,0 +1,269 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.domain.WeekSlots.Meeting;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// double-booking checks for the section schedule without a query per check. every section is filed under its room
+// and under its instructor, per term (semester + year) and weekday, in a lane sorted by start time that also keeps
+// the running maximum of end times. a meeting overlaps something in a lane iff the last booking that starts before
+// it ends has a running max end past its start, so a free slot costs one binary search. loaded once, kept current
+// by AdminService's section writes, reloaded after the TTL to pick up writes from other processes. the reload
+// query runs outside the index monitor, so checks keep going on the old data until it is swapped in.
+public final class ScheduleIndex {
+
+    private static final long TTL_MS = Long.getLong("erp.schedule.ttlMs", 60_000L);
+
+    public enum Resource { ROOM, INSTRUCTOR }
+
+    public record Booking(
+            String sectionId,
+            String semester,
+            int year,
+            String room,
+            String instructorId,
+            Meeting meeting     // null when the section has no readable time; such sections never clash
+    ) {
+        public static Booking of(String sectionId, String semester, int year, String day, String startTime,
+                                 String endTime, String room, String instructorId) {
+            return new Booking(sectionId, semester, year, room, instructorId, Meeting.parse(day, startTime, endTime));
+        }
+    }
+
+    public record Conflict(
+            Resource resource,
+            Booking booking,
+            Booking clashesWith
+    ) {
+        public String describe() {
+            String who = resource == Resource.ROOM ? "Room " + booking.room() : "Instructor " + booking.instructorId();
+            return who + " is already booked for section " + clashesWith.sectionId() + " (" + clashesWith.meeting() + ")";
+        }
+    }
+
+    private record Key(Resource resource, String value, String semester, int year, int day) {}
+
+    private static final Comparator<Booking> BY_START =
+            Comparator.comparingInt((Booking b) -> b.meeting().start()).thenComparing(Booking::sectionId);
+
+    // immutable; writes replace the lane. lanes hold a handful of bookings, so copying is cheaper than a tree
+    private record Lane(Booking[] byStart, int[] maxEnd) {
+        static final Lane EMPTY = new Lane(new Booking[0], new int[0]);
+
+        Lane with(Booking b) {
+            Booking[] next = Arrays.copyOf(byStart, byStart.length + 1);
+            next[byStart.length] = b;
+            Arrays.sort(next, BY_START);
+            return of(next);
+        }
+
+        Lane without(String sectionId) {
+            Booking[] next = Arrays.stream(byStart).filter(b -> !b.sectionId().equals(sectionId)).toArray(Booking[]::new);
+            return next.length == byStart.length ? this : of(next);
+        }
+
+        static Lane of(Booking[] sorted) {
+            int[] maxEnd = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                maxEnd[i] = Math.max(i == 0 ? 0 : maxEnd[i - 1], sorted[i].meeting().end());
+            }
+            return new Lane(sorted, maxEnd);
+        }
+
+        // a booking overlapping m other than ignoreSectionId, or null
+        Booking overlapping(Meeting m, String ignoreSectionId) {
+            // last booking starting before m ends
+            int lo = 0, hi = byStart.length - 1, last = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (byStart[mid].meeting().start() < m.end()) {
+                    last = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            // walk back only while something at or before i still reaches past m's start
+            for (int i = last; i >= 0 && maxEnd[i] > m.start(); i--) {
+                Booking b = byStart[i];
+                if (b.meeting().end() > m.start() && !b.sectionId().equals(ignoreSectionId)) return b;
+            }
+            return null;
+        }
+    }
+
+    private static final Map<String, Booking> bySection = new HashMap<>();
+    private static final Map<Key, Lane> lanes = new HashMap<>();
+    private static long loadedAtMillis = 0L;
+    private static long writes = 0L;    // put/remove/refresh so far; a load that overlapped one is read again
+
+    private static final Object LOADING = new Object();     // one reload at a time, taken before the monitor
+
+    private ScheduleIndex() {}
+
+    // first room or instructor clash for b (b's own section id is ignored, so updates can be checked), or null
+    public static Conflict check(Booking b) throws SQLException {
+        ensureLoaded();
+        return checkLoaded(b);
+    }
+
+    private static synchronized Conflict checkLoaded(Booking b) {
+        if (b.meeting() == null) return null;
+        for (Resource r : Resource.values()) {
+            Key key = key(r, b);
+            if (key == null) continue;
+            Booking other = lanes.getOrDefault(key, Lane.EMPTY).overlapping(b.meeting(), b.sectionId());
+            if (other != null) return new Conflict(r, b, other);
+        }
+        return null;
+    }
+
+    public static Booking find(String sectionId) throws SQLException {
+        ensureLoaded();
+        synchronized (ScheduleIndex.class) {
+            return bySection.get(sectionId);
+        }
+    }
+
+    // every clash already in the schedule, for one term or (semester null) all of them. one pass per lane
+    public static List<Conflict> conflicts(String semester, int year) throws SQLException {
+        ensureLoaded();
+        return conflictsLoaded(semester, year);
+    }
+
+    private static synchronized List<Conflict> conflictsLoaded(String semester, int year) {
+        String sem = semester == null ? null : normalize(semester);
+        List<Conflict> out = new ArrayList<>();
+        for (Map.Entry<Key, Lane> e : lanes.entrySet()) {
+            Key k = e.getKey();
+            if (sem != null && (!sem.equals(k.semester()) || year != k.year())) continue;
+            Booking reach = null;   // the booking so far that ends latest
+            for (Booking b : e.getValue().byStart()) {
+                if (reach != null && b.meeting().start() < reach.meeting().end()) {
+                    out.add(new Conflict(k.resource(), b, reach));
+                }
+                if (reach == null || b.meeting().end() > reach.meeting().end()) reach = b;
+            }
+        }
+        return out;
+    }
+
+    // call after a section write has committed
+    public static synchronized void put(Booking b) {
+        writes++;
+        if (loadedAtMillis == 0L) return;   // not loaded yet; the first load reads it from the database
+        remove(b.sectionId());
+        bySection.put(b.sectionId(), b);
+        for (Resource r : Resource.values()) {
+            Key key = key(r, b);
+            if (key != null) lanes.put(key, lanes.getOrDefault(key, Lane.EMPTY).with(b));
+        }
+    }
+
+    public static synchronized void remove(String sectionId) {
+        writes++;
+        Booking old = bySection.remove(sectionId);
+        if (old == null) return;
+        for (Resource r : Resource.values()) {
+            Key key = key(r, old);
+            if (key == null) continue;
+            Lane lane = lanes.get(key);
+            if (lane == null) continue;
+            Lane next = lane.without(sectionId);
+            if (next.byStart().length == 0) lanes.remove(key);
+            else lanes.put(key, next);
+        }
+    }
+
+    // after writes that touch many sections at once (e.g. deleting a course)
+    public static synchronized void refresh() {
+        writes++;
+        loadedAtMillis = 0L;
+    }
+
+    // the query runs under LOADING only; it is swapped in under the monitor, and only if no write landed
+    // meanwhile (the rows read may predate it), otherwise it is read again
+    private static void ensureLoaded() throws SQLException {
+        if (fresh()) return;
+        synchronized (LOADING) {
+            while (!fresh()) {
+                long seen;
+                synchronized (ScheduleIndex.class) {
+                    seen = writes;
+                }
+                List<Booking> bookings = readSections();
+                synchronized (ScheduleIndex.class) {
+                    if (writes == seen) load(bookings);
+                }
+            }
+        }
+    }
+
+    private static synchronized boolean fresh() {
+        return loadedAtMillis != 0L && System.currentTimeMillis() - loadedAtMillis < TTL_MS;
+    }
+
+    private static List<Booking> readSections() throws SQLException {
+        String sql = "SELECT section_id, semester, year, day, start_time, end_time, room, instructor_id FROM sections";
+        List<Booking> bookings = new ArrayList<>();
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                bookings.add(Booking.of(
+                        rs.getString("section_id"),
+                        rs.getString("semester"),
+                        rs.getInt("year"),
+                        rs.getString("day"),
+                        rs.getString("start_time"),
+                        rs.getString("end_time"),
+                        rs.getString("room"),
+                        rs.getString("instructor_id")
+                ));
+            }
+        }
+        return bookings;
+    }
+
+    // replaces the whole index; package-private so tests can load bookings without the database
+    static synchronized void load(List<Booking> bookings) {
+        Map<Key, List<Booking>> grouped = new HashMap<>();
+        bySection.clear();
+        for (Booking b : bookings) {
+            bySection.put(b.sectionId(), b);
+            for (Resource r : Resource.values()) {
+                Key key = key(r, b);
+                if (key != null) grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(b);
+            }
+        }
+        lanes.clear();
+        grouped.forEach((key, list) -> {
+            Booking[] sorted = list.toArray(new Booking[0]);
+            Arrays.sort(sorted, BY_START);
+            lanes.put(key, Lane.of(sorted));
+        });
+        loadedAtMillis = System.currentTimeMillis();
+    }
+
+    // null when the booking has no time or no room/instructor to file it under
+    private static Key key(Resource r, Booking b) {
+        if (b.meeting() == null) return null;
+        String value = normalize(r == Resource.ROOM ? b.room() : b.instructorId());
+        if (value.isEmpty()) return null;
+        return new Key(r, value, normalize(b.semester()), b.year(), b.meeting().day());
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,92 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// additive, idempotent schema changes the services rely on. run once per process at startup.
+public final class SchemaUpgrades {
+
+    private static volatile boolean applied = false;
+
+    private SchemaUpgrades() {}
+
+    public static synchronized void ensureApplied() {
+        if (applied) return;
+        try (Connection erp = DBConfig.getErpConnection();
+             Connection auth = DBConfig.getAuthConnection()) {
+            applyErp(erp);
+            applyAuth(auth);
+            applied = true;
+        } catch (SQLException e) {
+            System.err.println("Warning: schema upgrade failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void applyErp(Connection conn) throws SQLException {
+        // seat counter used by the conditional UPDATE in StudentService.registerForSection
+        if (addColumnIfMissing(conn, "sections", "enrolled_count", "INT NOT NULL DEFAULT 0")) {
+            execute(conn, """
+                UPDATE sections s
+                SET s.enrolled_count = (
+                    SELECT COUNT(*) FROM enrollments e
+                    WHERE e.section_id = s.section_id AND e.status = 'ENROLLED')
+                """);
+        }
+        addIndexIfMissing(conn, "enrollments", "idx_enrollments_student_section", "(student_id, section_id)");
+        // keyset paging in AdminService.getCoursesPage / getSectionsPage seeks on these
+        addIndexIfMissing(conn, "courses", "idx_courses_code_id", "(course_code, course_id)");
+        addIndexIfMissing(conn, "sections", "idx_sections_term_id", "(year DESC, semester, section_id)");
+        // optimistic concurrency for InstructorService.saveGradeChanges; bumped by every grade upsert
+        addColumnIfMissing(conn, "grades", "version", "INT NOT NULL DEFAULT 0");
+        // hi/lo high-water marks for IdAllocator
+        execute(conn, """
+            CREATE TABLE IF NOT EXISTS id_sequences (
+                name VARCHAR(128) NOT NULL PRIMARY KEY,
+                next_value BIGINT NOT NULL
+            )
+            """);
+    }
+
+    private static void applyAuth(Connection conn) throws SQLException {
+        // keyset paging in AdminService.getUsersPage seeks on this
+        addIndexIfMissing(conn, "users_auth", "idx_users_auth_role_username", "(role, username)");
+    }
+
+    static boolean addColumnIfMissing(Connection conn, String table, String column, String definition) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.COLUMNS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setString(2, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return false;
+            }
+        }
+        execute(conn, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        return true;
+    }
+
+    static boolean addIndexIfMissing(Connection conn, String table, String index, String columns) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setString(2, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) return false;
+            }
+        }
+        execute(conn, "CREATE INDEX " + index + " ON " + table + " " + columns);
+        return true;
+    }
+
+    static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// compares sections.enrolled_count with the ENROLLED rows it summarizes, and optionally fixes drift
+public final class SeatCountReconciler {
+
+    public record Drift(
+            String sectionId,
+            int stored,
+            int actual
+    ) {}
+
+    private static ScheduledExecutorService scheduler;
+
+    private SeatCountReconciler() {}
+
+    public static List<Drift> run(boolean repair) throws SQLException {
+        String findSql = """
+            SELECT s.section_id, s.enrolled_count, COUNT(e.enrollment_id) AS actual
+            FROM sections s
+            LEFT JOIN enrollments e
+                   ON e.section_id = s.section_id
+                  AND e.status = 'ENROLLED'
+            GROUP BY s.section_id, s.enrolled_count
+            HAVING s.enrolled_count <> COUNT(e.enrollment_id)
+            """;
+
+        // recount under the section row lock so a concurrent registration cannot slip in between
+        String repairSql = """
+            UPDATE sections s
+            SET s.enrolled_count = (
+                SELECT COUNT(*) FROM enrollments e
+                WHERE e.section_id = s.section_id AND e.status = 'ENROLLED')
+            WHERE s.section_id = ?
+            """;
+
+        List<Drift> drifts = new ArrayList<>();
+        try (Connection conn = DBConfig.getErpConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(findSql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    drifts.add(new Drift(
+                            rs.getString("section_id"),
+                            rs.getInt("enrolled_count"),
+                            rs.getInt("actual")
+                    ));
+                }
+            }
+
+            if (repair && !drifts.isEmpty()) {
+                try (PreparedStatement ps = conn.prepareStatement(repairSql)) {
+                    for (Drift d : drifts) {
+                        ps.setString(1, d.sectionId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+        }
+        return drifts;
+    }
+
+    // background verify+repair; only the first call starts the job
+    public static synchronized void startScheduled(long periodMinutes) {
+        if (scheduler != null || periodMinutes <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "erp-seat-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                List<Drift> fixed = run(true);
+                if (!fixed.isEmpty()) {
+                    System.err.println("Seat counts repaired for " + fixed.size() + " section(s): " + fixed);
+                }
+            } catch (Exception e) {
+                System.err.println("Warning: seat count reconciliation failed: " + e.getMessage());
+            }
+        }, periodMinutes, periodMinutes, TimeUnit.MINUTES);
+    }
+}
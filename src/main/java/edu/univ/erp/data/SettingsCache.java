@@ -0,0 +1,171 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// the settings table is tiny and read on every registration/drop, so it is held in memory as an immutable
+// snapshot. readers never lock; one caller reloads it when the TTL runs out, the rest keep the old copy.
+public final class SettingsCache {
+
+    public static final String MAINTENANCE_MODE = "maintenance_mode";
+    public static final String DROP_OR_ADD_DEADLINE = "drop_or_add_deadline";
+
+    private static final long TTL_MS = Long.getLong("erp.settings.ttlMs", 30_000L);
+    // after a failed load, try again this soon instead of waiting a full TTL
+    private static final long RETRY_MS = 5_000L;
+
+    public record Snapshot(
+            Map<String, String> values,
+            boolean maintenanceMode,
+            LocalDate dropDeadline,
+            long loadedAtMillis
+    ) {
+        public String get(String key) {
+            return values.get(key);
+        }
+
+        public boolean isPastDropDeadline(LocalDate today) {
+            return dropDeadline != null && today.isAfter(dropDeadline);
+        }
+    }
+
+    // column names differ between schema versions; found once from metadata
+    private record Layout(String keyColumn, String valueColumn) {}
+
+    private static volatile Snapshot current;
+    private static volatile Layout layout;
+    private static final AtomicBoolean loading = new AtomicBoolean(false);
+
+    private SettingsCache() {}
+
+    public static Snapshot snapshot() {
+        Snapshot snap = current;
+        if (snap == null) {
+            synchronized (SettingsCache.class) {
+                if (current == null) reload();
+                return current;
+            }
+        }
+        if (System.currentTimeMillis() - snap.loadedAtMillis() > TTL_MS && loading.compareAndSet(false, true)) {
+            try {
+                reload();
+            } finally {
+                loading.set(false);
+            }
+            return current;
+        }
+        return snap;
+    }
+
+    public static String get(String key) {
+        return snapshot().get(key);
+    }
+
+    public static boolean isMaintenanceMode() {
+        return snapshot().maintenanceMode();
+    }
+
+    public static boolean isPastDropDeadline() {
+        return snapshot().isPastDropDeadline(LocalDate.now());
+    }
+
+    // call after a write to the settings table so this client sees it immediately
+    public static void refresh() {
+        synchronized (SettingsCache.class) {
+            reload();
+        }
+    }
+
+    // insert-or-update one setting and refresh the snapshot. meant for values the app maintains itself
+    // (e.g. the calibrated bcrypt cost); admin edits still go through AdminService.updateSetting
+    public static void store(String key, String value) throws SQLException {
+        try (Connection conn = DBConfig.getErpConnection()) {
+            Layout l = layout;
+            if (l == null) {
+                l = discoverLayout(conn);
+                layout = l;
+            }
+            String sql = "INSERT INTO settings (" + l.keyColumn() + ", " + l.valueColumn() + ") VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE " + l.valueColumn() + " = VALUES(" + l.valueColumn() + ")";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, key);
+                ps.setString(2, value);
+                ps.executeUpdate();
+            }
+        }
+        refresh();
+    }
+
+    private static void reload() {
+        try (Connection conn = DBConfig.getErpConnection()) {
+            Layout l = layout;
+            if (l == null) {
+                l = discoverLayout(conn);
+                layout = l;
+            }
+
+            Map<String, String> values = new HashMap<>();
+            String sql = "SELECT " + l.keyColumn() + " AS k, " + l.valueColumn() + " AS v FROM settings";
+            try (PreparedStatement ps = conn.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String k = rs.getString("k");
+                    if (k != null) values.put(k.trim(), rs.getString("v"));
+                }
+            }
+            current = build(values, System.currentTimeMillis());
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            Snapshot old = current;
+            Map<String, String> values = old == null ? Map.of() : old.values();
+            current = build(values, System.currentTimeMillis() - TTL_MS + RETRY_MS);
+        }
+    }
+
+    private static Layout discoverLayout(Connection conn) throws SQLException {
+        String keyCol = null;
+        String valueCol = null;
+        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM settings LIMIT 0");
+             ResultSet rs = ps.executeQuery()) {
+            ResultSetMetaData md = rs.getMetaData();
+            for (int i = 1; i <= md.getColumnCount(); i++) {
+                String name = md.getColumnLabel(i);
+                if (keyCol == null && ("key".equalsIgnoreCase(name) || "setting_key".equalsIgnoreCase(name))) {
+                    keyCol = name;
+                } else if (valueCol == null && ("value".equalsIgnoreCase(name) || "setting_value".equalsIgnoreCase(name))) {
+                    valueCol = name;
+                }
+            }
+        }
+        if (keyCol == null || valueCol == null) {
+            throw new SQLException("settings table has no recognizable key/value columns");
+        }
+        return new Layout("`" + keyCol + "`", "`" + valueCol + "`");
+    }
+
+    private static Snapshot build(Map<String, String> values, long loadedAt) {
+        String mm = values.get(MAINTENANCE_MODE);
+        boolean maintenance = mm != null && "true".equalsIgnoreCase(mm.trim());
+
+        LocalDate deadline = null;
+        String dl = values.get(DROP_OR_ADD_DEADLINE);
+        if (dl != null && !dl.isBlank()) {
+            try {
+                deadline = LocalDate.parse(dl.trim());
+            } catch (DateTimeParseException e) {
+                System.err.println("Warning: ignoring invalid " + DROP_OR_ADD_DEADLINE + " value: " + dl);
+            }
+        }
+        return new Snapshot(Collections.unmodifiableMap(values), maintenance, deadline, loadedAt);
+    }
+}
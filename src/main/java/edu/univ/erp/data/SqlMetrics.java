@@ -0,0 +1,120 @@
+package edu.univ.erp.data;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// per-statement counters fed by InstrumentedConnection; keyed by normalized SQL text
+public class SqlMetrics {
+
+    public record StatementStats(
+            String sql,
+            long calls,
+            long errors,
+            double meanMicros,
+            long p50Micros,
+            long p95Micros,
+            long p99Micros,
+            long maxMicros,
+            long totalMicros,
+            long rowsReturned,
+            long rowsAffected,
+            long batches,
+            long batchedRows
+    ) {}
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ConcurrentHashMap<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    // normalizing is regex work; the services reuse the same few dozen strings, so remember the result
+    private static final ConcurrentHashMap<String, String> NORMALIZED = new ConcurrentHashMap<>();
+    private static final int NORMALIZED_CACHE_LIMIT = 2048;
+
+    static final class Entry {
+        final String sql;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rowsReturned = new LongAdder();
+        final LongAdder rowsAffected = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LongAdder batchedRows = new LongAdder();
+
+        Entry(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private SqlMetrics() {}
+
+    static Entry entryFor(String rawSql) {
+        String key = normalize(rawSql);
+        return ENTRIES.computeIfAbsent(key, Entry::new);
+    }
+
+    public static String normalize(String sql) {
+        if (sql == null) return "<null>";
+        String cached = NORMALIZED.get(sql);
+        if (cached != null) return cached;
+
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = WHITESPACE.matcher(s).replaceAll(" ").trim();
+
+        if (NORMALIZED.size() < NORMALIZED_CACHE_LIMIT) {
+            NORMALIZED.put(sql, s);
+        }
+        return s;
+    }
+
+    public static List<StatementStats> snapshot() {
+        List<StatementStats> out = new ArrayList<>();
+        for (Entry e : ENTRIES.values()) {
+            LatencyHistogram h = e.latency;
+            out.add(new StatementStats(
+                    e.sql,
+                    h.getCount(),
+                    e.errors.sum(),
+                    h.getMeanMicros(),
+                    h.percentileMicros(50),
+                    h.percentileMicros(95),
+                    h.percentileMicros(99),
+                    h.getMaxMicros(),
+                    h.getSumMicros(),
+                    e.rowsReturned.sum(),
+                    e.rowsAffected.sum(),
+                    e.batches.sum(),
+                    e.batchedRows.sum()
+            ));
+        }
+        out.sort(Comparator.comparingLong(StatementStats::totalMicros).reversed());
+        return out;
+    }
+
+    public static void reset() {
+        ENTRIES.clear();
+    }
+
+    public static void dump(PrintStream out) {
+        List<StatementStats> stats = snapshot();
+        out.println("==== SQL statement metrics (" + stats.size() + " statements, times in ms) ====");
+        out.printf("%8s %6s %9s %9s %9s %9s %9s %10s %10s %8s  %s%n",
+                "calls", "errors", "mean", "p50", "p95", "p99", "max", "rows", "affected", "batches", "sql");
+        for (StatementStats s : stats) {
+            out.printf("%8d %6d %9.2f %9.2f %9.2f %9.2f %9.2f %10d %10d %8d  %s%n",
+                    s.calls(), s.errors(),
+                    s.meanMicros() / 1000.0,
+                    s.p50Micros() / 1000.0,
+                    s.p95Micros() / 1000.0,
+                    s.p99Micros() / 1000.0,
+                    s.maxMicros() / 1000.0,
+                    s.rowsReturned(), s.rowsAffected(), s.batches(),
+                    s.sql());
+        }
+    }
+}
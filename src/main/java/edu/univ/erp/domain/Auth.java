@@ -1,10 +1,40 @@
 package edu.univ.erp.domain;
+
+import java.util.Locale;
+
+// value types shared by the login pipeline and the dashboards
 public class Auth {
 
     public enum Role {
         STUDENT,
         INSTRUCTOR,
         ADMIN;
+
+        // users_auth.role as stored (any case); null when it is not a known role
+        public static Role from(String value) {
+            if (value == null) return null;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    public enum Stage {
+        LOOKUP,     // fetching the user row
+        VERIFY,     // waiting for / running the bcrypt check
+        FINISH      // login accepted, handing over to the dashboard
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        UNKNOWN_USER,
+        BAD_PASSWORD,
+        BUSY,       // too many logins queued; try again shortly
+        THROTTLED,  // too many attempts for this user or overall; rejected before bcrypt
+        LOCKED,     // account locked after repeated failures (users_auth.status = 'LOCKED')
+        ERROR
     }
 
     public record UserAuth(
@@ -18,7 +48,26 @@ public class Auth {
 
     public record Session(
             String userId,
+            String username,
             Role role,
-            long lastLoginTimestamp
+            long loginAtMillis
     ) {}
-}
\ No newline at end of file
+
+    public record Result(
+            Outcome outcome,
+            Session session,
+            String message
+    ) {
+        public boolean isSuccess() {
+            return outcome == Outcome.SUCCESS;
+        }
+
+        public static Result success(Session session) {
+            return new Result(Outcome.SUCCESS, session, "Login Successful! Redirecting...");
+        }
+
+        public static Result failure(Outcome outcome, String message) {
+            return new Result(outcome, null, message);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package edu.univ.erp.domain;
+
+import java.util.List;
+
+// one slice of a keyset-paginated listing. the next page is requested with last() as the cursor, so no page
+// costs more than its own rows however deep the user scrolls. estimatedTotal is -1 when not computed (later pages)
+public record Page<T>(
+        List<T> items,
+        boolean hasMore,
+        long estimatedTotal
+) {
+    public T last() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
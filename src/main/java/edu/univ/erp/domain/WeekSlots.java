@@ -0,0 +1,133 @@
+package edu.univ.erp.domain;
+
+import java.util.Arrays;
+
+// the slots of a week a timetable occupies, one bit per 15 minutes. a day has 96 slots, so it takes two longs
+// (00:00-16:00 and 16:00-24:00) rather than one: a single word would only reach 16:00. two timetables clash
+// when any word pair ANDs non-zero, which is 14 ANDs whatever the number of sections.
+// slots are rounded outwards, so meetings that merely touch inside one quarter hour (09:00-09:50 and 09:50-10:40)
+// share a bit; Meeting.overlaps() gives the exact answer for those.
+public final class WeekSlots {
+
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS_PER_DAY = 2;
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
+
+    // one weekly class meeting, in minutes since midnight; end is exclusive
+    public record Meeting(
+            int day,
+            int start,
+            int end
+    ) {
+        // null when the day or either time can't be read, or the meeting is empty
+        public static Meeting parse(String day, String start, String end) {
+            int d = dayIndex(day);
+            int s = minutes(start);
+            int e = minutes(end);
+            if (d < 0 || s < 0 || e <= s) return null;
+            return new Meeting(d, s, e);
+        }
+
+        public boolean overlaps(Meeting other) {
+            return day == other.day && start < other.end && other.start < end;
+        }
+
+        public String dayName() {
+            return DAYS[day];
+        }
+
+        @Override
+        public String toString() {
+            return dayName() + " " + clock(start) + "-" + clock(end);
+        }
+    }
+
+    private final long[] words = new long[DAYS.length * WORDS_PER_DAY];
+
+    public static WeekSlots of(Meeting m) {
+        WeekSlots w = new WeekSlots();
+        if (m != null) w.add(m);
+        return w;
+    }
+
+    public WeekSlots add(Meeting m) {
+        int from = m.start() / SLOT_MINUTES;
+        int to = Math.min((m.end() + SLOT_MINUTES - 1) / SLOT_MINUTES, SLOTS_PER_DAY);
+        int base = m.day() * WORDS_PER_DAY;
+        for (int w = 0; w < WORDS_PER_DAY; w++) {
+            int lo = Math.max(from, w * 64);
+            int hi = Math.min(to, w * 64 + 64);
+            if (lo >= hi) continue;
+            long bits = hi - lo == 64 ? -1L : (1L << (hi - lo)) - 1;
+            words[base + w] |= bits << (lo - w * 64);
+        }
+        return this;
+    }
+
+    public WeekSlots addAll(WeekSlots other) {
+        for (int i = 0; i < words.length; i++) words[i] |= other.words[i];
+        return this;
+    }
+
+    public boolean intersects(WeekSlots other) {
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & other.words[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        for (long w : words) {
+            if (w != 0) return false;
+        }
+        return true;
+    }
+
+    public int slotCount() {
+        int n = 0;
+        for (long w : words) n += Long.bitCount(w);
+        return n;
+    }
+
+    // 0 = Monday .. 6 = Sunday; accepts full or three-letter names in any case, -1 otherwise
+    public static int dayIndex(String day) {
+        if (day == null || day.length() < 3) return -1;
+        for (int i = 0; i < DAYS.length; i++) {
+            if (DAYS[i].regionMatches(true, 0, day, 0, 3)) return i;
+        }
+        return -1;
+    }
+
+    // "H:mm", "HH:mm" or "HH:mm:ss" to minutes since midnight, -1 if it isn't a time. no split/parseInt garbage
+    public static int minutes(String time) {
+        if (time == null) return -1;
+        int colon = time.indexOf(':');
+        if (colon < 1 || colon > 2 || time.length() < colon + 3) return -1;
+        int h = 0;
+        for (int i = 0; i < colon; i++) {
+            int d = time.charAt(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            h = h * 10 + d;
+        }
+        int m1 = time.charAt(colon + 1) - '0';
+        int m2 = time.charAt(colon + 2) - '0';
+        if (m1 < 0 || m1 > 5 || m2 < 0 || m2 > 9 || h > 24) return -1;
+        int total = h * 60 + m1 * 10 + m2;
+        return total > 24 * 60 ? -1 : total;
+    }
+
+    public static String clock(int minutes) {
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WeekSlots w && Arrays.equals(words, w.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
@@ -1,17 +1,47 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.data.CatalogIndex;
 import edu.univ.erp.data.DBConfig;
+import edu.univ.erp.data.IdAllocator;
+import edu.univ.erp.data.ReadCoalescer;
+import edu.univ.erp.data.ScheduleIndex;
+import edu.univ.erp.data.SeatCountReconciler;
+import edu.univ.erp.data.SettingsCache;
+import edu.univ.erp.domain.Page;
 import edu.univ.erp.domain.ServiceResult;
+import edu.univ.erp.auth.AuthService;
 import edu.univ.erp.auth.HashUtil;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
 
 public class AdminService {
 
+    // ids reserved per round trip; unused ones are skipped after a restart, so section blocks stay small
+    private static final int USER_ID_BLOCK = 20;
+    private static final int SECTION_ID_BLOCK = 4;
+
+    // identical concurrent section listings share one query and its result for a moment
+    private static final long READ_TTL_MS = Long.getLong("erp.coalesce.ttlMs", 1_000L);
+    private static final ReadCoalescer<String, List<SectionView>> SECTION_READS =
+            new ReadCoalescer<>("sections", READ_TTL_MS);
+    private static final ReadCoalescer<List<Object>, Page<SectionView>> SECTION_PAGE_READS =
+            new ReadCoalescer<>("sections-page", READ_TTL_MS);
+
+    // section writes that can change a room or instructor booking hold this from the ScheduleIndex check through
+    // the database write and the index put, so two admins can't both pass the check for the same slot. covers
+    // this process only; the index TTL picks up other processes' writes
+    private static final Object SCHEDULE_WRITES = new Object();
+
     public record UserView(
             String userId,
             String username,
@@ -60,6 +90,63 @@ public class AdminService {
             int enrolled
     ) {}
 
+    // tables an admin can export. users_auth lives in auth_db, so USERS runs there and reaches into erp_db;
+    // password hashes are never exported
+    public enum ExportTarget {
+        USERS("users", true,
+                "SELECT u.user_id, u.username, u.role, u.status, u.last_login, " +
+                "s.roll_no, s.program, s.year_of_study, i.department, i.designation, i.office_room " +
+                "FROM users_auth u " +
+                "LEFT JOIN erp_db.students s ON u.role = 'STUDENT' AND s.user_id = u.user_id " +
+                "LEFT JOIN erp_db.instructors i ON u.role = 'INSTRUCTOR' AND i.user_id = u.user_id " +
+                "ORDER BY u.role, u.username"),
+        COURSES("courses", false,
+                "SELECT course_id, course_code, course_name, credits, description FROM courses ORDER BY course_code"),
+        SECTIONS("sections", false,
+                "SELECT s.section_id, c.course_code, s.instructor_id, u.username AS instructor, " +
+                "s.semester, s.year, s.day, s.start_time, s.end_time, s.room, s.capacity, s.enrolled_count " +
+                "FROM sections s " +
+                "JOIN courses c ON s.course_id = c.course_id " +
+                "LEFT JOIN auth_db.users_auth u ON s.instructor_id = u.user_id " +
+                "ORDER BY s.year DESC, s.semester, c.course_code"),
+        ENROLLMENTS("enrollments", false,
+                "SELECT e.enrollment_id, e.student_id, st.roll_no, e.section_id, c.course_code, " +
+                "e.status, e.enrollment_date, e.drop_date " +
+                "FROM enrollments e " +
+                "JOIN sections sec ON e.section_id = sec.section_id " +
+                "JOIN courses c ON sec.course_id = c.course_id " +
+                "LEFT JOIN students st ON e.student_id = st.user_id " +
+                "ORDER BY e.section_id, st.roll_no"),
+        GRADES("grades", false,
+                "SELECT g.enrollment_id, st.roll_no, e.section_id, c.course_code, " +
+                "g.component, g.score, g.max_score, g.final_grade " +
+                "FROM grades g " +
+                "JOIN enrollments e ON g.enrollment_id = e.enrollment_id " +
+                "JOIN sections sec ON e.section_id = sec.section_id " +
+                "JOIN courses c ON sec.course_id = c.course_id " +
+                "LEFT JOIN students st ON e.student_id = st.user_id " +
+                "ORDER BY e.section_id, st.roll_no, g.component");
+
+        private final String fileName;
+        private final boolean authDb;
+        private final String sql;
+
+        ExportTarget(String fileName, boolean authDb, String sql) {
+            this.fileName = fileName;
+            this.authDb = authDb;
+            this.sql = sql;
+        }
+
+        public String fileName() {
+            return fileName;
+        }
+
+        @Override
+        public String toString() {
+            return name().charAt(0) + name().substring(1).toLowerCase();
+        }
+    }
+
     //USER MANAGEMENT
 
     public ServiceResult<String> addStudent(String username, String password, String rollNo,
@@ -133,7 +220,13 @@ public class AdminService {
             return ServiceResult.error("Username already exists");
         }
 
-        String userId = "inst" + String.format("%03d", (int)(Math.random() * 1000));
+        String userId;
+        try {
+            userId = nextInstructorId();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to add instructor (id): " + e.getMessage());
+        }
         String passwordHash = HashUtil.hashPassword(password);
 
         String authSql = "INSERT INTO users_auth (user_id, username, role, password_hash, status, last_login) " +
@@ -185,7 +278,13 @@ public class AdminService {
 
         if (usernameExists(username)) return ServiceResult.error("Username already exists");
 
-        String userId = "admin" + String.format("%03d", (int)(Math.random() * 1000));
+        String userId;
+        try {
+            userId = nextAdminId();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to add admin (id): " + e.getMessage());
+        }
         String passwordHash = HashUtil.hashPassword(password);
 
         String sql = "INSERT INTO users_auth (user_id, username, role, password_hash, status, last_login) " +
@@ -207,27 +306,90 @@ public class AdminService {
         }
     }
 
+    // csvFile must have a header row; see UserImporter for the columns per role
+    public ServiceResult<UserImporter.Report> importUsersFromCsv(Path csvFile, String role) {
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            UserImporter.Report report = UserImporter.importCsv(reader, role);
+            return ServiceResult.success(
+                    report.created() + " of " + report.rows() + " user(s) imported in " + report.millis() + " ms",
+                    report);
+        } catch (IllegalArgumentException e) {
+            return ServiceResult.error(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to read CSV: " + e.getMessage());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to import users: " + e.getMessage());
+        }
+    }
+
+    // streams the whole table to disk; rows are never collected in memory, so this is safe for very large tables
+    public ServiceResult<Long> exportCsv(ExportTarget target, Path file, boolean gzip) {
+        long start = System.currentTimeMillis();
+        try (Connection conn = target.authDb ? DBConfig.getAuthConnection() : DBConfig.getErpConnection()) {
+            long rows = CsvExporter.export(conn, target.sql, file, gzip);
+            return ServiceResult.success(
+                    rows + " " + target.fileName() + " row(s) exported to " + file.getFileName() +
+                            " in " + (System.currentTimeMillis() - start) + " ms",
+                    rows);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to write export: " + e.getMessage());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to export " + target.fileName() + ": " + e.getMessage());
+        }
+    }
+
+    // catalog index and cached catalog/section reads after a course or section write
+    private static void catalogChanged() {
+        CatalogIndex.refresh();
+        StudentService.catalogChanged();
+        StudentService.timetablesChanged();
+        sectionsChanged();
+    }
+
+    static void sectionsChanged() {
+        SECTION_READS.invalidateAll();
+        SECTION_PAGE_READS.invalidateAll();
+    }
+
+    // ids keep the old instNNN / adminNNN look; sequences start past the highest id already in users_auth
+    static String nextInstructorId() throws SQLException {
+        return "inst" + String.format("%03d", IdAllocator.next("user.inst", USER_ID_BLOCK, () -> firstUserNumber("inst")));
+    }
+
+    static String nextAdminId() throws SQLException {
+        return "admin" + String.format("%03d", IdAllocator.next("user.admin", USER_ID_BLOCK, () -> firstUserNumber("admin")));
+    }
+
+    private static long firstUserNumber(String prefix) throws SQLException {
+        try (Connection conn = DBConfig.getAuthConnection()) {
+            return IdAllocator.maxNumericSuffix(conn, "users_auth", "user_id", prefix) + 1;
+        }
+    }
+
+    // single cross-database join (same approach as getAllInstructors) instead of one ERP lookup per user
+    private static final String USER_SELECT = "SELECT u.user_id, u.username, u.role, u.status, " +
+            "CASE u.role WHEN 'STUDENT' THEN COALESCE(s.roll_no, 'N/A') " +
+            "WHEN 'INSTRUCTOR' THEN COALESCE(i.department, 'N/A') " +
+            "ELSE 'N/A' END AS specific_id " +
+            "FROM users_auth u " +
+            "LEFT JOIN erp_db.students s ON u.role = 'STUDENT' AND s.user_id = u.user_id " +
+            "LEFT JOIN erp_db.instructors i ON u.role = 'INSTRUCTOR' AND i.user_id = u.user_id ";
+
     public List<UserView> getAllUsers() {
         List<UserView> users = new ArrayList<>();
 
-        String sql = "SELECT user_id, username, role, status FROM users_auth ORDER BY role, username";
+        String sql = USER_SELECT + "ORDER BY u.role, u.username";
 
         try (Connection conn = DBConfig.getAuthConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                String userId = rs.getString("user_id");
-                String role = rs.getString("role");
-                String specificId = getSpecificIdForUser(userId, role);
-
-                users.add(new UserView(
-                        userId,
-                        rs.getString("username"),
-                        role,
-                        rs.getString("status"),
-                        specificId
-                ));
+                users.add(mapUser(rs));
             }
 
         } catch (SQLException e) {
@@ -237,43 +399,90 @@ public class AdminService {
         return users;
     }
 
-    private String getSpecificIdForUser(String userId, String role) {
-        if ("STUDENT".equals(role)) {
-            try (Connection conn = DBConfig.getErpConnection()) {
-                String sql = "SELECT roll_no FROM students WHERE user_id = ?";
-                try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                    ps.setString(1, userId);
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) return rs.getString("roll_no");
-                    }
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
+    // keyset page in getAllUsers order; after is the last row of the previous page (null for the first)
+    public Page<UserView> getUsersPage(UserView after, int limit) {
+        String sql = USER_SELECT +
+                (after == null ? "" : "WHERE (u.role, u.username) > (?, ?) ") +
+                "ORDER BY u.role, u.username LIMIT ?";
+
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (after != null) {
+                ps.setString(i++, after.role());
+                ps.setString(i++, after.username());
             }
-        } else if ("INSTRUCTOR".equals(role)) {
-            try (Connection conn = DBConfig.getErpConnection()) {
-                String sql = "SELECT department FROM instructors WHERE user_id = ?";
-                try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                    ps.setString(1, userId);
-                    try (ResultSet rs = ps.executeQuery()) {
-                        if (rs.next()) return rs.getString("department");
-                    }
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
+            ps.setInt(i, limit + 1);
+            List<UserView> users = new ArrayList<>(limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) users.add(mapUser(rs));
+            }
+            return toPage(users, limit, after == null ? estimateRows(conn, "users_auth") : -1);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new Page<>(List.of(), false, -1);
+        }
+    }
+
+    private static UserView mapUser(ResultSet rs) throws SQLException {
+        return new UserView(
+                rs.getString("user_id"),
+                rs.getString("username"),
+                rs.getString("role"),
+                rs.getString("status"),
+                rs.getString("specific_id")
+        );
+    }
+
+    // clears a lockout set by the login throttle
+    public ServiceResult<String> unlockUser(String userId) {
+        String sql = "UPDATE users_auth SET status = 'ACTIVE' WHERE user_id = ? AND status = ?";
+
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, userId);
+            ps.setString(2, AuthService.STATUS_LOCKED);
+            if (ps.executeUpdate() > 0) {
+                return ServiceResult.success("User unlocked successfully!");
             }
+            return ServiceResult.error("User is not locked");
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to unlock user: " + e.getMessage());
         }
-        return "N/A";
     }
 
     public ServiceResult<String> deleteUser(String userId, String role) {
         try {
             if ("STUDENT".equals(role)) {
+                // give back the student's seats before the row goes, so sections.enrolled_count stays exact
+                String releaseSql = """
+                    UPDATE sections s
+                    JOIN (SELECT section_id, COUNT(*) AS n
+                          FROM enrollments
+                          WHERE student_id = ? AND status = 'ENROLLED'
+                          GROUP BY section_id) mine ON mine.section_id = s.section_id
+                    SET s.enrolled_count = GREATEST(s.enrolled_count - mine.n, 0)
+                    """;
+                String dropSql = "UPDATE enrollments SET status = 'DROPPED', drop_date = NOW() " +
+                        "WHERE student_id = ? AND status = 'ENROLLED'";
+                String sql = "DELETE FROM students WHERE user_id = ?";
+
                 try (Connection conn = DBConfig.getErpConnection()) {
-                    String sql = "DELETE FROM students WHERE user_id = ?";
-                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                        ps.setString(1, userId);
-                        ps.executeUpdate();
+                    conn.setAutoCommit(false);
+                    try {
+                        for (String stmt : new String[]{releaseSql, dropSql, sql}) {
+                            try (PreparedStatement ps = conn.prepareStatement(stmt)) {
+                                ps.setString(1, userId);
+                                ps.executeUpdate();
+                            }
+                        }
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
                     }
                 }
             } else if ("INSTRUCTOR".equals(role)) {
@@ -295,6 +504,10 @@ public class AdminService {
                 }
             }
 
+            // a student's seats went back; section listings show instructor names
+            if ("STUDENT".equals(role)) StudentService.catalogChanged();
+            sectionsChanged();
+
             return ServiceResult.success("User deleted successfully!");
 
         } catch (SQLException e) {
@@ -319,6 +532,7 @@ public class AdminService {
 
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
+                    catalogChanged();
                     return ServiceResult.success("Course added successfully!", rs.getInt(1));
                 }
             }
@@ -331,23 +545,19 @@ public class AdminService {
         }
     }
 
+    private static final String COURSE_SELECT = "SELECT course_id, course_code, course_name, credits, description FROM courses ";
+
     public List<CourseView> getAllCourses() {
         List<CourseView> courses = new ArrayList<>();
 
-        String sql = "SELECT course_id, course_code, course_name, credits, description FROM courses ORDER BY course_code";
+        String sql = COURSE_SELECT + "ORDER BY course_code, course_id";
 
         try (Connection conn = DBConfig.getErpConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                courses.add(new CourseView(
-                        rs.getInt("course_id"),
-                        rs.getString("course_code"),
-                        rs.getString("course_name"),
-                        rs.getInt("credits"),
-                        rs.getString("description")
-                ));
+                courses.add(mapCourse(rs));
             }
 
         } catch (SQLException e) {
@@ -357,6 +567,40 @@ public class AdminService {
         return courses;
     }
 
+    public Page<CourseView> getCoursesPage(CourseView after, int limit) {
+        String sql = COURSE_SELECT +
+                (after == null ? "" : "WHERE (course_code, course_id) > (?, ?) ") +
+                "ORDER BY course_code, course_id LIMIT ?";
+
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (after != null) {
+                ps.setString(i++, after.courseCode());
+                ps.setInt(i++, after.courseId());
+            }
+            ps.setInt(i, limit + 1);
+            List<CourseView> courses = new ArrayList<>(limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) courses.add(mapCourse(rs));
+            }
+            return toPage(courses, limit, after == null ? estimateRows(conn, "courses") : -1);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new Page<>(List.of(), false, -1);
+        }
+    }
+
+    private static CourseView mapCourse(ResultSet rs) throws SQLException {
+        return new CourseView(
+                rs.getInt("course_id"),
+                rs.getString("course_code"),
+                rs.getString("course_name"),
+                rs.getInt("credits"),
+                rs.getString("description")
+        );
+    }
+
 
     public ServiceResult<String> updateCourse(int courseId, String courseCode, String courseName,
                                               int credits, String description) {
@@ -373,6 +617,7 @@ public class AdminService {
 
             int rows = ps.executeUpdate();
             if (rows > 0) {
+                catalogChanged();
                 return ServiceResult.success("Course updated successfully!");
             } else {
                 return ServiceResult.error("Course not found");
@@ -394,6 +639,8 @@ public class AdminService {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
+                ScheduleIndex.refresh();    // its sections went with it
+                catalogChanged();
                 return ServiceResult.success("Course deleted successfully!");
             } else {
                 return ServiceResult.error("Course not found");
@@ -436,63 +683,66 @@ public class AdminService {
     public ServiceResult<String> addSection(int courseId, String instructorId, String semester, int year,
                                             String day, String startTime, String endTime, String room, int capacity) {
 
-        String sectionId = generateSectionId(courseId, semester, year);
-
         String cleanStart = formatTime(startTime);
         String cleanEnd   = formatTime(endTime);
 
-        String sql = "INSERT INTO sections (section_id, course_id, instructor_id, semester, year, day, start_time, end_time, room, capacity) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, sectionId);
-            ps.setInt(2, courseId);
-            ps.setString(3, instructorId);
-            ps.setString(4, semester);
-            ps.setInt(5, year);
-            ps.setString(6, day);
-            ps.setString(7, cleanStart); // <-- FIXED
-            ps.setString(8, cleanEnd);   // <-- FIXED
-            ps.setString(9, room);
-            ps.setInt(10, capacity);
-            ps.executeUpdate();
+        synchronized (SCHEDULE_WRITES) {
+            // before allocating an id, so a rejected section doesn't use up a number
+            ServiceResult<String> clash = checkBooking(
+                    ScheduleIndex.Booking.of(null, semester, year, day, cleanStart, cleanEnd, room, instructorId));
+            if (clash != null) return clash;
+
+            String sectionId = generateSectionId(courseId, semester, year);
+
+            String sql = "INSERT INTO sections (section_id, course_id, instructor_id, semester, year, day, start_time, end_time, room, capacity) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+            try (Connection conn = DBConfig.getErpConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setString(1, sectionId);
+                ps.setInt(2, courseId);
+                ps.setString(3, instructorId);
+                ps.setString(4, semester);
+                ps.setInt(5, year);
+                ps.setString(6, day);
+                ps.setString(7, cleanStart); // <-- FIXED
+                ps.setString(8, cleanEnd);   // <-- FIXED
+                ps.setString(9, room);
+                ps.setInt(10, capacity);
+                ps.executeUpdate();
+
+                ScheduleIndex.put(
+                        ScheduleIndex.Booking.of(sectionId, semester, year, day, cleanStart, cleanEnd, room, instructorId));
+                catalogChanged();
+                return ServiceResult.success("Section created successfully!", sectionId);
 
-            return ServiceResult.success("Section created successfully!", sectionId);
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return ServiceResult.error("Failed to create section: " + e.getMessage());
+            }
+        }
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return ServiceResult.error("Failed to create section: " + e.getMessage());
-        }
-    }
-
-    private String generateSectionId(int courseId, String semester, int year) {
-        try (Connection conn = DBConfig.getErpConnection()) {
-            String sql = "SELECT course_code FROM courses WHERE course_id = ?";
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setInt(1, courseId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        String courseCode = rs.getString("course_code");
-                        String semCode = semester.substring(0, 1); // F, S, or Su
-                        String yearCode = String.valueOf(year % 100); // 24, 25, etc.
-
-                        // Count existing sections for this course/semester/year
-                        String countSql = "SELECT COUNT(*) FROM sections WHERE course_id = ? AND semester = ? AND year = ?";
-                        try (PreparedStatement countPs = conn.prepareStatement(countSql)) {
-                            countPs.setInt(1, courseId);
-                            countPs.setString(2, semester);
-                            countPs.setInt(3, year);
-                            try (ResultSet countRs = countPs.executeQuery()) {
-                                if (countRs.next()) {
-                                    int count = countRs.getInt(1) + 1;
-                                    return String.format("%s-%s%s-%02d", courseCode, semCode, yearCode, count);
-                                }
-                            }
-                        }
+    // CODE-S24-01 style: course code, semester initial, two-digit year, then a per course/term counter from
+    // IdAllocator (no COUNT(*), so two admins creating sections at once cannot get the same id). the course code
+    // comes from the catalog index when the course already has sections; otherwise one lookup, closed before the
+    // allocator borrows its own connection
+    String generateSectionId(int courseId, String semester, int year) {
+        try {
+            String courseCode = CatalogIndex.courseCode(courseId);
+            if (courseCode == null) courseCode = lookupCourseCode(courseId);
+            if (courseCode != null) {
+                String semCode = semester.substring(0, 1); // F, S, or Su
+                String yearCode = String.valueOf(year % 100); // 24, 25, etc.
+                String prefix = courseCode + "-" + semCode + yearCode + "-";
+
+                long n = IdAllocator.next("section." + prefix, SECTION_ID_BLOCK, () -> {
+                    try (Connection conn = DBConfig.getErpConnection()) {
+                        return IdAllocator.maxNumericSuffix(conn, "sections", "section_id", prefix) + 1;
                     }
-                }
+                });
+                return String.format("%s%02d", prefix, n);
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -500,74 +750,169 @@ public class AdminService {
         return "SEC-" + System.currentTimeMillis();
     }
 
-    public List<SectionView> getAllSections() {
-        List<SectionView> sections = new ArrayList<>();
+    private static String lookupCourseCode(int courseId) throws SQLException {
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT course_code FROM courses WHERE course_id = ?")) {
+            ps.setInt(1, courseId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString("course_code") : null;
+            }
+        }
+    }
 
-        String sql = "SELECT s.section_id, s.course_id, c.course_code, c.course_name, " +
-                "s.instructor_id, u.username as instructor_name, " +
-                "s.semester, s.year, s.day, s.start_time, s.end_time, " +
-                "s.room, s.capacity, COUNT(e.enrollment_id) as enrolled " +
-                "FROM sections s " +
-                "JOIN courses c ON s.course_id = c.course_id " +
-                "LEFT JOIN instructors i ON s.instructor_id = i.user_id " +
-                "LEFT JOIN auth_db.users_auth u ON i.user_id = u.user_id " +
-                "LEFT JOIN enrollments e ON s.section_id = e.section_id AND e.status = 'ENROLLED' " +
-                "GROUP BY s.section_id " +
-                "ORDER BY s.year DESC, s.semester, c.course_code";
+    private static final String SECTION_SELECT = "SELECT s.section_id, s.course_id, c.course_code, c.course_name, " +
+            "s.instructor_id, u.username as instructor_name, " +
+            "s.semester, s.year, s.day, s.start_time, s.end_time, " +
+            "s.room, s.capacity, s.enrolled_count as enrolled " +
+            "FROM sections s " +
+            "JOIN courses c ON s.course_id = c.course_id " +
+            "LEFT JOIN instructors i ON s.instructor_id = i.user_id " +
+            "LEFT JOIN auth_db.users_auth u ON i.user_id = u.user_id ";
 
-        try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    // sections columns only, so paging can walk idx_sections_term_id; section ids start with the course code, so
+    // a term still lists in course order
+    private static final String SECTION_ORDER = "ORDER BY s.year DESC, s.semester, s.section_id";
 
-            while (rs.next()) {
-                String instructorDisplay = rs.getString("instructor_name");
-                if (instructorDisplay == null || instructorDisplay.isEmpty()) {
-                    instructorDisplay = "Not Assigned";
-                }
+    public List<SectionView> getAllSections() {
+        try {
+            return SECTION_READS.get("all", () -> {
+                List<SectionView> sections = new ArrayList<>();
+                String sql = SECTION_SELECT + SECTION_ORDER;
 
-                sections.add(new SectionView(
-                        rs.getString("section_id"),
-                        rs.getInt("course_id"),
-                        rs.getString("course_code"),
-                        rs.getString("course_name"),
-                        instructorDisplay,  // ✅ NOW SHOWS NAME, not ID
-                        rs.getString("semester"),
-                        rs.getInt("year"),
-                        rs.getString("day"),
-                        rs.getString("start_time"),
-                        rs.getString("end_time"),
-                        rs.getString("room"),
-                        rs.getInt("capacity"),
-                        rs.getInt("enrolled")
-                ));
-            }
+                try (Connection conn = DBConfig.getErpConnection();
+                     PreparedStatement ps = conn.prepareStatement(sql);
+                     ResultSet rs = ps.executeQuery()) {
 
+                    while (rs.next()) {
+                        sections.add(mapSection(rs));
+                    }
+                }
+                return List.copyOf(sections);
+            });
         } catch (SQLException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
+    }
 
-        return sections;
+    public Page<SectionView> getSectionsPage(SectionView after, int limit) {
+        // Arrays.asList: the cursor's fields may be null
+        List<Object> key = after == null ? List.of(limit)
+                : Arrays.asList(limit, after.year(), after.semester(), after.sectionId());
+        try {
+            return SECTION_PAGE_READS.get(key, () -> loadSectionsPage(after, limit));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new Page<>(List.of(), false, -1);
+        }
     }
 
-    public ServiceResult<String> assignInstructor(String sectionId, String instructorId) {
-        String sql = "UPDATE sections SET instructor_id = ? WHERE section_id = ?";
+    private Page<SectionView> loadSectionsPage(SectionView after, int limit) throws SQLException {
+        // year runs descending and the rest ascending, so only the tail is one row comparison
+        String sql = SECTION_SELECT +
+                (after == null ? "" : "WHERE s.year < ? OR (s.year = ? AND (s.semester, s.section_id) > (?, ?)) ") +
+                SECTION_ORDER + " LIMIT ?";
 
         try (Connection conn = DBConfig.getErpConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (after != null) {
+                ps.setInt(i++, after.year());
+                ps.setInt(i++, after.year());
+                ps.setString(i++, after.semester());
+                ps.setString(i++, after.sectionId());
+            }
+            ps.setInt(i, limit + 1);
+            List<SectionView> sections = new ArrayList<>(limit + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) sections.add(mapSection(rs));
+            }
+            return toPage(sections, limit, after == null ? estimateRows(conn, "sections") : -1);
+        }
+    }
 
-            ps.setString(1, instructorId);
-            ps.setString(2, sectionId);
+    private static SectionView mapSection(ResultSet rs) throws SQLException {
+        String instructorDisplay = rs.getString("instructor_name");
+        if (instructorDisplay == null || instructorDisplay.isEmpty()) {
+            instructorDisplay = "Not Assigned";
+        }
 
-            int rows = ps.executeUpdate();
-            if (rows > 0) {
-                return ServiceResult.success("Instructor assigned successfully!");
-            } else {
-                return ServiceResult.error("Section not found");
-            }
+        return new SectionView(
+                rs.getString("section_id"),
+                rs.getInt("course_id"),
+                rs.getString("course_code"),
+                rs.getString("course_name"),
+                instructorDisplay,  // ✅ NOW SHOWS NAME, not ID
+                rs.getString("semester"),
+                rs.getInt("year"),
+                rs.getString("day"),
+                rs.getString("start_time"),
+                rs.getString("end_time"),
+                rs.getString("room"),
+                rs.getInt("capacity"),
+                rs.getInt("enrolled")
+        );
+    }
 
+    // rows were fetched with LIMIT limit + 1; the extra one only says whether another page exists
+    private static <T> Page<T> toPage(List<T> rows, int limit, long estimatedTotal) {
+        boolean more = rows.size() > limit;
+        return new Page<>(more ? List.copyOf(rows.subList(0, limit)) : List.copyOf(rows), more, estimatedTotal);
+    }
+
+    // InnoDB's table statistics: free to read, usually within a few percent
+    private static long estimateRows(Connection conn, String table) {
+        String sql = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
-            return ServiceResult.error("Failed to assign instructor: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    public ServiceResult<String> assignInstructor(String sectionId, String instructorId) {
+        String sql = "UPDATE sections SET instructor_id = ? WHERE section_id = ?";
+
+        synchronized (SCHEDULE_WRITES) {
+            ScheduleIndex.Booking booking = null;
+            try {
+                ScheduleIndex.Booking current = ScheduleIndex.find(sectionId);
+                if (current != null) {
+                    booking = new ScheduleIndex.Booking(sectionId, current.semester(), current.year(), current.room(),
+                            instructorId, current.meeting());
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return ServiceResult.error("Failed to assign instructor: " + e.getMessage());
+            }
+            if (booking != null) {
+                ServiceResult<String> clash = checkBooking(booking);
+                if (clash != null) return clash;
+            }
+
+            try (Connection conn = DBConfig.getErpConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setString(1, instructorId);
+                ps.setString(2, sectionId);
+
+                int rows = ps.executeUpdate();
+                if (rows > 0) {
+                    if (booking != null) ScheduleIndex.put(booking);
+                    catalogChanged();
+                    return ServiceResult.success("Instructor assigned successfully!");
+                } else {
+                    return ServiceResult.error("Section not found");
+                }
+
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return ServiceResult.error("Failed to assign instructor: " + e.getMessage());
+            }
         }
     }
 
@@ -581,6 +926,8 @@ public class AdminService {
             int rows = ps.executeUpdate();
 
             if (rows > 0) {
+                ScheduleIndex.remove(sectionId);
+                catalogChanged();
                 return ServiceResult.success("Section deleted successfully!");
             } else {
                 return ServiceResult.error("Section not found");
@@ -592,6 +939,51 @@ public class AdminService {
         }
     }
 
+    // an error result naming the clashing section, or null when the room and instructor are free
+    private ServiceResult<String> checkBooking(ScheduleIndex.Booking booking) {
+        try {
+            ScheduleIndex.Conflict c = ScheduleIndex.check(booking);
+            return c == null ? null : ServiceResult.error(c.describe() + ".");
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to check the schedule: " + e.getMessage());
+        }
+    }
+
+    // room and instructor double-bookings already in the schedule; semester null checks every term
+    public ServiceResult<List<ScheduleIndex.Conflict>> checkSchedule(String semester, int year) {
+        try {
+            List<ScheduleIndex.Conflict> conflicts = ScheduleIndex.conflicts(semester, year);
+            return ServiceResult.success(conflicts.isEmpty()
+                    ? "No room or instructor double-bookings found."
+                    : conflicts.size() + " double-booking(s) found.", conflicts);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to check the schedule: " + e.getMessage());
+        }
+    }
+
+    // verify sections.enrolled_count against the enrollments table; repair fixes any drift found
+    public ServiceResult<List<SeatCountReconciler.Drift>> reconcileSeatCounts(boolean repair) {
+        try {
+            List<SeatCountReconciler.Drift> drifts = SeatCountReconciler.run(repair);
+            if (drifts.isEmpty()) {
+                return ServiceResult.success("All seat counts are consistent.", drifts);
+            }
+            if (repair) {
+                StudentService.catalogChanged();
+                sectionsChanged();
+            }
+            return ServiceResult.success(
+                    drifts.size() + " section(s) had drifted seat counts" + (repair ? " and were repaired." : "."),
+                    drifts
+            );
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to reconcile seat counts: " + e.getMessage());
+        }
+    }
+
     // ==================== SYSTEM SETTINGS ====================
 
     public ServiceResult<Boolean> toggleMaintenanceMode(boolean enable) {
@@ -602,6 +994,7 @@ public class AdminService {
 
             ps.setString(1, enable ? "true" : "false");
             ps.executeUpdate();
+            SettingsCache.refresh();
 
             return ServiceResult.success(
                     "Maintenance mode " + (enable ? "enabled" : "disabled"),
@@ -615,21 +1008,7 @@ public class AdminService {
     }
 
     public boolean getMaintenanceMode() {
-        String sql = "SELECT `value` FROM settings WHERE `key` = 'maintenance_mode'";
-
-        try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-
-            if (rs.next()) {
-                return "true".equalsIgnoreCase(rs.getString("value"));
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return false;
+        return SettingsCache.isMaintenanceMode();
     }
 
 
@@ -668,51 +1047,45 @@ public class AdminService {
         String sql = "UPDATE sections SET instructor_id = ?, semester = ?, year = ?, day = ?, " +
                 "start_time = ?, end_time = ?, room = ?, capacity = ? WHERE section_id = ?";
 
-        try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, instructorId);
-            ps.setString(2, semester);
-            ps.setInt(3, year);
-            ps.setString(4, day);
-            ps.setString(5, startTime);
-            ps.setString(6, endTime);
-            ps.setString(7, room);
-            ps.setInt(8, capacity);
-            ps.setString(9, sectionId);
+        synchronized (SCHEDULE_WRITES) {
+            ScheduleIndex.Booking booking =
+                    ScheduleIndex.Booking.of(sectionId, semester, year, day, startTime, endTime, room, instructorId);
+            ServiceResult<String> clash = checkBooking(booking);
+            if (clash != null) return clash;
+
+            try (Connection conn = DBConfig.getErpConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setString(1, instructorId);
+                ps.setString(2, semester);
+                ps.setInt(3, year);
+                ps.setString(4, day);
+                ps.setString(5, startTime);
+                ps.setString(6, endTime);
+                ps.setString(7, room);
+                ps.setInt(8, capacity);
+                ps.setString(9, sectionId);
+
+                int rows = ps.executeUpdate();
+                if (rows > 0) {
+                    ScheduleIndex.put(booking);
+                    catalogChanged();
+                    return ServiceResult.success("Section updated successfully!");
+                } else {
+                    return ServiceResult.error("Section not found");
+                }
 
-            int rows = ps.executeUpdate();
-            if (rows > 0) {
-                return ServiceResult.success("Section updated successfully!");
-            } else {
-                return ServiceResult.error("Section not found");
+            } catch (SQLException e) {
+                e.printStackTrace();
+                return ServiceResult.error("Failed to update section: " + e.getMessage());
             }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return ServiceResult.error("Failed to update section: " + e.getMessage());
         }
     }
 
     // ==================== GET SETTING VALUE ====================
     public String getSettingValue(String key) {
-        String sql = "SELECT `value` FROM settings WHERE `key` = ?";
-
-        try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, key);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("value");
-                }
-            }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-
-        return "Not Set";
+        String value = SettingsCache.get(key);
+        return value != null ? value : "Not Set";
     }
 
     // ==================== UPDATE SETTING ====================
@@ -727,6 +1100,7 @@ public class AdminService {
 
             int rows = ps.executeUpdate();
             if (rows > 0) {
+                SettingsCache.refresh();
                 return ServiceResult.success("Setting updated successfully!");
             } else {
                 return ServiceResult.error("Setting not found");
@@ -0,0 +1,69 @@
+package edu.univ.erp.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// non-blocking facade over StudentService / InstructorService / AdminService. each call runs on its own
+// virtual thread; a shared semaphore caps how many of them talk to the database at once.
+public class AsyncService<S> {
+
+    @FunctionalInterface
+    public interface Call<S, T> {
+        T apply(S service) throws Exception;
+    }
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    // keep in line with the connection pool size so waiting happens here, not inside the pool
+    private static final Semaphore DB_PERMITS = new Semaphore(Integer.getInteger("erp.async.maxConcurrent", 8), true);
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(Long.getLong("erp.async.timeoutMs", 30_000L));
+
+    private final S service;
+
+    public AsyncService(S service) {
+        this.service = service;
+    }
+
+    public S sync() {
+        return service;
+    }
+
+    public <T> CompletableFuture<T> call(Call<S, T> op) {
+        return call(op, DEFAULT_TIMEOUT);
+    }
+
+    // the future fails with TimeoutException when the timeout passes (null = no timeout); cancelling it (or timing out)
+    // interrupts the worker and frees its slot
+    public <T> CompletableFuture<T> call(Call<S, T> op, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = EXECUTOR.submit(() -> {
+            if (result.isDone()) return;
+            try {
+                DB_PERMITS.acquire();
+            } catch (InterruptedException e) {
+                result.cancel(false);
+                return;
+            }
+            try {
+                if (!result.isDone()) {
+                    result.complete(op.apply(service));
+                }
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                DB_PERMITS.release();
+            }
+        });
+        result.whenComplete((value, ex) -> {
+            if (ex != null) task.cancel(true);
+        });
+        if (timeout != null) {
+            result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package edu.univ.erp.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+// streams a query result straight into a CSV file. the statement is forward-only/read-only with the MySQL
+// streaming fetch size, so rows come off the socket one at a time and memory stays flat however big the table is.
+// output goes to <target>.part through one buffered channel (optionally gzipped) and is renamed over the target
+// only once every row is written, so a failed export never leaves a truncated file behind.
+public final class CsvExporter {
+
+    private static final int BUFFER_SIZE = Integer.getInteger("erp.export.bufferBytes", 64 * 1024);
+
+    private CsvExporter() {}
+
+    // returns the number of data rows written; the header row comes from the column labels
+    public static long export(Connection conn, String sql, Path target, boolean gzip, Object... params)
+            throws SQLException, IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream instead of buffering the whole result
+            for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+
+            try (ResultSet rs = ps.executeQuery();
+                 CsvWriter csv = new CsvWriter(open(part, gzip))) {
+                ResultSetMetaData md = rs.getMetaData();
+                int columns = md.getColumnCount();
+                for (int c = 1; c <= columns; c++) {
+                    if (c > 1) csv.separator();
+                    csv.writeField(md.getColumnLabel(c));
+                }
+                csv.endRow();
+
+                while (rs.next()) {
+                    for (int c = 1; c <= columns; c++) {
+                        if (c > 1) csv.separator();
+                        String v = rs.getString(c);
+                        csv.writeField(v == null ? "" : v);
+                    }
+                    csv.endRow();
+                    rows++;
+                }
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+
+        try {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return rows;
+    }
+
+    private static Writer open(Path file, boolean gzip) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        if (gzip) out = new GZIPOutputStream(out, BUFFER_SIZE);
+        return new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+}
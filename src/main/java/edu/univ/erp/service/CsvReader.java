@@ -0,0 +1,82 @@
+package edu.univ.erp.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// streaming RFC 4180 reader: one record at a time, quoted fields may hold commas, quotes ("") and newlines
+public class CsvReader implements Closeable {
+
+    private final BufferedReader in;
+    private int lineNumber = 0;
+    private int recordLine = 0;
+
+    public CsvReader(Reader reader) {
+        this.in = reader instanceof BufferedReader br ? br : new BufferedReader(reader);
+    }
+
+    // next record, or null at end of input. blank lines are skipped
+    public List<String> next() throws IOException {
+        String line;
+        do {
+            line = in.readLine();
+            if (line == null) return null;
+            lineNumber++;
+        } while (line.isBlank());
+        recordLine = lineNumber;
+        if (recordLine == 1 && !line.isEmpty() && line.charAt(0) == '\uFEFF') line = line.substring(1); // BOM
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) break;
+                // quoted field continues on the next physical line
+                String more = in.readLine();
+                if (more == null) throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                lineNumber++;
+                field.append('\n');
+                line = more;
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"') {
+                    if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // physical line the last record returned by next() started on (1-based)
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
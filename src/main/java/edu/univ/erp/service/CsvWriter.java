@@ -0,0 +1,52 @@
+package edu.univ.erp.service;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+// writes RFC 4180 records; fields with commas, quotes or line breaks are quoted. counterpart of CsvReader
+public class CsvWriter implements Closeable, Flushable {
+
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeRow(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.write(',');
+            writeField(fields[i] == null ? "" : fields[i].toString());
+        }
+        out.write('\n');
+    }
+
+    public void writeField(String s) throws IOException {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            out.write(s);
+            return;
+        }
+        out.write('"');
+        out.write(s.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    public void separator() throws IOException {
+        out.write(',');
+    }
+
+    public void endRow() throws IOException {
+        out.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
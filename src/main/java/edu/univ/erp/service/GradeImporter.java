@@ -0,0 +1,188 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DBConfig;
+import edu.univ.erp.service.InstructorService.GradeRow;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// gradebook import for one section from a spreadsheet export keyed by roll number:
+//
+//   roll_no,quiz,midterm,endsem      (any subset of the score columns; extra columns are ignored)
+//
+// enrollment ids for the whole section are resolved with one query up front. rows are validated as they stream in
+// and the scores go out through the saveGradesBatch upsert in chunks, all in one transaction, so a database error
+// leaves the gradebook as it was. blank cells leave that score unchanged. FINAL is recomputed from the stored
+// components with the gradebook weights for every imported student, in the same transaction.
+public class GradeImporter {
+
+    public record RowError(
+            int line,
+            String rollNo,
+            String message
+    ) {}
+
+    public record Report(
+            String sectionId,
+            int rows,
+            int students,
+            int scores,
+            List<RowError> errors,
+            long millis
+    ) {
+        public double rowsPerSecond() {
+            return millis == 0 ? rows * 1000.0 : rows * 1000.0 / millis;
+        }
+    }
+
+    private static final int CHUNK_SIZE = Integer.getInteger("erp.grades.importChunkSize", 500);
+    private static final double MAX_SCORE = 100.0;
+
+    // component name -> weight, same split the gradebook uses
+    private static final Map<String, Integer> COMPONENTS = Map.of("QUIZ", 20, "MIDTERM", 30, "ENDSEM", 50);
+
+    private final String sectionId;
+    private final Map<String, String> enrollmentByRollNo = new HashMap<>();
+    private final Set<String> seen = new HashSet<>();
+    private final List<String> imported = new ArrayList<>();   // enrollment ids, for the FINAL recompute
+    private final List<RowError> errors = new ArrayList<>();
+
+    private GradeImporter(String sectionId) {
+        this.sectionId = sectionId;
+    }
+
+    public static Report importCsv(Reader csv, String sectionId) throws IOException, SQLException {
+        return new GradeImporter(sectionId).run(csv);
+    }
+
+    private Report run(Reader source) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+        int rows = 0;
+        int students = 0;
+        int scores = 0;
+
+        try (Connection conn = DBConfig.getErpConnection()) {
+            loadEnrollments(conn);
+
+            try (CsvReader csv = new CsvReader(source)) {
+                List<String> header = csv.next();
+                if (header == null) return new Report(sectionId, 0, 0, 0, errors, 0);
+                int rollCol = -1;
+                Map<String, Integer> scoreCols = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    String name = header.get(i).trim().toUpperCase(Locale.ROOT);
+                    if ("ROLL_NO".equals(name) || "ROLL NO".equals(name)) rollCol = i;
+                    else if (COMPONENTS.containsKey(name)) scoreCols.put(name, i);
+                }
+                if (rollCol < 0) throw new IllegalArgumentException("CSV header is missing column: roll_no");
+                if (scoreCols.isEmpty()) throw new IllegalArgumentException("CSV header has no score columns (quiz, midterm, endsem)");
+
+                conn.setAutoCommit(false);
+                try {
+                    List<GradeRow> chunk = new ArrayList<>(CHUNK_SIZE);
+                    List<String> record;
+                    while ((record = csv.next()) != null) {
+                        rows++;
+                        List<GradeRow> parsed = validate(csv.getRecordLine(), record, rollCol, scoreCols);
+                        if (parsed.isEmpty()) continue;
+                        students++;
+                        scores += parsed.size();
+                        chunk.addAll(parsed);
+                        if (chunk.size() >= CHUNK_SIZE) {
+                            InstructorService.upsertGrades(conn, chunk);
+                            chunk.clear();
+                        }
+                    }
+                    if (!chunk.isEmpty()) InstructorService.upsertGrades(conn, chunk);
+                    recomputeFinals(conn);
+                    conn.commit();
+                } catch (SQLException | IOException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+        return new Report(sectionId, rows, students, scores, errors, System.currentTimeMillis() - start);
+    }
+
+    private void loadEnrollments(Connection conn) throws SQLException {
+        String sql = "SELECT st.roll_no, e.enrollment_id FROM enrollments e " +
+                "JOIN students st ON e.student_id = st.user_id " +
+                "WHERE e.section_id = ? AND (e.status IS NULL OR e.status = 'ENROLLED')";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) enrollmentByRollNo.put(rs.getString(1), rs.getString(2));
+            }
+        }
+    }
+
+    // a bad row is reported and skipped as a whole, so a student never ends up with half their marks imported
+    private List<GradeRow> validate(int line, List<String> record, int rollCol, Map<String, Integer> scoreCols) {
+        String rollNo = rollCol < record.size() ? record.get(rollCol).trim() : "";
+        if (rollNo.isEmpty()) return reject(line, rollNo, "Roll number required");
+        String enrollmentId = enrollmentByRollNo.get(rollNo);
+        if (enrollmentId == null) return reject(line, rollNo, "Not enrolled in " + sectionId);
+        if (!seen.add(rollNo)) return reject(line, rollNo, "Duplicate roll number");
+
+        List<GradeRow> out = new ArrayList<>(scoreCols.size());
+        for (Map.Entry<String, Integer> col : scoreCols.entrySet()) {
+            String cell = col.getValue() < record.size() ? record.get(col.getValue()).trim() : "";
+            if (cell.isEmpty()) continue;
+            double score;
+            try {
+                score = Double.parseDouble(cell);
+            } catch (NumberFormatException e) {
+                return reject(line, rollNo, col.getKey() + " is not a number: " + cell);
+            }
+            if (score < 0 || score > MAX_SCORE || Double.isNaN(score)) {
+                return reject(line, rollNo, col.getKey() + " must be between 0 and " + (int) MAX_SCORE);
+            }
+            out.add(new GradeRow(enrollmentId, col.getKey(), score, COMPONENTS.get(col.getKey())));
+        }
+        if (!out.isEmpty()) imported.add(enrollmentId);
+        return out;
+    }
+
+    // FINAL = weighted sum of the stored components, a missing one counting as 0, rounded to 2 places; the same
+    // formula as the gradebook's Compute Final button. one INSERT ... SELECT per chunk of students
+    private void recomputeFinals(Connection conn) throws SQLException {
+        for (int from = 0; from < imported.size(); from += CHUNK_SIZE) {
+            List<String> part = imported.subList(from, Math.min(imported.size(), from + CHUNK_SIZE));
+            String sql = "INSERT INTO grades (enrollment_id, component, score, max_score) " +
+                    "SELECT g.enrollment_id, 'FINAL', ROUND(SUM(CASE UPPER(g.component) " +
+                    "WHEN 'QUIZ' THEN g.score * ? WHEN 'MIDTERM' THEN g.score * ? WHEN 'ENDSEM' THEN g.score * ? " +
+                    "ELSE 0 END) / 100, 2), 100 " +
+                    "FROM grades g WHERE g.enrollment_id IN (" + String.join(", ", Collections.nCopies(part.size(), "?")) + ") " +
+                    "GROUP BY g.enrollment_id " +
+                    "ON DUPLICATE KEY UPDATE score = VALUES(score), max_score = VALUES(max_score), version = version + 1";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int i = 1;
+                ps.setInt(i++, COMPONENTS.get("QUIZ"));
+                ps.setInt(i++, COMPONENTS.get("MIDTERM"));
+                ps.setInt(i++, COMPONENTS.get("ENDSEM"));
+                for (String id : part) ps.setString(i++, id);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private List<GradeRow> reject(int line, String rollNo, String message) {
+        errors.add(new RowError(line, rollNo, message));
+        return List.of();
+    }
+}
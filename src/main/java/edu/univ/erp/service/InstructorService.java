@@ -1,10 +1,22 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.data.DBConfig;
+import edu.univ.erp.data.SettingsCache;
+import edu.univ.erp.domain.ServiceResult;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class InstructorService {
 
@@ -29,7 +41,8 @@ public class InstructorService {
             Double quiz,
             Double midterm,
             Double endsem,
-            Double finalScore
+            Double finalScore,
+            Map<String, Integer> versions // component -> grades.version; absent when no score row exists
     ) {}
 
     public record GradeRow(
@@ -39,6 +52,23 @@ public class InstructorService {
             int weight
     ) {}
 
+    // one edited cell. version is the grades.version the edit was based on (null if the cell had no row);
+    // in a SaveReport it is the row's version after the save
+    public record GradeChange(
+            String enrollmentId,
+            String component,
+            Double score,
+            Integer version
+    ) {}
+
+    public record SaveReport(
+            List<GradeChange> saved,
+            List<GradeChange> conflicts // changed by someone else since load; not written
+    ) {}
+
+    private static final String[] COMPONENTS = {"QUIZ", "MIDTERM", "ENDSEM", "FINAL"};
+    private static final int SAVE_ATTEMPTS = 3;
+
 
     public String getDepartment(String instructorUserId) {
         String sql = "SELECT department FROM instructors WHERE user_id = ?";
@@ -87,42 +117,43 @@ public class InstructorService {
 
     public List<RosterRow> getRosterForSection(String sectionId) {
         List<RosterRow> out = new ArrayList<>();
-        String sql = "SELECT e.enrollment_id, st.user_id as student_id, st.roll_no, u.username as student_name " +
+        // one round trip: grade components are pivoted into columns server-side
+        String sql = "SELECT e.enrollment_id, st.user_id as student_id, st.roll_no, u.username as student_name, " +
+                "MAX(CASE WHEN UPPER(g.component) = 'QUIZ' THEN g.score END) AS quiz, " +
+                "MAX(CASE WHEN UPPER(g.component) = 'MIDTERM' THEN g.score END) AS midterm, " +
+                "MAX(CASE WHEN UPPER(g.component) = 'ENDSEM' THEN g.score END) AS endsem, " +
+                "MAX(CASE WHEN UPPER(g.component) = 'FINAL' THEN g.score END) AS final_score, " +
+                "MAX(CASE WHEN UPPER(g.component) = 'QUIZ' THEN g.version END) AS quiz_version, " +
+                "MAX(CASE WHEN UPPER(g.component) = 'MIDTERM' THEN g.version END) AS midterm_version, " +
+                "MAX(CASE WHEN UPPER(g.component) = 'ENDSEM' THEN g.version END) AS endsem_version, " +
+                "MAX(CASE WHEN UPPER(g.component) = 'FINAL' THEN g.version END) AS final_version " +
                 "FROM enrollments e JOIN students st ON e.student_id = st.user_id " +
                 "LEFT JOIN auth_db.users_auth u ON st.user_id = u.user_id " +
-                "WHERE e.section_id = ? AND (e.status IS NULL OR e.status = 'ENROLLED')";
+                "LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id " +
+                "WHERE e.section_id = ? AND (e.status IS NULL OR e.status = 'ENROLLED') " +
+                "GROUP BY e.enrollment_id, st.user_id, st.roll_no, u.username " +
+                "ORDER BY e.enrollment_id";
         try (Connection conn = DBConfig.getErpConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, sectionId);
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    String enrollmentId = rs.getString("enrollment_id");
-                    String studentId = rs.getString("student_id");
-                    String rollNo = rs.getString("roll_no");
-                    String studentName = rs.getString("student_name");
-
-                    Double quiz = null, mid = null, end = null, fin = null;
-                    String gsql = "SELECT component, score FROM grades WHERE enrollment_id = ?";
-                    try (PreparedStatement gps = conn.prepareStatement(gsql)) {
-                        gps.setString(1, enrollmentId);
-                        try (ResultSet grs = gps.executeQuery()) {
-                            while (grs.next()) {
-                                String comp = grs.getString("component");
-                                Object obj = grs.getObject("score");
-                                Double sc = null;
-                                if (obj instanceof Number) sc = ((Number) obj).doubleValue();
-                                else if (obj != null) {
-                                    try { sc = Double.parseDouble(obj.toString()); } catch (Exception ignored) {}
-                                }
-                                if ("QUIZ".equalsIgnoreCase(comp)) quiz = sc;
-                                else if ("MIDTERM".equalsIgnoreCase(comp)) mid = sc;
-                                else if ("ENDSEM".equalsIgnoreCase(comp)) end = sc;
-                                else if ("FINAL".equalsIgnoreCase(comp)) fin = sc;
-                            }
-                        }
+                    Map<String, Integer> versions = new HashMap<>();
+                    for (String component : COMPONENTS) {
+                        int v = rs.getInt(component.toLowerCase() + "_version");
+                        if (!rs.wasNull()) versions.put(component, v);
                     }
-
-                    out.add(new RosterRow(enrollmentId, studentId, rollNo, studentName, quiz, mid, end, fin));
+                    out.add(new RosterRow(
+                            rs.getString("enrollment_id"),
+                            rs.getString("student_id"),
+                            rs.getString("roll_no"),
+                            rs.getString("student_name"),
+                            parseDoubleOrNull(rs.getObject("quiz")),
+                            parseDoubleOrNull(rs.getObject("midterm")),
+                            parseDoubleOrNull(rs.getObject("endsem")),
+                            parseDoubleOrNull(rs.getObject("final_score")),
+                            versions
+                    ));
                 }
             }
         } catch (SQLException ex) {
@@ -145,27 +176,10 @@ public class InstructorService {
     public void saveGradesBatch(List<GradeRow> grades) throws SQLException {
         if (grades == null || grades.isEmpty()) return;
 
-        String upsertSql = """
-INSERT INTO grades (enrollment_id, component, score, max_score)
-VALUES (?, ?, ?, ?)
-ON DUPLICATE KEY UPDATE score = VALUES(score), max_score = VALUES(max_score)
-""";
-
-        try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(upsertSql)) {
+        try (Connection conn = DBConfig.getErpConnection()) {
             conn.setAutoCommit(false);
             try {
-                for (GradeRow g : grades) {
-                    ps.setString(1, g.enrollmentId());
-                    ps.setString(2, g.component());
-                    if (g.score() == null) ps.setNull(3, Types.DOUBLE);
-                    else ps.setDouble(3, g.score());
-
-                    // All scores are out of 100
-                    ps.setInt(4, 100);
-                    ps.addBatch();
-                }
-                ps.executeBatch();
+                upsertGrades(conn, grades);
                 conn.commit();
             } catch (SQLException e) {
                 conn.rollback();
@@ -173,36 +187,180 @@ ON DUPLICATE KEY UPDATE score = VALUES(score), max_score = VALUES(max_score)
             }
         }
     }
-    public boolean isMaintenanceMode() {
-        String[][] combos = new String[][] {
-                {"`key`", "`value`"},
-                {"`key`", "setting_value"},
-                {"setting_key", "`value`"},
-                {"setting_key", "setting_value"},
-                {"key", "value"},
-                {"key", "setting_value"},
-                {"setting_key", "value"},
-                {"setting_key", "setting_value"}
-        };
 
-        try (Connection conn = DBConfig.getErpConnection()) {
-            for (String[] comb : combos) {
-                String keyCol = comb[0];
-                String valueCol = comb[1];
-                String sql = String.format("SELECT %s as v FROM settings WHERE %s = 'maintenance_mode' LIMIT 1", valueCol, keyCol);
-                try (PreparedStatement ps = conn.prepareStatement(sql);
-                     ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        String s = rs.getString("v");
-                        if (s != null && !s.isBlank()) return Boolean.parseBoolean(s.trim());
-                    }
-                } catch (SQLException ignored) {
+    // one batch on the caller's connection/transaction; the driver rewrites it into multi-row statements
+    static void upsertGrades(Connection conn, List<GradeRow> grades) throws SQLException {
+        String upsertSql = """
+INSERT INTO grades (enrollment_id, component, score, max_score)
+VALUES (?, ?, ?, ?)
+ON DUPLICATE KEY UPDATE score = VALUES(score), max_score = VALUES(max_score), version = version + 1
+""";
+
+        try (PreparedStatement ps = conn.prepareStatement(upsertSql)) {
+            for (GradeRow g : grades) {
+                ps.setString(1, g.enrollmentId());
+                ps.setString(2, g.component());
+                if (g.score() == null) ps.setNull(3, Types.DOUBLE);
+                else ps.setDouble(3, g.score());
+
+                // All scores are out of 100
+                ps.setInt(4, 100);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // writes only the cells that changed. each cell carries the version it was loaded with; cells whose row has
+    // moved on since (another instructor, an import) are reported back instead of overwritten, the rest are saved
+    public ServiceResult<SaveReport> saveGradeChanges(List<GradeChange> changes) {
+        if (isMaintenanceMode()) {
+            return ServiceResult.error("System is in maintenance mode. Cannot save grades.");
+        }
+        if (changes == null || changes.isEmpty()) {
+            return ServiceResult.success("No changes to save.", new SaveReport(List.of(), List.of()));
+        }
+
+        String upsertSql = """
+INSERT INTO grades (enrollment_id, component, score, max_score, version)
+VALUES (?, ?, ?, 100, 0)
+ON DUPLICATE KEY UPDATE score = VALUES(score), max_score = VALUES(max_score), version = version + 1
+""";
 
+        List<GradeChange> saved = new ArrayList<>();
+        List<GradeChange> conflicts = new ArrayList<>();
+        // the locking read gap-locks cells that have no row yet, so two saves inserting neighbouring cells can
+        // deadlock; InnoDB rolls one back and that one simply runs again
+        for (int attempt = 1; ; attempt++) {
+            saved.clear();
+            conflicts.clear();
+            try (Connection conn = DBConfig.getErpConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    Map<String, Integer> current = lockVersions(conn, changes);
+                    try (PreparedStatement ps = conn.prepareStatement(upsertSql)) {
+                        for (GradeChange c : changes) {
+                            Integer now = current.get(c.enrollmentId() + "|" + c.component());
+                            if (!Objects.equals(now, c.version())) {
+                                conflicts.add(new GradeChange(c.enrollmentId(), c.component(), c.score(), now));
+                                continue;
+                            }
+                            ps.setString(1, c.enrollmentId());
+                            ps.setString(2, c.component());
+                            if (c.score() == null) ps.setNull(3, Types.DOUBLE);
+                            else ps.setDouble(3, c.score());
+                            ps.addBatch();
+                            saved.add(new GradeChange(c.enrollmentId(), c.component(), c.score(), now == null ? 0 : now + 1));
+                        }
+                        if (!saved.isEmpty()) ps.executeBatch();
+                    }
+                    conn.commit();
+                    break;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
                 }
+            } catch (SQLException e) {
+                if (isDeadlock(e) && attempt < SAVE_ATTEMPTS) {
+                    sleepBeforeRetry(attempt);
+                    continue;
+                }
+                e.printStackTrace();
+                return ServiceResult.error("Failed to save grades: " + e.getMessage());
+            }
+        }
+
+        String msg = saved.size() + " grade change(s) saved.";
+        if (!conflicts.isEmpty()) msg += " " + conflicts.size() + " changed by someone else and not saved.";
+        return ServiceResult.success(msg, new SaveReport(saved, conflicts));
+    }
+
+    private static boolean isDeadlock(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException se && ("40001".equals(se.getSQLState()) || se.getErrorCode() == 1213)) {
+                return true;
             }
-        } catch (SQLException ex) {
-            ex.printStackTrace();
         }
         return false;
     }
+
+    // short randomized backoff so the two transactions don't collide again in lockstep
+    private static void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20L * attempt + 5));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // current versions of the changed cells, row-locked until the caller's transaction ends. missing keys are
+    // gap-locked too, so a concurrent first insert of the same cell waits for us
+    private Map<String, Integer> lockVersions(Connection conn, List<GradeChange> changes) throws SQLException {
+        Map<String, Integer> versions = new HashMap<>();
+        int chunk = 500;
+        for (int from = 0; from < changes.size(); from += chunk) {
+            List<GradeChange> part = changes.subList(from, Math.min(changes.size(), from + chunk));
+            String sql = "SELECT enrollment_id, component, version FROM grades WHERE (enrollment_id, component) IN (" +
+                    String.join(", ", Collections.nCopies(part.size(), "(?, ?)")) + ") FOR UPDATE";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int i = 1;
+                for (GradeChange c : part) {
+                    ps.setString(i++, c.enrollmentId());
+                    ps.setString(i++, c.component());
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        versions.put(rs.getString(1) + "|" + rs.getString(2).toUpperCase(), rs.getInt(3));
+                    }
+                }
+            }
+        }
+        return versions;
+    }
+
+    public ServiceResult<GradeImporter.Report> importGradesCsv(String instructorUserId, String sectionId, Path csvFile) {
+        if (isMaintenanceMode()) {
+            return ServiceResult.error("System is in maintenance mode. Cannot import grades.");
+        }
+        try {
+            if (!ownsSection(instructorUserId, sectionId)) {
+                return ServiceResult.error("You do not own section " + sectionId + ".");
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to check section: " + e.getMessage());
+        }
+
+        try (Reader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            GradeImporter.Report report = GradeImporter.importCsv(reader, sectionId);
+            return ServiceResult.success(String.format(
+                    "%d score(s) for %d of %d student row(s) imported in %d ms (%.0f rows/s)",
+                    report.scores(), report.students(), report.rows(), report.millis(), report.rowsPerSecond()),
+                    report);
+        } catch (IllegalArgumentException e) {
+            return ServiceResult.error(e.getMessage());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to read CSV: " + e.getMessage());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Failed to import grades: " + e.getMessage());
+        }
+    }
+
+    private boolean ownsSection(String instructorUserId, String sectionId) throws SQLException {
+        String sql = "SELECT 1 FROM sections WHERE section_id = ? AND instructor_id = ?";
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, sectionId);
+            ps.setString(2, instructorUserId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    public boolean isMaintenanceMode() {
+        return SettingsCache.isMaintenanceMode();
+    }
 }
@@ -0,0 +1,170 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.domain.Auth;
+import edu.univ.erp.data.DBConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// everything a dashboard knows about the signed-in user. profile data is loaded on first use and kept for the
+// session; call invalidateProfile after the user's own changes to it. a TTL bounds how stale it gets when someone
+// else (e.g. an admin) changes it.
+public class SessionContext {
+
+    public record Profile(
+            String rollNo,          // students
+            String program,
+            Integer yearOfStudy,
+            String department,      // instructors
+            String designation
+    ) {
+        static final Profile EMPTY = new Profile(null, null, null, null, null);
+    }
+
+    public record CacheStats(
+            long hits,
+            long misses,
+            long invalidations
+    ) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private static final long TTL_MS = Long.getLong("erp.session.cacheTtlMs", 5 * 60_000L);
+    private static final boolean DUMP_ON_CLOSE = Boolean.getBoolean("erp.session.stats.dumpOnClose");
+
+    // totals across every session in this process
+    private static final LongAdder allHits = new LongAdder();
+    private static final LongAdder allMisses = new LongAdder();
+    private static final LongAdder allInvalidations = new LongAdder();
+
+    private final Auth.Session session;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final Cached<Profile> profile = new Cached<>(this::loadProfile, Profile.EMPTY);
+
+    public SessionContext(Auth.Session session) {
+        this.session = session;
+    }
+
+    // for dashboards opened directly (dev launchers) without going through the login screen
+    public static SessionContext of(String userId, String username, String role) {
+        return new SessionContext(new Auth.Session(userId, username, Auth.Role.valueOf(role), System.currentTimeMillis()));
+    }
+
+    public Auth.Session session() {
+        return session;
+    }
+
+    public String userId() {
+        return session.userId();
+    }
+
+    public String username() {
+        return session.username();
+    }
+
+    public String role() {
+        return session.role().name();
+    }
+
+    public Profile profile() {
+        return profile.get();
+    }
+
+    public String department() {
+        return profile().department();
+    }
+
+    public String rollNo() {
+        return profile().rollNo();
+    }
+
+    public void invalidateProfile() {
+        profile.invalidate();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), invalidations.sum());
+    }
+
+    public static CacheStats globalStats() {
+        return new CacheStats(allHits.sum(), allMisses.sum(), allInvalidations.sum());
+    }
+
+    // called when the dashboard closes
+    public void close() {
+        if (!DUMP_ON_CLOSE) return;
+        CacheStats s = stats();
+        System.out.printf("Session cache for %s: %d hits, %d misses, %d invalidations (hit rate %.0f%%)%n",
+                username(), s.hits(), s.misses(), s.invalidations(), s.hitRate() * 100);
+    }
+
+    private Profile loadProfile() {
+        String sql = switch (role()) {
+            case "STUDENT" -> "SELECT roll_no, program, year_of_study FROM students WHERE user_id = ?";
+            case "INSTRUCTOR" -> "SELECT department, designation FROM instructors WHERE user_id = ?";
+            default -> null;
+        };
+        if (sql == null) return Profile.EMPTY;
+
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, userId());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Profile.EMPTY;
+                if ("STUDENT".equals(role())) {
+                    int year = rs.getInt("year_of_study");
+                    return new Profile(rs.getString("roll_no"), rs.getString("program"),
+                            rs.wasNull() ? null : year, null, null);
+                }
+                return new Profile(null, null, null, rs.getString("department"), rs.getString("designation"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // one lazily loaded value. a loader returning null means it failed: the caller gets an empty
+    // value and the next call tries again
+    private final class Cached<T> {
+        private final Supplier<T> loader;
+        private final T empty;
+        private T value;
+        private long loadedAt;
+
+        Cached(Supplier<T> loader, T empty) {
+            this.loader = loader;
+            this.empty = empty;
+        }
+
+        synchronized T get() {
+            if (value != null && System.currentTimeMillis() - loadedAt < TTL_MS) {
+                hits.increment();
+                allHits.increment();
+                return value;
+            }
+            misses.increment();
+            allMisses.increment();
+            T loaded = loader.get();
+            if (loaded == null) return empty;
+            value = loaded;
+            loadedAt = System.currentTimeMillis();
+            return value;
+        }
+
+        synchronized void invalidate() {
+            value = null;
+            invalidations.increment();
+            allInvalidations.increment();
+        }
+    }
+}
@@ -1,11 +1,24 @@
 package edu.univ.erp.service;
 
+import edu.univ.erp.data.CatalogIndex;
 import edu.univ.erp.data.DBConfig;
+import edu.univ.erp.data.ReadCoalescer;
+import edu.univ.erp.data.SettingsCache;
+import edu.univ.erp.domain.Page;
 import edu.univ.erp.domain.ServiceResult;
-import java.time.LocalDate;
+import edu.univ.erp.domain.WeekSlots;
+import edu.univ.erp.domain.WeekSlots.Meeting;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 public class StudentService {
@@ -42,7 +55,11 @@ public class StudentService {
             String sectionId,
             String room,
             String instructorId,
-            String endTime
+            String endTime,
+            int startMinute,        // minutes since midnight, -1 if the time couldn't be read
+            int endMinute,
+            String semester,
+            int year
     ) {}
 
 
@@ -65,107 +82,139 @@ public class StudentService {
             String finalGrade
     ) {}
 
+    private static final long READ_TTL_MS = Long.getLong("erp.coalesce.ttlMs", 1_000L);
+    private static final ReadCoalescer<List<Object>, List<CourseCatalogView>> CATALOG_READS =
+            new ReadCoalescer<>("catalog", READ_TTL_MS);
+    private static final ReadCoalescer<List<Object>, List<CourseCatalogView>> CATALOG_PAGE_READS =
+            new ReadCoalescer<>("catalog-page", READ_TTL_MS);
+
+    // per-student timetables for clash checks. a student's own register/drop removes their entry; admin section
+    // edits clear them all. a load only publishes if neither happened while it ran (per-student generation, plus
+    // an epoch for the clear), so a refresh that read before a register committed can't put its old timetable back
+    private static final long TIMETABLE_TTL_MS = Long.getLong("erp.timetable.ttlMs", 60_000L);
+    private static final Map<String, StudentTimetable> TIMETABLES = new ConcurrentHashMap<>();
+    private static final Map<String, Long> TIMETABLE_GENERATIONS = new ConcurrentHashMap<>();
+    private static final AtomicLong TIMETABLE_EPOCH = new AtomicLong();
+
     public ServiceResult<String> registerForSection(String studentId, String sectionId) {
         if (isMaintenanceMode()) {
             return ServiceResult.error("System is in maintenance mode. Registration is disabled.");
         }
 
-        try (Connection conn = DBConfig.getErpConnection()) {
-            if (isPastDropDeadline(conn)) {
-                return ServiceResult.error("Registration deadline has passed. You cannot add courses now.");
-            }
+        if (isPastDropDeadline()) {
+            return ServiceResult.error("Registration deadline has passed. You cannot add courses now.");
+        }
 
-            String capacityCheck = """
-                SELECT s.capacity, COALESCE(COUNT(e.enrollment_id), 0) AS enrolled
-                FROM sections s
-                LEFT JOIN enrollments e
-                       ON s.section_id = e.section_id
-                      AND e.status = 'ENROLLED'
-                WHERE s.section_id = ?
-                GROUP BY s.section_id, s.capacity
-                """;
-
-            try (PreparedStatement ps = conn.prepareStatement(capacityCheck)) {
-                ps.setString(1, sectionId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (!rs.next()) {
-                        return ServiceResult.error("Section not found.");
-                    }
-                    int capacity = rs.getInt("capacity");
-                    int enrolled = rs.getInt("enrolled");
-                    if (enrolled >= capacity) {
-                        return ServiceResult.error("Section is full. No seats available.");
-                    }
-                }
+        // time clash: one AND of the section's slots against the cached timetable, no query once it is warm. this
+        // only turns obvious clashes away early; the check inside the seat transaction below is the one that counts
+        SectionTime time;
+        try {
+            time = sectionTime(sectionId);
+            TimetableView clash = time == null ? null
+                    : timetable(studentId).clashWith(sectionId, time.semester(), time.year(), time.meeting());
+            if (clash != null) {
+                return ServiceResult.error("Time conflict: this section meets " + time.meeting() + ", overlapping " +
+                        clash.course() + " (" + clash.sectionId() + ").");
             }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return ServiceResult.error("Database error: " + e.getMessage());
+        }
 
-            String existingSql = """
-                SELECT enrollment_id, status
-                FROM enrollments
-                WHERE student_id = ? AND section_id = ?
-                """;
+        // seat reservation and enrollment write happen in one transaction. the conditional UPDATE takes the
+        // section row lock, so concurrent registrants for the same section queue behind it and the counter
+        // can never pass capacity.
+        String reserveSql = """
+            UPDATE sections
+            SET enrolled_count = enrolled_count + 1
+            WHERE section_id = ? AND enrolled_count < capacity
+            """;
+
+        String insertSql = """
+            INSERT INTO enrollments (student_id, section_id, status, enrollment_date)
+            SELECT ?, ?, 'ENROLLED', NOW() FROM DUAL
+            WHERE NOT EXISTS (
+                SELECT 1 FROM enrollments WHERE student_id = ? AND section_id = ?)
+            """;
+
+        // Re-activate the SAME row instead of inserting a new one
+        String reactivateSql = """
+            UPDATE enrollments
+            SET status = 'ENROLLED',
+                enrollment_date = NOW(),
+                drop_date = NULL,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE student_id = ? AND section_id = ? AND status = 'DROPPED'
+            """;
 
-            Integer existingEnrollmentId = null;
-            String existingStatus = null;
+        try (Connection conn = DBConfig.getErpConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // the student row lock serializes this student's registrations, so two clashing sections taken
+                // at once can't both pass the re-check. lock order: student, section, enrollment
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "SELECT user_id FROM students WHERE user_id = ? FOR UPDATE")) {
+                    ps.setString(1, studentId);
+                    ps.executeQuery().close();
+                }
 
-            try (PreparedStatement ps = conn.prepareStatement(existingSql)) {
-                ps.setString(1, studentId);
-                ps.setString(2, sectionId);
-                try (ResultSet rs = ps.executeQuery()) {
-                    if (rs.next()) {
-                        existingEnrollmentId = rs.getInt("enrollment_id");
-                        existingStatus = rs.getString("status");
+                if (time != null && time.meeting() != null) {
+                    TimetableView clash = new StudentTimetable(loadTimetable(conn, studentId), 0L)
+                            .clashWith(sectionId, time.semester(), time.year(), time.meeting());
+                    if (clash != null) {
+                        conn.rollback();
+                        invalidateTimetable(studentId);   // the cached one missed it, so it is stale
+                        return ServiceResult.error("Time conflict: this section meets " + time.meeting() +
+                                ", overlapping " + clash.course() + " (" + clash.sectionId() + ").");
                     }
                 }
-            }
 
-            if (existingEnrollmentId != null) {
-                if ("ENROLLED".equalsIgnoreCase(existingStatus)) {
-                    // already enrolled
-                    return ServiceResult.error("You are already enrolled in this section.");
-                } else if ("COMPLETED".equalsIgnoreCase(existingStatus)) {
-                    // you can choose the policy here; I'll block re-enroll for now
-                    return ServiceResult.error("You have already completed this course; cannot re-register.");
-                } else if ("DROPPED".equalsIgnoreCase(existingStatus)) {
-                    // Re-activate the SAME row instead of inserting a new one
-                    String reactivateSql = """
-                        UPDATE enrollments
-                        SET status = 'ENROLLED',
-                            enrollment_date = NOW(),
-                            drop_date = NULL,
-                            updated_at = CURRENT_TIMESTAMP
-                        WHERE enrollment_id = ?
-                        """;
-                    try (PreparedStatement ps = conn.prepareStatement(reactivateSql)) {
-                        ps.setInt(1, existingEnrollmentId);
-                        int rows = ps.executeUpdate();
-                        if (rows > 0) {
-                            return ServiceResult.success(
-                                    "Re-registered for section " + sectionId,
-                                    sectionId
-                            );
-                        } else {
-                            return ServiceResult.error("Failed to re-register. Please try again.");
-                        }
+                try (PreparedStatement ps = conn.prepareStatement(reserveSql)) {
+                    ps.setString(1, sectionId);
+                    if (ps.executeUpdate() == 0) {
+                        conn.rollback();
+                        return sectionExists(conn, sectionId)
+                                ? ServiceResult.error("Section is full. No seats available.")
+                                : ServiceResult.error("Section not found.");
                     }
                 }
-            }
 
-            String insertSql = """
-                INSERT INTO enrollments (student_id, section_id, status, enrollment_date)
-                VALUES (?, ?, 'ENROLLED', NOW())
-                """;
+                try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
+                    ps.setString(1, studentId);
+                    ps.setString(2, sectionId);
+                    ps.setString(3, studentId);
+                    ps.setString(4, sectionId);
+                    if (ps.executeUpdate() > 0) {
+                        conn.commit();
+                        invalidateTimetable(studentId);
+                        seatsChanged();
+                        return ServiceResult.success("Successfully registered for section " + sectionId, sectionId);
+                    }
+                }
 
-            try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
-                ps.setString(1, studentId);
-                ps.setString(2, sectionId);
-                int rows = ps.executeUpdate();
+                try (PreparedStatement ps = conn.prepareStatement(reactivateSql)) {
+                    ps.setString(1, studentId);
+                    ps.setString(2, sectionId);
+                    if (ps.executeUpdate() > 0) {
+                        conn.commit();
+                        invalidateTimetable(studentId);
+                        seatsChanged();
+                        return ServiceResult.success("Re-registered for section " + sectionId, sectionId);
+                    }
+                }
 
-                if (rows > 0) {
-                    return ServiceResult.success("Successfully registered for section " + sectionId, sectionId);
-                } else {
-                    return ServiceResult.error("Failed to register. Please try again.");
+                // row exists and is not DROPPED: give the seat back and explain why
+                conn.rollback();
+                String existingStatus = getEnrollmentStatus(conn, studentId, sectionId);
+                if ("COMPLETED".equalsIgnoreCase(existingStatus)) {
+                    // you can choose the policy here; I'll block re-enroll for now
+                    return ServiceResult.error("You have already completed this course; cannot re-register.");
                 }
+                return ServiceResult.error("You are already enrolled in this section.");
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
 
         } catch (SQLException e) {
@@ -180,24 +229,42 @@ public class StudentService {
             return ServiceResult.error("System is in maintenance mode. Cannot drop sections.");
         }
 
-        try (Connection conn = DBConfig.getErpConnection()) {
-            if (isPastDropDeadline(conn)) {
-                return ServiceResult.error("Drop deadline has passed. You can no longer drop sections.");
-            }
+        if (isPastDropDeadline()) {
+            return ServiceResult.error("Drop deadline has passed. You can no longer drop sections.");
+        }
 
-            String sql = "UPDATE enrollments SET status = 'DROPPED', drop_date = NOW() " +
-                    "WHERE student_id = ? AND section_id = ? AND status = 'ENROLLED'";
+        // section row first, same lock order as registerForSection
+        String releaseSql = "UPDATE sections SET enrolled_count = enrolled_count - 1 " +
+                "WHERE section_id = ? AND enrolled_count > 0";
+        String sql = "UPDATE enrollments SET status = 'DROPPED', drop_date = NOW() " +
+                "WHERE student_id = ? AND section_id = ? AND status = 'ENROLLED'";
 
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
-                ps.setString(1, studentId);
-                ps.setString(2, sectionId);
-                int rows = ps.executeUpdate();
+        try (Connection conn = DBConfig.getErpConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(releaseSql)) {
+                    ps.setString(1, sectionId);
+                    ps.executeUpdate();
+                }
 
-                if (rows > 0) {
-                    return ServiceResult.success("Successfully dropped section " + sectionId, sectionId);
-                } else {
-                    return ServiceResult.error("Enrollment not found or already dropped.");
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setString(1, studentId);
+                    ps.setString(2, sectionId);
+                    int rows = ps.executeUpdate();
+
+                    if (rows > 0) {
+                        conn.commit();
+                        invalidateTimetable(studentId);
+                        seatsChanged();
+                        return ServiceResult.success("Successfully dropped section " + sectionId, sectionId);
+                    } else {
+                        conn.rollback();
+                        return ServiceResult.error("Enrollment not found or already dropped.");
+                    }
                 }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
 
         } catch (SQLException e) {
@@ -245,79 +312,165 @@ public class StudentService {
         return enrollments;
     }
 
+    // matching resolves from CatalogIndex in memory; only capacity/enrolled are read from the database.
+    // identical concurrent reads (registration rush) share one query and its result for a moment
     public List<CourseCatalogView> getCourseCatalog(String keyword, String semester) {
-        List<CourseCatalogView> sections = new ArrayList<>();
+        try {
+            return CATALOG_READS.get(List.of(normalize(keyword), normalize(semester)),
+                    () -> withLiveSeats(CatalogIndex.search(keyword, semester)));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
 
-        StringBuilder sql = new StringBuilder(
-                "SELECT sec.section_id, c.course_code, c.course_name, c.credits, " +
-                        "COALESCE(instr.user_id, 'TBA') AS instructor_id, " +
-                        "sec.semester, sec.room, sec.capacity, " +
-                        "COALESCE(COUNT(e.enrollment_id), 0) AS enrolled " +
-                        "FROM sections sec " +
-                        "JOIN courses c ON sec.course_id = c.course_id " +
-                        "LEFT JOIN instructors instr ON sec.instructor_id = instr.user_id " +
-                        "LEFT JOIN enrollments e ON sec.section_id = e.section_id AND e.status = 'ENROLLED' " +
-                        "WHERE 1=1 "
-        );
-
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            sql.append("AND (c.course_code LIKE ? OR c.course_name LIKE ?) ");
+    // keyset page in catalog order (course code, section id); after is the last row of the previous page.
+    // the total is exact since matching happens in memory
+    public Page<CourseCatalogView> getCourseCatalogPage(String keyword, String semester, CourseCatalogView after, int limit) {
+        List<CatalogIndex.Entry> matches = CatalogIndex.search(keyword, semester);
+        int from = 0;
+        if (after != null) {
+            CatalogIndex.Entry probe = new CatalogIndex.Entry(after.sectionId(), 0, after.courseCode(),
+                    null, 0, null, null, 0, null, null, null, null);
+            int lo = 0, hi = matches.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (CatalogIndex.ORDER.compare(matches.get(mid), probe) <= 0) lo = mid + 1;
+                else hi = mid;
+            }
+            from = lo;
         }
-        if (semester != null && !semester.trim().isEmpty()) {
-            sql.append("AND sec.semester = ? ");
+        int to = Math.min(matches.size(), from + limit);
+        List<CatalogIndex.Entry> slice = matches.subList(from, to);
+        List<Object> key = List.of(normalize(keyword), normalize(semester),
+                after == null ? "" : after.courseCode() + "|" + after.sectionId(), limit);
+        try {
+            List<CourseCatalogView> rows = CATALOG_PAGE_READS.get(key, () -> withLiveSeats(slice));
+            return new Page<>(rows, to < matches.size(), after == null ? matches.size() : -1);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new Page<>(List.of(), false, -1);
         }
+    }
+
+    // after a write that changes what catalog/section reads return, so this client sees it on its next read
+    static void catalogChanged() {
+        CATALOG_READS.invalidateAll();
+        CATALOG_PAGE_READS.invalidateAll();
+    }
+
+    private static void seatsChanged() {
+        catalogChanged();
+        AdminService.sectionsChanged();
+    }
 
-        sql.append("GROUP BY sec.section_id, c.course_code, c.course_name, c.credits, " +
-                "instr.user_id, sec.semester, sec.room, sec.capacity " +
-                "ORDER BY c.course_code, sec.section_id");
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase();
+    }
+
+    private List<CourseCatalogView> withLiveSeats(List<CatalogIndex.Entry> matches) throws SQLException {
+        List<CourseCatalogView> sections = new ArrayList<>();
+        if (matches.isEmpty()) return List.of();
 
+        Map<String, int[]> seats = new HashMap<>();
+        String sql = "SELECT section_id, capacity, enrolled_count FROM sections WHERE section_id IN (" +
+                String.join(", ", Collections.nCopies(matches.size(), "?")) + ")";
         try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+             PreparedStatement ps = conn.prepareStatement(sql)) {
 
             int paramIndex = 1;
-            if (keyword != null && !keyword.trim().isEmpty()) {
-                String search = "%" + keyword + "%";
-                ps.setString(paramIndex++, search);
-                ps.setString(paramIndex++, search);
+            for (CatalogIndex.Entry e : matches) {
+                ps.setString(paramIndex++, e.sectionId());
             }
-            if (semester != null && !semester.trim().isEmpty()) {
-                ps.setString(paramIndex++, semester);
-            }
-
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    int capacity = rs.getInt("capacity");
-                    int enrolled = rs.getInt("enrolled");
-                    int available = capacity - enrolled;
-
-                    sections.add(new CourseCatalogView(
-                            rs.getString("section_id"),
-                            rs.getString("course_code"),
-                            rs.getString("course_name"),
-                            rs.getInt("credits"),
-                            rs.getString("instructor_id"),
-                            rs.getString("semester"),
-                            rs.getString("room"),
-                            capacity,
-                            enrolled,
-                            available
-                    ));
+                    seats.put(rs.getString("section_id"), new int[]{rs.getInt("capacity"), rs.getInt("enrolled_count")});
                 }
             }
+        }
+
+        for (CatalogIndex.Entry e : matches) {
+            int[] live = seats.get(e.sectionId());
+            if (live == null) continue; // deleted since the index was built
+            sections.add(new CourseCatalogView(
+                    e.sectionId(),
+                    e.courseCode(),
+                    e.courseName(),
+                    e.credits(),
+                    e.instructorId(),
+                    e.semester(),
+                    e.room(),
+                    live[0],
+                    live[1],
+                    live[0] - live[1]
+            ));
+        }
+        return List.copyOf(sections); // shared between coalesced callers
+    }
 
+    public List<TimetableView> getStudentTimetable(String studentId) {
+        try {
+            return timetable(studentId).entries();
         } catch (SQLException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
+    }
 
-        return sections;
+    public StudentTimetable timetable(String studentId) throws SQLException {
+        StudentTimetable t = TIMETABLES.get(studentId);
+        if (t != null && System.currentTimeMillis() - t.loadedAtMillis() < TIMETABLE_TTL_MS) return t;
+        long generation = TIMETABLE_GENERATIONS.getOrDefault(studentId, 0L);
+        long epoch = TIMETABLE_EPOCH.get();
+        StudentTimetable loaded;
+        try (Connection conn = DBConfig.getErpConnection()) {
+            loaded = new StudentTimetable(loadTimetable(conn, studentId), System.currentTimeMillis());
+        }
+        // invalidations bump the generation before removing the entry, so either this sees the bump or the
+        // remove comes after the put
+        TIMETABLES.compute(studentId, (id, current) ->
+                generation == TIMETABLE_GENERATIONS.getOrDefault(id, 0L) && epoch == TIMETABLE_EPOCH.get()
+                        ? loaded : current);
+        return loaded;
     }
 
-    public List<TimetableView> getStudentTimetable(String studentId) {
+    // after this student's enrollments changed
+    private static void invalidateTimetable(String studentId) {
+        TIMETABLE_GENERATIONS.merge(studentId, 1L, Long::sum);
+        TIMETABLES.remove(studentId);
+    }
+
+    // after admin changes to section times
+    static void timetablesChanged() {
+        TIMETABLE_EPOCH.incrementAndGet();
+        TIMETABLES.clear();
+    }
+
+    private record SectionTime(String semester, int year, Meeting meeting) {}
+
+    // from the catalog snapshot; sections it doesn't know yet are read directly. null for an unknown section;
+    // meeting is null when the section has no usable time
+    private static SectionTime sectionTime(String sectionId) throws SQLException {
+        CatalogIndex.Entry e = CatalogIndex.find(sectionId);
+        if (e != null) return new SectionTime(e.semester(), e.year(), Meeting.parse(e.day(), e.startTime(), e.endTime()));
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT semester, year, day, start_time, end_time FROM sections WHERE section_id = ?")) {
+            ps.setString(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                return new SectionTime(rs.getString(1), rs.getInt(2),
+                        Meeting.parse(rs.getString(3), rs.getString(4), rs.getString(5)));
+            }
+        }
+    }
+
+    private static List<TimetableView> loadTimetable(Connection conn, String studentId) throws SQLException {
         List<TimetableView> timetable = new ArrayList<>();
 
         String sql = "SELECT sec.day, sec.start_time AS time, sec.end_time, " +
                 "CONCAT(c.course_code, ' - ', c.course_name) AS course, " +
-                "sec.section_id, sec.room, COALESCE(instr.user_id, 'TBA') AS instructor_id " +
+                "sec.section_id, sec.room, COALESCE(instr.user_id, 'TBA') AS instructor_id, sec.semester, sec.year " +
                 "FROM enrollments e " +
                 "JOIN sections sec ON e.section_id = sec.section_id " +
                 "JOIN courses c ON sec.course_id = c.course_id " +
@@ -326,8 +479,7 @@ public class StudentService {
                 "ORDER BY FIELD(sec.day, 'Monday', 'Tuesday', 'Wednesday', 'Thursday', 'Friday', 'Saturday', 'Sunday'), " +
                 "sec.start_time";
 
-        try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setString(1, studentId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -339,13 +491,14 @@ public class StudentService {
                             rs.getString("section_id"),
                             rs.getString("room"),
                             rs.getString("instructor_id"),
-                            rs.getString("end_time")  // Add this
+                            rs.getString("end_time"),
+                            WeekSlots.minutes(rs.getString("time")),
+                            WeekSlots.minutes(rs.getString("end_time")),
+                            rs.getString("semester"),
+                            rs.getInt("year")
                     ));
                 }
             }
-
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
 
         return timetable;
@@ -425,43 +578,55 @@ public class StudentService {
         return transcript;
     }
 
-    public boolean isMaintenanceMode() {
-        String sql = "SELECT value FROM settings WHERE `key` = 'maintenance_mode'";
-
-        try (Connection conn = DBConfig.getErpConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+    // same rows as getTranscript, streamed straight to a CSV file. data is the row count; 0 means nothing was written
+    public ServiceResult<Long> exportTranscript(String studentId, Path file) {
+        String sql = "SELECT c.course_code AS `Course Code`, c.course_name AS `Course Name`, c.credits AS `Credits`, " +
+                "sec.semester AS `Semester`, sec.year AS `Year`, COALESCE(g.final_grade, 'Pending') AS `Final Grade` " +
+                "FROM enrollments e " +
+                "JOIN sections sec ON e.section_id = sec.section_id " +
+                "JOIN courses c ON sec.course_id = c.course_id " +
+                "LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id AND g.component IS NULL " +
+                "WHERE e.student_id = ? AND e.status = 'ENROLLED' " +
+                "ORDER BY sec.year, sec.semester, c.course_code";
 
-            if (rs.next()) {
-                String value = rs.getString("value");
-                return "true".equalsIgnoreCase(value);
+        try (Connection conn = DBConfig.getErpConnection()) {
+            long rows = CsvExporter.export(conn, sql, file, false, studentId);
+            if (rows == 0) {
+                Files.deleteIfExists(file);
+                return ServiceResult.success("No enrollment records found.", 0L);
             }
-
-        } catch (SQLException e) {
+            return ServiceResult.success("Transcript saved as: " + file, rows);
+        } catch (SQLException | IOException e) {
             e.printStackTrace();
+            return ServiceResult.error("Failed to download transcript: " + e.getMessage());
         }
+    }
 
-        return false;
+    public boolean isMaintenanceMode() {
+        return SettingsCache.isMaintenanceMode();
     }
-    private boolean isPastDropDeadline(Connection conn) throws SQLException {
-        String sql = "SELECT `value` FROM settings WHERE `key` = 'drop_or_add_deadline'";
-        try (PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
 
-            if (!rs.next()) {
-                return false;
-            }
+    private boolean isPastDropDeadline() {
+        return SettingsCache.isPastDropDeadline();
+    }
 
-            String value = rs.getString("value");
-            if (value == null || value.isBlank()) {
-                return false;
+    private boolean sectionExists(Connection conn, String sectionId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM sections WHERE section_id = ?")) {
+            ps.setString(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
             }
-
-            LocalDate deadline = LocalDate.parse(value.trim());
-            LocalDate today = LocalDate.now();
-
-            return today.isAfter(deadline);
         }
     }
 
-}
\ No newline at end of file
+    private String getEnrollmentStatus(Connection conn, String studentId, String sectionId) throws SQLException {
+        String sql = "SELECT status FROM enrollments WHERE student_id = ? AND section_id = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, studentId);
+            ps.setString(2, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString("status") : null;
+            }
+        }
+    }
+}
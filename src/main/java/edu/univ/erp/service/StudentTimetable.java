@@ -0,0 +1,71 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.domain.WeekSlots;
+import edu.univ.erp.domain.WeekSlots.Meeting;
+import edu.univ.erp.service.StudentService.TimetableView;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// a student's enrolled meetings and, per term (semester + year), the union of their slots. sections only clash
+// with sections of the same term, so a clash check is one AND against that term's union; only when that hits are
+// the meetings compared exactly, which rules out the quarter-hour rounding of the bitset.
+public final class StudentTimetable {
+
+    private final List<TimetableView> entries;
+    private final Meeting[] meetings;   // parallel to entries, null where the times couldn't be read
+    private final String[] terms;       // parallel to entries
+    private final Map<String, WeekSlots> slotsByTerm = new HashMap<>();
+    private final long loadedAtMillis;
+
+    StudentTimetable(List<TimetableView> entries, long loadedAtMillis) {
+        this.entries = List.copyOf(entries);
+        this.meetings = new Meeting[this.entries.size()];
+        this.terms = new String[this.entries.size()];
+        for (int i = 0; i < meetings.length; i++) {
+            TimetableView v = this.entries.get(i);
+            terms[i] = term(v.semester(), v.year());
+            int day = WeekSlots.dayIndex(v.day());
+            if (day >= 0 && v.startMinute() >= 0 && v.endMinute() > v.startMinute()) {
+                meetings[i] = new Meeting(day, v.startMinute(), v.endMinute());
+                slotsByTerm.computeIfAbsent(terms[i], t -> new WeekSlots()).add(meetings[i]);
+            }
+        }
+        this.loadedAtMillis = loadedAtMillis;
+    }
+
+    public List<TimetableView> entries() {
+        return entries;
+    }
+
+    // the slots taken in one term; a copy, empty when nothing is enrolled that term
+    public WeekSlots slots(String semester, int year) {
+        WeekSlots s = slotsByTerm.get(term(semester, year));
+        return s == null ? new WeekSlots() : new WeekSlots().addAll(s);
+    }
+
+    long loadedAtMillis() {
+        return loadedAtMillis;
+    }
+
+    // the entry of the same term that overlaps m, or null when it fits. sectionId itself is never a clash
+    public TimetableView clashWith(String sectionId, String semester, int year, Meeting m) {
+        if (m == null) return null;
+        String term = term(semester, year);
+        WeekSlots slots = slotsByTerm.get(term);
+        if (slots == null || !slots.intersects(WeekSlots.of(m))) return null;
+        for (int i = 0; i < meetings.length; i++) {
+            if (meetings[i] != null && term.equals(terms[i]) && meetings[i].overlaps(m)
+                    && !entries.get(i).sectionId().equals(sectionId)) {
+                return entries.get(i);
+            }
+        }
+        return null;
+    }
+
+    private static String term(String semester, int year) {
+        return (semester == null ? "" : semester.trim().toLowerCase(Locale.ROOT)) + " " + year;
+    }
+}
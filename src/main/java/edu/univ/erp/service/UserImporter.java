@@ -0,0 +1,298 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.auth.BcryptCost;
+import edu.univ.erp.auth.HashUtil;
+import edu.univ.erp.data.DBConfig;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// bulk student/instructor provisioning from CSV. rows are validated as they stream in, then handled in chunks:
+// passwords are hashed in parallel (bulk bcrypt cost), and each chunk goes into users_auth and the role table
+// as one batch per database. if the role-table batch fails, the chunk's auth rows are deleted again (like
+// addStudent's cleanup) and the chunk is retried row by row so only the bad rows are reported.
+//
+// students:    username,password,roll_no,program,year_of_study
+// instructors: username,password,department,designation,office_room   (office_room optional)
+public class UserImporter {
+
+    public record RowError(
+            int line,
+            String username,
+            String message
+    ) {}
+
+    public record Report(
+            String role,
+            int rows,
+            int created,
+            List<RowError> errors,
+            long millis
+    ) {}
+
+    private record Row(int line, String userId, String username, String password, String[] fields, String hash) {
+        Row withHash(String h) {
+            return new Row(line, userId, username, password, fields, h);
+        }
+    }
+
+    private static final int CHUNK_SIZE = Integer.getInteger("erp.import.chunkSize", 500);
+    private static final List<String> STUDENT_COLUMNS = List.of("username", "password", "roll_no", "program", "year_of_study");
+    private static final List<String> INSTRUCTOR_COLUMNS = List.of("username", "password", "department", "designation", "office_room");
+
+    private final String role;
+    private final List<String> columns;
+    private final Set<String> usernames = new HashSet<>();
+    private final Set<String> rollNos = new HashSet<>();
+    private final List<RowError> errors = new ArrayList<>();
+    private int created = 0;
+
+    private UserImporter(String role) {
+        this.role = role;
+        this.columns = "STUDENT".equals(role) ? STUDENT_COLUMNS : INSTRUCTOR_COLUMNS;
+    }
+
+    public static Report importCsv(Reader csv, String role) throws IOException, SQLException {
+        String r = role == null ? "" : role.toUpperCase(Locale.ROOT);
+        if (!"STUDENT".equals(r) && !"INSTRUCTOR".equals(r)) {
+            throw new IllegalArgumentException("Bulk import supports STUDENT or INSTRUCTOR, not " + role);
+        }
+        return new UserImporter(r).run(csv);
+    }
+
+    private Report run(Reader source) throws IOException, SQLException {
+        long start = System.currentTimeMillis();
+        preload();
+
+        int rows = 0;
+        try (CsvReader csv = new CsvReader(source)) {
+            List<String> header = csv.next();
+            if (header == null) return new Report(role, 0, 0, errors, 0);
+            int[] index = mapHeader(header);
+
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                rows++;
+                Row row = validate(csv.getRecordLine(), record, index);
+                if (row == null) continue;
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertChunk(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) insertChunk(chunk);
+        }
+        return new Report(role, rows, created, errors, System.currentTimeMillis() - start);
+    }
+
+    // one query per table instead of a usernameExists() round trip per row
+    private void preload() throws SQLException {
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT username FROM users_auth");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) usernames.add(rs.getString(1).toLowerCase(Locale.ROOT));
+        }
+        if ("STUDENT".equals(role)) {
+            try (Connection conn = DBConfig.getErpConnection();
+                 PreparedStatement ps = conn.prepareStatement("SELECT roll_no FROM students");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rollNos.add(rs.getString(1));
+            }
+        }
+    }
+
+    private int[] mapHeader(List<String> header) {
+        Map<String, Integer> byName = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            byName.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        int[] index = new int[columns.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            Integer at = byName.get(columns.get(i));
+            index[i] = at == null ? -1 : at;
+            if (at == null && !"office_room".equals(columns.get(i))) missing.add(columns.get(i));
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing column(s): " + String.join(", ", missing));
+        }
+        return index;
+    }
+
+    // same rules as addStudent / addInstructor, plus duplicates within the file
+    private Row validate(int line, List<String> record, int[] index) {
+        String[] f = new String[index.length];
+        for (int i = 0; i < index.length; i++) {
+            f[i] = index[i] >= 0 && index[i] < record.size() ? record.get(index[i]).trim() : "";
+        }
+        String username = f[0];
+        String password = record.size() > index[1] ? record.get(index[1]) : ""; // passwords are not trimmed
+
+        String problem = null;
+        if (username.isEmpty()) problem = "Username required";
+        else if (password.length() < 6) problem = "Password must be at least 6 characters";
+        else if (usernames.contains(username.toLowerCase(Locale.ROOT))) problem = "Username already exists";
+        else if ("STUDENT".equals(role)) {
+            if (!f[2].matches("^\\d{7}$")) problem = "Invalid roll number";
+            else if (rollNos.contains(f[2])) problem = "Roll number already exists";
+            else {
+                try {
+                    int year = Integer.parseInt(f[4]);
+                    if (year < 1 || year > 10) problem = "Invalid year of study";
+                } catch (NumberFormatException e) {
+                    problem = "Invalid year of study";
+                }
+            }
+        } else {
+            if (f[2].isEmpty()) problem = "Department required";
+            else if (f[3].isEmpty()) problem = "Designation required";
+        }
+        if (problem != null) {
+            errors.add(new RowError(line, username, problem));
+            return null;
+        }
+
+        String userId;
+        try {
+            userId = "STUDENT".equals(role) ? UUID.randomUUID().toString() : AdminService.nextInstructorId();
+        } catch (SQLException e) {
+            errors.add(new RowError(line, username, "Could not allocate a user id: " + e.getMessage()));
+            return null;
+        }
+        usernames.add(username.toLowerCase(Locale.ROOT));
+        if ("STUDENT".equals(role)) rollNos.add(f[2]);
+        return new Row(line, userId, username, password, f, null);
+    }
+
+    private void insertChunk(List<Row> chunk) {
+        // bcrypt dominates; spread it over all cores
+        int cost = BcryptCost.cost(BcryptCost.Policy.BULK);
+        List<Row> hashed = chunk.parallelStream()
+                .map(r -> r.withHash(HashUtil.hashPassword(r.password(), cost)))
+                .toList();
+
+        try {
+            insertAuth(hashed);
+        } catch (SQLException e) {
+            // nothing was committed for this chunk; isolate the failing rows
+            insertOneByOne(hashed);
+            return;
+        }
+        try {
+            insertErp(hashed);
+            created += hashed.size();
+        } catch (SQLException e) {
+            // rows whose auth entry could not be removed are already reported; retrying them would only collide
+            insertOneByOne(deleteAuth(hashed));
+        }
+    }
+
+    private void insertOneByOne(List<Row> rows) {
+        for (Row r : rows) {
+            List<Row> single = List.of(r);
+            try {
+                insertAuth(single);
+            } catch (SQLException e) {
+                errors.add(new RowError(r.line(), r.username(), "Failed to add user (auth): " + e.getMessage()));
+                continue;
+            }
+            try {
+                insertErp(single);
+                created++;
+            } catch (SQLException e) {
+                errors.add(new RowError(r.line(), r.username(), "Failed to add " + role.toLowerCase(Locale.ROOT) + " (erp): " + e.getMessage()));
+                deleteAuth(single);
+            }
+        }
+    }
+
+    private void insertAuth(List<Row> rows) throws SQLException {
+        String sql = "INSERT INTO users_auth (user_id, username, role, password_hash, status, last_login) " +
+                "VALUES (?, ?, ?, ?, 'ACTIVE', NULL)";
+        try (Connection conn = DBConfig.getAuthConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Row r : rows) {
+                    ps.setString(1, r.userId());
+                    ps.setString(2, r.username());
+                    ps.setString(3, role);
+                    ps.setString(4, r.hash());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void insertErp(List<Row> rows) throws SQLException {
+        String sql = "STUDENT".equals(role)
+                ? "INSERT INTO students (user_id, roll_no, program, year_of_study, enrollment_date) VALUES (?, ?, ?, ?, CURDATE())"
+                : "INSERT INTO instructors (user_id, department, designation, office_room) VALUES (?, ?, ?, ?)";
+        try (Connection conn = DBConfig.getErpConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Row r : rows) {
+                    String[] f = r.fields();
+                    ps.setString(1, r.userId());
+                    ps.setString(2, f[2]);
+                    ps.setString(3, f[3]);
+                    if ("STUDENT".equals(role)) ps.setInt(4, Integer.parseInt(f[4]));
+                    else ps.setString(4, f[4]);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // compensating cleanup for auth rows whose role-table insert failed. returns the rows that were removed; a row
+    // that could not be is reported with its user_id, since it is now a login without a role row
+    private List<Row> deleteAuth(List<Row> rows) {
+        List<Row> removed = new ArrayList<>(rows.size());
+        int done = 0;
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM users_auth WHERE user_id = ?")) {
+            for (Row r : rows) {
+                ps.setString(1, r.userId());
+                try {
+                    ps.executeUpdate();
+                    removed.add(r);
+                } catch (SQLException e) {
+                    orphaned(r, e);
+                }
+                done++;
+            }
+        } catch (SQLException e) {
+            for (Row r : rows.subList(done, rows.size())) orphaned(r, e);
+        }
+        return removed;
+    }
+
+    private void orphaned(Row r, SQLException e) {
+        e.printStackTrace();
+        errors.add(new RowError(r.line(), r.username(), "Cleanup failed: users_auth row " + r.userId() +
+                " was left without a " + role.toLowerCase(Locale.ROOT) + " record and must be removed by hand: " + e.getMessage()));
+    }
+}
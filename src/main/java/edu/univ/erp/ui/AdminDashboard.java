@@ -1,23 +1,35 @@
 package edu.univ.erp.ui;
 
+import edu.univ.erp.data.ScheduleIndex;
+import edu.univ.erp.data.SeatCountReconciler;
 import edu.univ.erp.domain.ServiceResult;
 import edu.univ.erp.service.AdminService;
+import edu.univ.erp.service.AsyncService;
+import edu.univ.erp.service.SessionContext;
+import edu.univ.erp.service.UserImporter;
 import edu.univ.erp.service.AdminService.*;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.File;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public class AdminDashboard extends JFrame {
     private final String userId;
     private final String username;
+    private final SessionContext session;
     private final AdminService adminService;
+    private final AsyncService<AdminService> async;
+    private final ServiceCalls<AdminService> calls;
 
     private static final Color BG = new Color(245, 247, 250);
     private static final Color ACCENT = new Color(0, 180, 180);
@@ -37,6 +49,7 @@ public class AdminDashboard extends JFrame {
     private JPanel mainContentPanel;
     private JLabel lblPageTitle;
     private JLabel maintenanceBanner;
+    private JLabel lblLoadTime;
     private final List<NavButton> navButtons = new ArrayList<>();
 
     private static final String VIEW_USERS = "USERS";
@@ -50,15 +63,28 @@ public class AdminDashboard extends JFrame {
     private DefaultTableModel courseModel;
     private JTable sectionTable;
     private DefaultTableModel sectionModel;
+    private PagedTableLoader<UserView> userPages;
+    private PagedTableLoader<CourseView> coursePages;
+    private PagedTableLoader<SectionView> sectionPages;
+    private List<UserView> loadedUsers = new ArrayList<>();
 
     public AdminDashboard(String userId, String username) {
-        super("Admin Dashboard - " + username);
-        this.userId = userId;
-        this.username = username;
+        this(SessionContext.of(userId, username, "ADMIN"));
+    }
+
+    public AdminDashboard(SessionContext session) {
+        super("Admin Dashboard - " + session.username());
+        this.session = session;
+        this.userId = session.userId();
+        this.username = session.username();
         this.adminService = new AdminService();
+        this.async = new AsyncService<>(adminService);
+        this.calls = new ServiceCalls<>(async,
+                message -> JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE));
 
         initUI();
         loadAllData();
+        SeatCountReconciler.startScheduled(Long.getLong("erp.seats.reconcileMinutes", 60L));
     }
 
     private void initUI() {
@@ -95,6 +121,14 @@ public class AdminDashboard extends JFrame {
 
         sidebar.add(Box.createVerticalGlue());
 
+        // filled in by loadAllData: total load time, per-panel timings in the tooltip
+        lblLoadTime = new JLabel(" ");
+        lblLoadTime.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        lblLoadTime.setForeground(Color.GRAY);
+        lblLoadTime.setBorder(new EmptyBorder(0, 25, 5, 0));
+        lblLoadTime.setAlignmentX(Component.LEFT_ALIGNMENT);
+        sidebar.add(lblLoadTime);
+
         JButton logoutBtn = new JButton("Logout");
         logoutBtn.setFont(HEADER_FONT);
         logoutBtn.setForeground(new Color(200, 50, 50));
@@ -249,18 +283,24 @@ public class AdminDashboard extends JFrame {
             JButton btnAdmin = new PillButton("Add Admin");
             JButton btnDelete = new PillButton("Delete Selected");
             btnDelete.setBackground(new Color(220, 60, 60));
+            JButton btnUnlock = new PillButton("Unlock");
+            JButton btnImport = new PillButton("Import CSV");
             JButton btnRefresh = new PillButton("Refresh");
 
             btnStudent.addActionListener(e -> showAddStudentDialog());
             btnInstr.addActionListener(e -> showAddInstructorDialog());
             btnAdmin.addActionListener(e -> showAddAdminDialog());
             btnDelete.addActionListener(e -> deleteSelectedUser());
+            btnUnlock.addActionListener(e -> unlockSelectedUser());
+            btnImport.addActionListener(e -> importUsersCsv());
             btnRefresh.addActionListener(e -> loadUsers());
 
             toolbar.add(btnStudent);
             toolbar.add(btnInstr);
             toolbar.add(btnAdmin);
             toolbar.add(btnDelete);
+            toolbar.add(btnUnlock);
+            toolbar.add(btnImport);
             toolbar.add(btnRefresh);
             userModel = new DefaultTableModel(new Object[]{"Username", "Role", "Status", "Roll No/Dept"}, 0) {
 
@@ -269,7 +309,21 @@ public class AdminDashboard extends JFrame {
             userTable = new JTable(userModel);
             styleTable(userTable);
 
-            panel.add(createTableScroll(userTable), BorderLayout.CENTER);
+            JScrollPane scroll = createTableScroll(userTable);
+            JLabel lblCount = createCountLabel();
+            toolbar.add(lblCount);
+            userPages = new PagedTableLoader<UserView>(scroll,
+                    (after, sink) -> calls.read(s -> s.getUsersPage(after, PagedTableLoader.PAGE_SIZE), sink),
+                    () -> {
+                        loadedUsers.clear();
+                        userModel.setRowCount(0);
+                    },
+                    u -> {
+                        loadedUsers.add(u);
+                        userModel.addRow(new Object[]{u.username(), u.role(), u.status(), u.specificId()});
+                    }).withStatus(lblCount);
+
+            panel.add(scroll, BorderLayout.CENTER);
             panel.add(toolbar, BorderLayout.SOUTH);
         });
     }
@@ -302,7 +356,16 @@ public class AdminDashboard extends JFrame {
             courseTable = new JTable(courseModel);
             styleTable(courseTable);
 
-            panel.add(createTableScroll(courseTable), BorderLayout.CENTER);
+            JScrollPane scroll = createTableScroll(courseTable);
+            JLabel lblCount = createCountLabel();
+            toolbar.add(lblCount);
+            coursePages = new PagedTableLoader<CourseView>(scroll,
+                    (after, sink) -> calls.read(s -> s.getCoursesPage(after, PagedTableLoader.PAGE_SIZE), sink),
+                    () -> courseModel.setRowCount(0),
+                    c -> courseModel.addRow(new Object[]{c.courseId(), c.courseCode(), c.courseName(), c.credits(), c.description()})
+            ).withStatus(lblCount);
+
+            panel.add(scroll, BorderLayout.CENTER);
             panel.add(toolbar, BorderLayout.SOUTH);
         });
     }
@@ -342,7 +405,19 @@ public class AdminDashboard extends JFrame {
             sectionTable = new JTable(sectionModel);
             styleTable(sectionTable);
 
-            panel.add(createTableScroll(sectionTable), BorderLayout.CENTER);
+            JScrollPane scroll = createTableScroll(sectionTable);
+            JLabel lblCount = createCountLabel();
+            toolbar.add(lblCount);
+            sectionPages = new PagedTableLoader<SectionView>(scroll,
+                    (after, sink) -> calls.read(s -> s.getSectionsPage(after, PagedTableLoader.PAGE_SIZE), sink),
+                    () -> sectionModel.setRowCount(0),
+                    s -> sectionModel.addRow(new Object[]{
+                            s.sectionId(), s.courseCode(), s.instructorId(), s.semester(),
+                            s.year(), s.day(), s.startTime() + " - " + s.endTime(), s.room(),
+                            s.capacity(), s.enrolled()})
+            ).withStatus(lblCount);
+
+            panel.add(scroll, BorderLayout.CENTER);
             panel.add(toolbar, BorderLayout.SOUTH);
         });
     }
@@ -365,23 +440,24 @@ public class AdminDashboard extends JFrame {
             tglMaint.setFont(new Font("Segoe UI", Font.BOLD, 14));
             tglMaint.setPreferredSize(new Dimension(100, 40));
 
-            boolean currentMode = adminService.getMaintenanceMode();
-            styleToggle(tglMaint, currentMode);
+            styleToggle(tglMaint, false);
+            calls.read(AdminService::getMaintenanceMode, currentMode -> styleToggle(tglMaint, currentMode));
 
             tglMaint.addActionListener(e -> {
                 boolean enable = tglMaint.isSelected();
-                ServiceResult<Boolean> sr = adminService.toggleMaintenanceMode(enable);
-                if (sr.isSuccess()) {
-                    styleToggle(tglMaint, enable);
-                    checkMaintenanceStatus();
-                    JOptionPane.showMessageDialog(this, sr.getMessage());
-                } else {
-                    tglMaint.setSelected(!enable);
-                    JOptionPane.showMessageDialog(this,
-                            sr.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE);
-                }
+                calls.write(s -> s.toggleMaintenanceMode(enable), sr -> {
+                    if (sr.isSuccess()) {
+                        styleToggle(tglMaint, enable);
+                        checkMaintenanceStatus();
+                        JOptionPane.showMessageDialog(this, sr.getMessage());
+                    } else {
+                        tglMaint.setSelected(!enable);
+                        JOptionPane.showMessageDialog(this,
+                                sr.getMessage(),
+                                "Error",
+                                JOptionPane.ERROR_MESSAGE);
+                    }
+                });
             });
 
             content.add(lblMaint, gbc);
@@ -400,6 +476,66 @@ public class AdminDashboard extends JFrame {
             gbc.gridx = 1;
             content.add(btnDeadline, gbc);
 
+            gbc.gridx = 0;
+            gbc.gridy++;
+            JLabel lblSeats = new JLabel("Seat Counts:");
+            lblSeats.setFont(new Font("Segoe UI", Font.BOLD, 16));
+
+            JButton btnSeats = new PillButton("Reconcile");
+            btnSeats.addActionListener(e -> {
+                calls.write(s -> s.reconcileSeatCounts(true), sr -> {
+                    JOptionPane.showMessageDialog(this, sr.getMessage(),
+                            sr.isSuccess() ? "Seat Counts" : "Error",
+                            sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+                    if (sr.isSuccess() && !sr.getData().isEmpty()) loadSections();
+                });
+            });
+
+            content.add(lblSeats, gbc);
+            gbc.gridx = 1;
+            content.add(btnSeats, gbc);
+
+            gbc.gridx = 0;
+            gbc.gridy++;
+            JLabel lblSchedule = new JLabel("Schedule:");
+            lblSchedule.setFont(new Font("Segoe UI", Font.BOLD, 16));
+
+            JButton btnSchedule = new PillButton("Check Double-Bookings");
+            btnSchedule.addActionListener(e -> {
+                calls.read(s -> s.checkSchedule(null, 0), sr -> {
+                    StringBuilder msg = new StringBuilder(sr.getMessage());
+                    if (sr.isSuccess()) {
+                        List<ScheduleIndex.Conflict> conflicts = sr.getData();
+                        for (int i = 0; i < Math.min(conflicts.size(), 20); i++) {
+                            ScheduleIndex.Conflict c = conflicts.get(i);
+                            msg.append("\n").append(c.booking().sectionId()).append(" (")
+                                    .append(c.booking().semester()).append(' ').append(c.booking().year())
+                                    .append(", ").append(c.booking().meeting()).append("): ").append(c.describe());
+                        }
+                        if (conflicts.size() > 20) msg.append("\n... and ").append(conflicts.size() - 20).append(" more");
+                    }
+                    JOptionPane.showMessageDialog(this, msg.toString(),
+                            sr.isSuccess() ? "Schedule" : "Error",
+                            sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+                });
+            });
+
+            content.add(lblSchedule, gbc);
+            gbc.gridx = 1;
+            content.add(btnSchedule, gbc);
+
+            gbc.gridx = 0;
+            gbc.gridy++;
+            JLabel lblExport = new JLabel("Data Export:");
+            lblExport.setFont(new Font("Segoe UI", Font.BOLD, 16));
+
+            JButton btnExport = new PillButton("Export CSV");
+            btnExport.addActionListener(e -> exportTableCsv());
+
+            content.add(lblExport, gbc);
+            gbc.gridx = 1;
+            content.add(btnExport, gbc);
+
             JPanel wrapper = new JPanel(new FlowLayout(FlowLayout.LEFT));
             wrapper.setOpaque(false);
             wrapper.add(content);
@@ -456,16 +592,16 @@ public class AdminDashboard extends JFrame {
                 return;
             }
 
-            ServiceResult<String> result = adminService.addAdmin(username, password);
-
-            JOptionPane.showMessageDialog(this,
-                    result.getMessage(),
-                    result.isSuccess() ? "Success" : "Error",
-                    result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+            calls.write(s -> s.addAdmin(username, password), result -> {
+                JOptionPane.showMessageDialog(this,
+                        result.getMessage(),
+                        result.isSuccess() ? "Success" : "Error",
+                        result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
 
-            if (result.isSuccess()) {
-                loadUsers();
-            }
+                if (result.isSuccess()) {
+                    loadUsers();
+                }
+            });
         });
     }
     private void showAddStudentDialog() {
@@ -531,17 +667,17 @@ public class AdminDashboard extends JFrame {
                 return;
             }
 
-            ServiceResult<String> result = adminService.addStudent(
-                    username, password, rollNo, program, year);
-
-            JOptionPane.showMessageDialog(this,
-                    result.getMessage(),
-                    result.isSuccess() ? "Success" : "Error",
-                    result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+            calls.write(s -> s.addStudent(
+                    username, password, rollNo, program, year), result -> {
+                JOptionPane.showMessageDialog(this,
+                        result.getMessage(),
+                        result.isSuccess() ? "Success" : "Error",
+                        result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
 
-            if (result.isSuccess()) {
-                loadUsers();
-            }
+                if (result.isSuccess()) {
+                    loadUsers();
+                }
+            });
         });
     }
     private void showAddInstructorDialog() {
@@ -600,22 +736,22 @@ public class AdminDashboard extends JFrame {
                 return;
             }
 
-            ServiceResult<String> result = adminService.addInstructor(
+            calls.write(s -> s.addInstructor(
                     username,
                     password,
                     department,
                     designation,
                     office
-            );
-
-            JOptionPane.showMessageDialog(this,
-                    result.getMessage(),
-                    result.isSuccess() ? "Success" : "Error",
-                    result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+            ), result -> {
+                JOptionPane.showMessageDialog(this,
+                        result.getMessage(),
+                        result.isSuccess() ? "Success" : "Error",
+                        result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
 
-            if (result.isSuccess()) {
-                loadUsers();
-            }
+                if (result.isSuccess()) {
+                    loadUsers();
+                }
+            });
         });
     }
     //ADD COURSE
@@ -656,16 +792,16 @@ public class AdminDashboard extends JFrame {
                 return;
             }
 
-            ServiceResult<Integer> sr = adminService.addCourse(code, name, credits, description);
-
-            JOptionPane.showMessageDialog(this,
-                    sr.getMessage(),
-                    sr.isSuccess() ? "Success" : "Error",
-                    sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+            calls.write(s -> s.addCourse(code, name, credits, description), sr -> {
+                JOptionPane.showMessageDialog(this,
+                        sr.getMessage(),
+                        sr.isSuccess() ? "Success" : "Error",
+                        sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
 
-            if (sr.isSuccess()) {
-                loadCourses();
-            }
+                if (sr.isSuccess()) {
+                    loadCourses();
+                }
+            });
         });
     }
 
@@ -721,21 +857,29 @@ public class AdminDashboard extends JFrame {
                 return;
             }
 
-            ServiceResult<String> sr = adminService.updateCourse(cid, code, name, credits, description);
-
-            JOptionPane.showMessageDialog(this,
-                    sr.getMessage(),
-                    sr.isSuccess() ? "Success" : "Error",
-                    sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+            calls.write(s -> s.updateCourse(cid, code, name, credits, description), sr -> {
+                JOptionPane.showMessageDialog(this,
+                        sr.getMessage(),
+                        sr.isSuccess() ? "Success" : "Error",
+                        sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
 
-            if (sr.isSuccess()) {
-                loadCourses();
-            }
+                if (sr.isSuccess()) {
+                    loadCourses();
+                }
+            });
         });
     }    //ADD SECTION
     private void showAddSectionDialog() {
-        var courses = adminService.getAllCourses();
-        var instructors = adminService.getAllInstructors();
+        CompletableFuture<List<CourseView>> courses = async.call(AdminService::getAllCourses);
+        CompletableFuture<List<InstructorView>> instructors = async.call(AdminService::getAllInstructors);
+        courses.thenAcceptBothAsync(instructors, this::showAddSectionDialog, ServiceCalls.EDT)
+                .exceptionally(ex -> {
+                    calls.showFailure(ex);
+                    return null;
+                });
+    }
+
+    private void showAddSectionDialog(List<CourseView> courses, List<InstructorView> instructors) {
 
         JComboBox<String> courseBox = new JComboBox<>();
         JComboBox<String> instructorBox = new JComboBox<>();
@@ -806,12 +950,9 @@ public class AdminDashboard extends JFrame {
                 return;
             }
 
-            String instructorId = null;
-            if (iIndex > 0) {
-                instructorId = instructors.get(iIndex - 1).userId();
-            }
+            String instructorId = iIndex > 0 ? instructors.get(iIndex - 1).userId() : null;
 
-            var result = adminService.addSection(
+            calls.write(s -> s.addSection(
                     courses.get(cIndex).courseId(),
                     instructorId,
                     semesterBox.getSelectedItem().toString(),
@@ -821,16 +962,16 @@ public class AdminDashboard extends JFrame {
                     endTime,
                     room,
                     capacity
-            );
-
-            JOptionPane.showMessageDialog(this,
-                    result.getMessage(),
-                    result.isSuccess() ? "Success" : "Error",
-                    result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+            ), result -> {
+                JOptionPane.showMessageDialog(this,
+                        result.getMessage(),
+                        result.isSuccess() ? "Success" : "Error",
+                        result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
 
-            if (result.isSuccess()) {
-                loadSections();
-            }
+                if (result.isSuccess()) {
+                    loadSections();
+                }
+            });
         });
     }
 
@@ -859,105 +1000,103 @@ public class AdminDashboard extends JFrame {
         String startTime = times.length > 0 ? cleanTime(times[0].trim()) : "09:00";
         String endTime = times.length > 1 ? cleanTime(times[1].trim()) : "10:00";
 
-        var instructors = adminService.getAllInstructors();
-        JComboBox<String> instructorBox = new JComboBox<>();
-        JComboBox<String> semesterBox = new JComboBox<>(new String[] {"Spring", "Fall", "Summer", "Winter"});
-        JComboBox<String> dayBox = new JComboBox<>(new String[] {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"});
-
-        SpinnerNumberModel yearModel = new SpinnerNumberModel(currentYear, 2000, 2100, 1);
-        JSpinner yearSpinner = new JSpinner(yearModel);
-        JSpinner.NumberEditor yearEditor = new JSpinner.NumberEditor(yearSpinner, "#");
-        yearSpinner.setEditor(yearEditor);
-
-        JTextField startField = new JTextField(startTime, 10);
-        JTextField endField = new JTextField(endTime, 10);
-        JTextField roomField = new JTextField(currentRoom != null ? currentRoom : "", 10);
-        JSpinner capSpinner = new JSpinner(new SpinnerNumberModel(currentCapacity, 1, 300, 1));
-
-        instructorBox.addItem("--- No Instructor ---");
-        int selectedIndex = 0;
-        for (int i = 0; i < instructors.size(); i++) {
-            var inst = instructors.get(i);
-            // Show: Name (Department) instead of ID
-            instructorBox.addItem(inst.name() + " (" + inst.department() + ")");
-            if (inst.userId().equals(currentInstructor)) {
-                selectedIndex = i + 1;
-            }
-        }
-        instructorBox.setSelectedIndex(selectedIndex);
-        semesterBox.setSelectedItem(currentSemester);
-        dayBox.setSelectedItem(currentDay);
-
-        JPanel panel = new JPanel();
-        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-        panel.add(createFormRow("Instructor", instructorBox));
-        panel.add(createFormRow("Semester", semesterBox));
-        panel.add(createFormRow("Year", yearSpinner));
-        panel.add(createFormRow("Day", dayBox));
-        panel.add(createFormRow("Start Time (HH:MM)", startField));
-        panel.add(createFormRow("End Time (HH:MM)", endField));
-        panel.add(createFormRow("Room (Optional)", roomField)); // ✅ NOW OPTIONAL
-        panel.add(createFormRow("Capacity (Currently: " + currentEnrolled + " enrolled)", capSpinner));
-
-        showCustomDialog("Edit Section", panel, (ok) -> {
-            String newStartTime = startField.getText().trim();
-            String newEndTime = endField.getText().trim();
-            String newRoom = roomField.getText().trim(); // ✅ Can be empty
-            int newCapacity = (int) capSpinner.getValue();
-
-
-            if (!newStartTime.matches("\\d{2}:\\d{2}") || !newEndTime.matches("\\d{2}:\\d{2}")) {
-                JOptionPane.showMessageDialog(this,
-                        "Time must be in HH:MM format (e.g., 09:00)!",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            if (newCapacity < currentEnrolled) {
-                JOptionPane.showMessageDialog(this,
-                        "Cannot reduce capacity below current enrollment!\n" +
-                                "Currently enrolled: " + currentEnrolled + " students\n" +
-                                "You tried to set capacity to: " + newCapacity,
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            if (newCapacity <= 0) {
-                JOptionPane.showMessageDialog(this,
-                        "Capacity must be positive!",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            String instructorId = null;
-            int iIndex = instructorBox.getSelectedIndex();
-            if (iIndex > 0) {
-                instructorId = instructors.get(iIndex - 1).userId();
+        calls.read(s -> s.getAllInstructors(), instructors -> {
+            JComboBox<String> instructorBox = new JComboBox<>();
+            JComboBox<String> semesterBox = new JComboBox<>(new String[] {"Spring", "Fall", "Summer", "Winter"});
+            JComboBox<String> dayBox = new JComboBox<>(new String[] {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"});
+
+            SpinnerNumberModel yearModel = new SpinnerNumberModel(currentYear, 2000, 2100, 1);
+            JSpinner yearSpinner = new JSpinner(yearModel);
+            JSpinner.NumberEditor yearEditor = new JSpinner.NumberEditor(yearSpinner, "#");
+            yearSpinner.setEditor(yearEditor);
+
+            JTextField startField = new JTextField(startTime, 10);
+            JTextField endField = new JTextField(endTime, 10);
+            JTextField roomField = new JTextField(currentRoom != null ? currentRoom : "", 10);
+            JSpinner capSpinner = new JSpinner(new SpinnerNumberModel(currentCapacity, 1, 300, 1));
+
+            instructorBox.addItem("--- No Instructor ---");
+            int selectedIndex = 0;
+            for (int i = 0; i < instructors.size(); i++) {
+                var inst = instructors.get(i);
+                // Show: Name (Department) instead of ID
+                instructorBox.addItem(inst.name() + " (" + inst.department() + ")");
+                if (inst.userId().equals(currentInstructor)) {
+                    selectedIndex = i + 1;
+                }
             }
+            instructorBox.setSelectedIndex(selectedIndex);
+            semesterBox.setSelectedItem(currentSemester);
+            dayBox.setSelectedItem(currentDay);
+
+            JPanel panel = new JPanel();
+            panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+            panel.add(createFormRow("Instructor", instructorBox));
+            panel.add(createFormRow("Semester", semesterBox));
+            panel.add(createFormRow("Year", yearSpinner));
+            panel.add(createFormRow("Day", dayBox));
+            panel.add(createFormRow("Start Time (HH:MM)", startField));
+            panel.add(createFormRow("End Time (HH:MM)", endField));
+            panel.add(createFormRow("Room (Optional)", roomField)); // ✅ NOW OPTIONAL
+            panel.add(createFormRow("Capacity (Currently: " + currentEnrolled + " enrolled)", capSpinner));
+
+            showCustomDialog("Edit Section", panel, (ok) -> {
+                String newStartTime = startField.getText().trim();
+                String newEndTime = endField.getText().trim();
+                String newRoom = roomField.getText().trim(); // ✅ Can be empty
+                int newCapacity = (int) capSpinner.getValue();
+
+
+                if (!newStartTime.matches("\\d{2}:\\d{2}") || !newEndTime.matches("\\d{2}:\\d{2}")) {
+                    JOptionPane.showMessageDialog(this,
+                            "Time must be in HH:MM format (e.g., 09:00)!",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-            ServiceResult<String> result = adminService.updateSection(
-                    sectionId,
-                    instructorId,
-                    semesterBox.getSelectedItem().toString(),
-                    (int) yearSpinner.getValue(),
-                    dayBox.getSelectedItem().toString(),
-                    newStartTime,
-                    newEndTime,
-                    newRoom,
-                    newCapacity
-            );
+                if (newCapacity < currentEnrolled) {
+                    JOptionPane.showMessageDialog(this,
+                            "Cannot reduce capacity below current enrollment!\n" +
+                                    "Currently enrolled: " + currentEnrolled + " students\n" +
+                                    "You tried to set capacity to: " + newCapacity,
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-            JOptionPane.showMessageDialog(this,
-                    result.getMessage(),
-                    result.isSuccess() ? "Success" : "Error",
-                    result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+                if (newCapacity <= 0) {
+                    JOptionPane.showMessageDialog(this,
+                            "Capacity must be positive!",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-            if (result.isSuccess()) {
-                loadSections();
-            }
+                int iIndex = instructorBox.getSelectedIndex();
+                String instructorId = iIndex > 0 ? instructors.get(iIndex - 1).userId() : null;
+
+                calls.write(s -> s.updateSection(
+                        sectionId,
+                        instructorId,
+                        semesterBox.getSelectedItem().toString(),
+                        (int) yearSpinner.getValue(),
+                        dayBox.getSelectedItem().toString(),
+                        newStartTime,
+                        newEndTime,
+                        newRoom,
+                        newCapacity
+                ), result -> {
+                    JOptionPane.showMessageDialog(this,
+                            result.getMessage(),
+                            result.isSuccess() ? "Success" : "Error",
+                            result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+
+                    if (result.isSuccess()) {
+                        loadSections();
+                    }
+                });
+            });
         });
     }    private void showAssignInstructorDialog() {
         int row = sectionTable.getSelectedRow();
@@ -973,74 +1112,74 @@ public class AdminDashboard extends JFrame {
         String courseInfo = (String) sectionModel.getValueAt(row, 1);
         String currentInstructor = (String) sectionModel.getValueAt(row, 2);
 
-        var instructors = adminService.getAllInstructors();
-
-        if (instructors == null || instructors.isEmpty()) {
-            JOptionPane.showMessageDialog(this,
-                    "No instructors available in the system!\n" +
-                            "Please add instructors first.",
-                    "No Instructors",
-                    JOptionPane.WARNING_MESSAGE);
-            return;
-        }
-
-        JComboBox<String> instructorBox = new JComboBox<>();
-        for (var i : instructors) {
-            // Show: Name (Department) instead of ID
-            instructorBox.addItem(i.name() + " (" + i.department() + ")");
-        }
-
-        JPanel panel = new JPanel();
-        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+        calls.read(s -> s.getAllInstructors(), instructors -> {
+            if (instructors == null || instructors.isEmpty()) {
+                JOptionPane.showMessageDialog(this,
+                        "No instructors available in the system!\n" +
+                                "Please add instructors first.",
+                        "No Instructors",
+                        JOptionPane.WARNING_MESSAGE);
+                return;
+            }
 
-        // Info section
-        JLabel infoLabel = new JLabel(
-                "<html><b>Section:</b> " + sectionId + "<br>" +
-                        "<b>Course:</b> " + courseInfo + "<br>" +
-                        "<b>Current Instructor:</b> " + (currentInstructor == null || currentInstructor.isEmpty() ? "None" : currentInstructor) +
-                        "</html>"
-        );
-        infoLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-        infoLabel.setBorder(new EmptyBorder(0, 0, 15, 0));
+            JComboBox<String> instructorBox = new JComboBox<>();
+            for (var i : instructors) {
+                // Show: Name (Department) instead of ID
+                instructorBox.addItem(i.name() + " (" + i.department() + ")");
+            }
 
-        panel.add(infoLabel);
-        panel.add(createFormRow("New Instructor", instructorBox));
+            JPanel panel = new JPanel();
+            panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
 
-        showCustomDialog("Assign Instructor to Section", panel, (ok) -> {
-            int idx = instructorBox.getSelectedIndex();
+            // Info section
+            JLabel infoLabel = new JLabel(
+                    "<html><b>Section:</b> " + sectionId + "<br>" +
+                            "<b>Course:</b> " + courseInfo + "<br>" +
+                            "<b>Current Instructor:</b> " + (currentInstructor == null || currentInstructor.isEmpty() ? "None" : currentInstructor) +
+                            "</html>"
+            );
+            infoLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+            infoLabel.setBorder(new EmptyBorder(0, 0, 15, 0));
 
-            if (idx == -1) {
-                JOptionPane.showMessageDialog(this,
-                        "Please select an instructor!",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+            panel.add(infoLabel);
+            panel.add(createFormRow("New Instructor", instructorBox));
 
-            String newId = instructors.get(idx).userId();
+            showCustomDialog("Assign Instructor to Section", panel, (ok) -> {
+                int idx = instructorBox.getSelectedIndex();
 
-            if (newId.equals(currentInstructor)) {
-                int proceed = JOptionPane.showConfirmDialog(this,
-                        "This instructor is already assigned to this section.\n" +
-                                "Do you want to proceed anyway?",
-                        "Same Instructor",
-                        JOptionPane.YES_NO_OPTION,
-                        JOptionPane.QUESTION_MESSAGE);
-                if (proceed != JOptionPane.YES_OPTION) {
+                if (idx == -1) {
+                    JOptionPane.showMessageDialog(this,
+                            "Please select an instructor!",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
                     return;
                 }
-            }
 
-            ServiceResult<String> res = adminService.assignInstructor(sectionId, newId);
-
-            JOptionPane.showMessageDialog(this,
-                    res.getMessage(),
-                    res.isSuccess() ? "Success" : "Error",
-                    res.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+                String newId = instructors.get(idx).userId();
+
+                if (newId.equals(currentInstructor)) {
+                    int proceed = JOptionPane.showConfirmDialog(this,
+                            "This instructor is already assigned to this section.\n" +
+                                    "Do you want to proceed anyway?",
+                            "Same Instructor",
+                            JOptionPane.YES_NO_OPTION,
+                            JOptionPane.QUESTION_MESSAGE);
+                    if (proceed != JOptionPane.YES_OPTION) {
+                        return;
+                    }
+                }
 
-            if (res.isSuccess()) {
-                loadSections();
-            }
+                calls.write(s -> s.assignInstructor(sectionId, newId), res -> {
+                    JOptionPane.showMessageDialog(this,
+                            res.getMessage(),
+                            res.isSuccess() ? "Success" : "Error",
+                            res.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+
+                    if (res.isSuccess()) {
+                        loadSections();
+                    }
+                });
+            });
         });
     }
     //DELETE USER
@@ -1057,23 +1196,23 @@ public class AdminDashboard extends JFrame {
         String username = (String) userModel.getValueAt(row, 0); // Now username is column 0
         String role = (String) userModel.getValueAt(row, 1);
 
-        // Get the actual userId from the full user list
-        List<UserView> allUsers = adminService.getAllUsers();
-        String userId = null;
-        for (UserView u : allUsers) {
+        // Get the actual userId from the list the table was filled from
+        UserView target = null;
+        for (UserView u : loadedUsers) {
             if (u.username().equals(username) && u.role().equals(role)) {
-                userId = u.userId();
+                target = u;
                 break;
             }
         }
 
-        if (userId == null) {
+        if (target == null) {
             JOptionPane.showMessageDialog(this,
                     "Could not find user ID!",
                     "Error",
                     JOptionPane.ERROR_MESSAGE);
             return;
         }
+        String userId = target.userId();
 
         if ("Admin".equalsIgnoreCase(role)) {
             int preConfirm = JOptionPane.showConfirmDialog(
@@ -1103,8 +1242,117 @@ public class AdminDashboard extends JFrame {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            ServiceResult<String> sr = adminService.deleteUser(userId, role);
+            calls.write(s -> s.deleteUser(userId, role), sr -> {
+                JOptionPane.showMessageDialog(this,
+                        sr.getMessage(),
+                        sr.isSuccess() ? "Success" : "Error",
+                        sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+
+                if (sr.isSuccess()) {
+                    loadUsers();
+                }
+            });
+        }
+    }
+
+    private void importUsersCsv() {
+        String[] roles = {"Student", "Instructor"};
+        int choice = JOptionPane.showOptionDialog(this,
+                "Which kind of users does the file contain?\n\n" +
+                        "Student columns: username, password, roll_no, program, year_of_study\n" +
+                        "Instructor columns: username, password, department, designation, office_room",
+                "Import Users", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
+                null, roles, roles[0]);
+        if (choice < 0) return;
+        String role = roles[choice].toUpperCase();
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import " + roles[choice].toLowerCase() + "s from CSV");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+
+        calls.write(s -> s.importUsersFromCsv(file, role), sr -> {
+            if (!sr.isSuccess()) {
+                JOptionPane.showMessageDialog(this, sr.getMessage(), "Import Failed", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            UserImporter.Report report = sr.getData();
+            StringBuilder msg = new StringBuilder(sr.getMessage());
+            if (!report.errors().isEmpty()) {
+                msg.append("\n\n").append(report.errors().size()).append(" row(s) skipped:");
+                int shown = 0;
+                for (UserImporter.RowError err : report.errors()) {
+                    if (shown++ == 15) {
+                        msg.append("\n...");
+                        break;
+                    }
+                    msg.append("\nLine ").append(err.line()).append(" (").append(err.username()).append("): ").append(err.message());
+                }
+            }
+            JOptionPane.showMessageDialog(this, msg.toString(), "Import Complete",
+                    report.errors().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+            if (report.created() > 0) loadUsers();
+        });
+    }
+
+    private void exportTableCsv() {
+        JComboBox<ExportTarget> cmbTarget = new JComboBox<>(ExportTarget.values());
+        JCheckBox chkGzip = new JCheckBox("Compress (.csv.gz)");
+        JPanel form = new JPanel(new GridLayout(0, 1, 5, 5));
+        form.add(new JLabel("Table:"));
+        form.add(cmbTarget);
+        form.add(chkGzip);
+        if (JOptionPane.showConfirmDialog(this, form, "Export CSV",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) return;
+
+        ExportTarget target = (ExportTarget) cmbTarget.getSelectedItem();
+        boolean gzip = chkGzip.isSelected();
+        String ext = gzip ? ".csv.gz" : ".csv";
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + target.fileName());
+        chooser.setSelectedFile(new File(target.fileName() + "_" + System.currentTimeMillis() + ext));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path chosen = chooser.getSelectedFile().toPath();
+        Path file = chosen.getFileName().toString().endsWith(ext) ? chosen : chosen.resolveSibling(chosen.getFileName() + ext);
+
+        // big tables take a while to stream, so no timeout here
+        calls.read(s -> s.exportCsv(target, file, gzip), null, sr ->
+                JOptionPane.showMessageDialog(this, sr.getMessage(),
+                        sr.isSuccess() ? "Export Complete" : "Export Failed",
+                        sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE));
+    }
+
+    private void unlockSelectedUser() {
+        int row = userTable.getSelectedRow();
+        if (row == -1) {
+            JOptionPane.showMessageDialog(this,
+                    "Please select a user to unlock!",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        String username = (String) userModel.getValueAt(row, 0);
+        String role = (String) userModel.getValueAt(row, 1);
+        UserView target = null;
+        for (UserView u : loadedUsers) {
+            if (u.username().equals(username) && u.role().equals(role)) {
+                target = u;
+                break;
+            }
+        }
+        if (target == null) {
+            JOptionPane.showMessageDialog(this,
+                    "Could not find user ID!",
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        String userId = target.userId();
 
+        calls.write(s -> s.unlockUser(userId), sr -> {
             JOptionPane.showMessageDialog(this,
                     sr.getMessage(),
                     sr.isSuccess() ? "Success" : "Error",
@@ -1113,7 +1361,7 @@ public class AdminDashboard extends JFrame {
             if (sr.isSuccess()) {
                 loadUsers();
             }
-        }
+        });
     }
 
     //DELETE COURSE
@@ -1144,16 +1392,16 @@ public class AdminDashboard extends JFrame {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            ServiceResult<String> sr = adminService.deleteCourse(cid);
-
-            JOptionPane.showMessageDialog(this,
-                    sr.getMessage(),
-                    sr.isSuccess() ? "Success" : "Error",
-                    sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+            calls.write(s -> s.deleteCourse(cid), sr -> {
+                JOptionPane.showMessageDialog(this,
+                        sr.getMessage(),
+                        sr.isSuccess() ? "Success" : "Error",
+                        sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
 
-            if (sr.isSuccess()) {
-                loadCourses();
-            }
+                if (sr.isSuccess()) {
+                    loadCourses();
+                }
+            });
         }
     }
     private void deleteSelectedSection() {
@@ -1196,107 +1444,107 @@ public class AdminDashboard extends JFrame {
         );
 
         if (confirm == JOptionPane.YES_OPTION) {
-            ServiceResult<String> result = adminService.deleteSection(sectionId);
-
-            JOptionPane.showMessageDialog(this,
-                    result.getMessage(),
-                    result.isSuccess() ? "Success" : "Error",
-                    result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+            calls.write(s -> s.deleteSection(sectionId), result -> {
+                JOptionPane.showMessageDialog(this,
+                        result.getMessage(),
+                        result.isSuccess() ? "Success" : "Error",
+                        result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
 
-            if (result.isSuccess()) {
-                loadSections();
-            }
+                if (result.isSuccess()) {
+                    loadSections();
+                }
+            });
         }
     }
     private void showChangeDeadlineDialog(String key, String title) {
         // Get current deadline
-        String currentDeadline = adminService.getSettingValue(key);
-
-        JLabel infoLabel = new JLabel(
-                "<html><b>Current " + title + ":</b> " + currentDeadline + "</html>"
-        );
-        infoLabel.setFont(new Font("Segoe UI", Font.BOLD, 13));
-        infoLabel.setBorder(new EmptyBorder(0, 0, 15, 0));
-
-        JTextField dateField = new JTextField(currentDeadline != null ? currentDeadline : "", 15);
+        calls.read(s -> s.getSettingValue(key), currentDeadline -> {
+            JLabel infoLabel = new JLabel(
+                    "<html><b>Current " + title + ":</b> " + currentDeadline + "</html>"
+            );
+            infoLabel.setFont(new Font("Segoe UI", Font.BOLD, 13));
+            infoLabel.setBorder(new EmptyBorder(0, 0, 15, 0));
 
-        JLabel formatLabel = new JLabel("Format: YYYY-MM-DD (e.g., 2024-12-31)");
-        formatLabel.setFont(new Font("Segoe UI", Font.ITALIC, 11));
-        formatLabel.setForeground(new Color(100, 100, 100));
+            JTextField dateField = new JTextField(currentDeadline != null ? currentDeadline : "", 15);
 
-        JPanel panel = new JPanel();
-        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-        panel.add(infoLabel);
-        panel.add(createFormRow("New Deadline Date", dateField));
-        panel.add(formatLabel);
+            JLabel formatLabel = new JLabel("Format: YYYY-MM-DD (e.g., 2024-12-31)");
+            formatLabel.setFont(new Font("Segoe UI", Font.ITALIC, 11));
+            formatLabel.setForeground(new Color(100, 100, 100));
 
-        showCustomDialog("Change " + title, panel, (ok) -> {
-            String newDate = dateField.getText().trim();
+            JPanel panel = new JPanel();
+            panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
+            panel.add(infoLabel);
+            panel.add(createFormRow("New Deadline Date", dateField));
+            panel.add(formatLabel);
 
-            if (newDate.isEmpty()) {
-                JOptionPane.showMessageDialog(this,
-                        "Date cannot be empty!",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+            showCustomDialog("Change " + title, panel, (ok) -> {
+                String newDate = dateField.getText().trim();
 
-            if (!newDate.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                JOptionPane.showMessageDialog(this,
-                        "Invalid date format!\n\n" +
-                                "Required format: YYYY-MM-DD\n" +
-                                "Example: 2024-12-31",
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
-
-            try {
-                String[] parts = newDate.split("-");
-                int year = Integer.parseInt(parts[0]);
-                int month = Integer.parseInt(parts[1]);
-                int day = Integer.parseInt(parts[2]);
-
-                if (year < 2000 || year > 2100) {
-                    throw new IllegalArgumentException("Year must be between 2000 and 2100");
-                }
-                if (month < 1 || month > 12) {
-                    throw new IllegalArgumentException("Month must be between 1 and 12");
-                }
-                if (day < 1 || day > 31) {
-                    throw new IllegalArgumentException("Day must be between 1 and 31");
+                if (newDate.isEmpty()) {
+                    JOptionPane.showMessageDialog(this,
+                            "Date cannot be empty!",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
                 }
 
-                java.time.LocalDate.parse(newDate);
-
-            } catch (Exception e) {
-                JOptionPane.showMessageDialog(this,
-                        "Invalid date!\n\n" +
-                                "Please enter a valid calendar date.\n" +
-                                "Error: " + e.getMessage(),
-                        "Error",
-                        JOptionPane.ERROR_MESSAGE);
-                return;
-            }
+                if (!newDate.matches("\\d{4}-\\d{2}-\\d{2}")) {
+                    JOptionPane.showMessageDialog(this,
+                            "Invalid date format!\n\n" +
+                                    "Required format: YYYY-MM-DD\n" +
+                                    "Example: 2024-12-31",
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-            if (newDate.equals(currentDeadline)) {
-                int proceed = JOptionPane.showConfirmDialog(this,
-                        "The new deadline is the same as the current deadline.\n" +
-                                "Do you want to proceed anyway?",
-                        "Same Date",
-                        JOptionPane.YES_NO_OPTION,
-                        JOptionPane.QUESTION_MESSAGE);
-                if (proceed != JOptionPane.YES_OPTION) {
+                try {
+                    String[] parts = newDate.split("-");
+                    int year = Integer.parseInt(parts[0]);
+                    int month = Integer.parseInt(parts[1]);
+                    int day = Integer.parseInt(parts[2]);
+
+                    if (year < 2000 || year > 2100) {
+                        throw new IllegalArgumentException("Year must be between 2000 and 2100");
+                    }
+                    if (month < 1 || month > 12) {
+                        throw new IllegalArgumentException("Month must be between 1 and 12");
+                    }
+                    if (day < 1 || day > 31) {
+                        throw new IllegalArgumentException("Day must be between 1 and 31");
+                    }
+
+                    java.time.LocalDate.parse(newDate);
+
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(this,
+                            "Invalid date!\n\n" +
+                                    "Please enter a valid calendar date.\n" +
+                                    "Error: " + e.getMessage(),
+                            "Error",
+                            JOptionPane.ERROR_MESSAGE);
                     return;
                 }
-            }
 
-            ServiceResult<String> sr = adminService.updateSetting(key, newDate);
+                if (newDate.equals(currentDeadline)) {
+                    int proceed = JOptionPane.showConfirmDialog(this,
+                            "The new deadline is the same as the current deadline.\n" +
+                                    "Do you want to proceed anyway?",
+                            "Same Date",
+                            JOptionPane.YES_NO_OPTION,
+                            JOptionPane.QUESTION_MESSAGE);
+                    if (proceed != JOptionPane.YES_OPTION) {
+                        return;
+                    }
+                }
 
-            JOptionPane.showMessageDialog(this,
-                    sr.getMessage(),
-                    sr.isSuccess() ? "Success" : "Error",
-                    sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+                calls.write(s -> s.updateSetting(key, newDate), sr -> {
+                    JOptionPane.showMessageDialog(this,
+                            sr.getMessage(),
+                            sr.isSuccess() ? "Success" : "Error",
+                            sr.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+                });
+            });
         });
     }
     //UI HELPERS
@@ -1319,6 +1567,13 @@ public class AdminDashboard extends JFrame {
         return scroll;
     }
 
+    private JLabel createCountLabel() {
+        JLabel lbl = new JLabel();
+        lbl.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        lbl.setForeground(MUTED);
+        return lbl;
+    }
+
     private void styleTable(JTable t) {
         t.setRowHeight(35);
         t.setShowGrid(false);
@@ -1348,37 +1603,42 @@ public class AdminDashboard extends JFrame {
         }
     }
 
-    private void checkMaintenanceStatus() {
-        boolean isOn = adminService.getMaintenanceMode();
-        maintenanceBanner.setVisible(isOn);
+    private CompletableFuture<Void> checkMaintenanceStatus() {
+        return calls.read(AdminService::getMaintenanceMode, isOn -> maintenanceBanner.setVisible(isOn));
     }
 
-    private void loadAllData() {
-        loadUsers();
-        loadCourses();
-        loadSections();
-        checkMaintenanceStatus();
+    private CompletableFuture<RefreshOrchestrator.Report> loadAllData() {
+        return new RefreshOrchestrator("Admin dashboard")
+                .add("users", this::loadUsers)
+                .add("courses", this::loadCourses)
+                .add("sections", this::loadSections)
+                .add("maintenance", this::checkMaintenanceStatus)
+                .run()
+                .thenApplyAsync(report -> {
+                    RefreshOrchestrator.PanelTiming slowest = report.slowest();
+                    lblLoadTime.setText("Loaded in " + report.totalMillis() + " ms" +
+                            (slowest == null ? "" : " (slowest: " + slowest.panel() + ")"));
+                    lblLoadTime.setToolTipText(report.summary());
+                    return report;
+                }, ServiceCalls.EDT);
+    }
+
+    private CompletableFuture<Void> loadUsers() {
+        return userPages.reload();
     }
 
-    private void loadUsers() {
-        userModel.setRowCount(0);
-        List<UserView> users = adminService.getAllUsers();
-        for (UserView u : users) userModel.addRow(new Object[]{u.username(), u.role(), u.status(), u.specificId()});
+    private CompletableFuture<Void> loadCourses() {
+        return coursePages.reload();
     }
 
-    private void loadCourses() {
-        courseModel.setRowCount(0);
-        List<CourseView> courses = adminService.getAllCourses();
-        for (CourseView c : courses) courseModel.addRow(new Object[]{c.courseId(), c.courseCode(), c.courseName(), c.credits(), c.description()});
+    private CompletableFuture<Void> loadSections() {
+        return sectionPages.reload();
     }
 
-    private void loadSections() {
-        sectionModel.setRowCount(0);
-        List<SectionView> sections = adminService.getAllSections();
-        for (SectionView s : sections) sectionModel.addRow(new Object[]{
-                s.sectionId(), s.courseCode(), s.instructorId(), s.semester(),
-                s.year(), s.day(), s.startTime() + " - " + s.endTime(), s.room(),
-                s.capacity(), s.enrolled()});
+    @Override
+    public void dispose() {
+        session.close();
+        super.dispose();
     }
 
 
@@ -0,0 +1,211 @@
+package edu.univ.erp.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+// renders the blurred/tinted login background off the EDT. resizes are debounced, the blur is a running-sum
+// box blur (cost does not depend on the radius) split across rows with fork/join, and finished covers are
+// cached per exact size so toggling between a few window sizes does not recompute anything.
+final class BlurredBackground {
+
+    private static final int DEBOUNCE_MS = 120;
+    private static final int CACHE_SIZE = 6;
+    // rows per fork/join leaf task
+    private static final int ROWS_PER_TASK = 32;
+
+    private static final float DESATURATE = 0.20f;
+    private static final int OVERLAY_ALPHA = 110; // black overlay, 0..255
+
+    private final BufferedImage source;
+    private final int radius;
+    private final JLabel target;
+    private final Timer debounce;
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService renderer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "erp-login-background");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Map<Long, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private int pendingW;
+    private int pendingH;
+
+    BlurredBackground(BufferedImage source, int radius, JLabel target) {
+        this.source = source;
+        this.radius = radius;
+        this.target = target;
+        this.debounce = new Timer(DEBOUNCE_MS, e -> render(pendingW, pendingH));
+        this.debounce.setRepeats(false);
+    }
+
+    // EDT only. coalesces bursts of resize events into one render
+    void resized(int w, int h) {
+        pendingW = w;
+        pendingH = h;
+        debounce.restart();
+    }
+
+    // EDT only. uses the cache when possible, otherwise renders in the background and swaps the icon in later
+    void render(int w, int h) {
+        if (source == null || w <= 0 || h <= 0) {
+            target.setIcon(null);
+            return;
+        }
+        // exact size: a cover made for a nearby size and cropped would be zoomed and framed visibly differently
+        long key = ((long) w << 32) | h;
+        long gen = generation.incrementAndGet();
+
+        BufferedImage cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+        }
+        if (cached != null) {
+            target.setIcon(new ImageIcon(cached));
+            return;
+        }
+
+        renderer.execute(() -> {
+            // a newer size was requested while this one was queued
+            if (generation.get() != gen) return;
+            BufferedImage cover;
+            try {
+                cover = makeCover(source, w, h, radius);
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+                return;
+            }
+            synchronized (cache) {
+                cache.put(key, cover);
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (generation.get() == gen) target.setIcon(new ImageIcon(cover));
+            });
+        });
+    }
+
+    static BufferedImage makeCover(BufferedImage src, int targetW, int targetH, int blurRadius) {
+        double scale = Math.max((double) targetW / src.getWidth(), (double) targetH / src.getHeight()); // cover
+        int scaledW = Math.max(targetW, (int) Math.round(src.getWidth() * scale));
+        int scaledH = Math.max(targetH, (int) Math.round(src.getHeight() * scale));
+        int x = (scaledW - targetW) / 2;
+        int y = (scaledH - targetH) / 2;
+
+        // scale and crop in one draw; the result gets blurred anyway, so bilinear is plenty. at the same size this
+        // stays within 2 levels per channel of the old SCALE_SMOOTH path (see BlurBenchmark.referenceCover)
+        BufferedImage cropped = new BufferedImage(targetW, targetH, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = cropped.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(src, -x, -y, scaledW, scaledH, null);
+        g.dispose();
+
+        int[] pixels = cropped.getRGB(0, 0, targetW, targetH, null, 0, targetW);
+        int[] out = blurAndTint(pixels, targetW, targetH, blurRadius);
+        cropped.setRGB(0, 0, targetW, targetH, out, 0, targetW);
+        return cropped;
+    }
+
+    // separable box blur with clamped edges, followed by desaturation and the dark overlay
+    static int[] blurAndTint(int[] in, int w, int h, int radius) {
+        int[] temp = new int[in.length];
+        int[] out = new int[in.length];
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        pool.invoke(new Pass(in, temp, w, h, Math.max(0, radius), 0, h, true));
+        pool.invoke(new Pass(temp, out, w, h, Math.max(0, radius), 0, w, false));
+        return out;
+    }
+
+    // horizontal pass works on rows [from, to); vertical pass works on columns [from, to)
+    private static final class Pass extends RecursiveAction {
+        private final int[] in;
+        private final int[] out;
+        private final int w;
+        private final int h;
+        private final int radius;
+        private final int from;
+        private final int to;
+        private final boolean horizontal;
+
+        Pass(int[] in, int[] out, int w, int h, int radius, int from, int to, boolean horizontal) {
+            this.in = in;
+            this.out = out;
+            this.w = w;
+            this.h = h;
+            this.radius = radius;
+            this.from = from;
+            this.to = to;
+            this.horizontal = horizontal;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Pass(in, out, w, h, radius, from, mid, horizontal),
+                        new Pass(in, out, w, h, radius, mid, to, horizontal));
+                return;
+            }
+            for (int line = from; line < to; line++) {
+                if (horizontal) {
+                    blurLine(line * w, 1, w, false);
+                } else {
+                    blurLine(line, w, h, true);
+                }
+            }
+        }
+
+        // keeps a running sum over the window: one add and one subtract per pixel
+        private void blurLine(int start, int stride, int len, boolean tint) {
+            int kernel = radius * 2 + 1;
+            int r = 0, g = 0, b = 0;
+            for (int k = -radius; k <= radius; k++) {
+                int rgb = in[start + clamp(k, len) * stride];
+                r += (rgb >> 16) & 0xFF;
+                g += (rgb >> 8) & 0xFF;
+                b += rgb & 0xFF;
+            }
+            for (int i = 0; i < len; i++) {
+                int rr = r / kernel;
+                int gg = g / kernel;
+                int bb = b / kernel;
+                out[start + i * stride] = tint ? tint(rr, gg, bb) : (0xFF << 24) | (rr << 16) | (gg << 8) | bb;
+
+                int add = in[start + clamp(i + radius + 1, len) * stride];
+                int sub = in[start + clamp(i - radius, len) * stride];
+                r += ((add >> 16) & 0xFF) - ((sub >> 16) & 0xFF);
+                g += ((add >> 8) & 0xFF) - ((sub >> 8) & 0xFF);
+                b += (add & 0xFF) - (sub & 0xFF);
+            }
+        }
+
+        private static int clamp(int i, int len) {
+            return i < 0 ? 0 : (i >= len ? len - 1 : i);
+        }
+
+        private static int tint(int r, int g, int b) {
+            int lum = (int) (0.2126 * r + 0.7152 * g + 0.0722 * b);
+            r = (int) (r * (1 - DESATURATE) + lum * DESATURATE);
+            g = (int) (g * (1 - DESATURATE) + lum * DESATURATE);
+            b = (int) (b * (1 - DESATURATE) + lum * DESATURATE);
+            // black overlay composited over the pixel
+            int keep = 255 - OVERLAY_ALPHA;
+            r = (r * keep + 127) / 255;
+            g = (g * keep + 127) / 255;
+            b = (b * keep + 127) / 255;
+            return (0xFF << 24) | (r << 16) | (g << 8) | b;
+        }
+    }
+}
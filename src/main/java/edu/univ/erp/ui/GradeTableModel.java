@@ -0,0 +1,139 @@
+package edu.univ.erp.ui;
+
+import edu.univ.erp.service.InstructorService.GradeChange;
+import edu.univ.erp.service.InstructorService.RosterRow;
+
+import javax.swing.table.DefaultTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Vector;
+import java.util.function.BooleanSupplier;
+
+// gradebook rows plus what each score cell held when it was loaded (or last saved), so Save only sends the
+// cells that differ. a cell edited back to its original value is clean again.
+class GradeTableModel extends DefaultTableModel {
+
+    static final int COL_ENROLLMENT = 0;
+    static final int COL_QUIZ = 4;
+    static final int COL_FINAL = 7;
+
+    private static final String[] COMPONENTS = {"QUIZ", "MIDTERM", "ENDSEM", "FINAL"}; // columns 4..7
+
+    private record Baseline(Double score, Integer version) {}
+
+    private final BooleanSupplier editable;
+    private final Map<String, Baseline> baseline = new HashMap<>();
+    private final Set<String> dirty = new HashSet<>();
+
+    GradeTableModel(BooleanSupplier editable) {
+        super(new String[]{
+                "Enrollment ID", "Student ID", "Roll No", "Student Name", "Quiz", "Midterm", "EndSem", "Final"
+        }, 0);
+        this.editable = editable;
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return switch (columnIndex) {
+            case 4, 5, 6, 7 -> Double.class;
+            default -> String.class;
+        };
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        if (column >= 4 && column <= 6) return editable.getAsBoolean();
+        return false;
+    }
+
+    void load(List<RosterRow> roster) {
+        baseline.clear();
+        dirty.clear();
+        setRowCount(0);
+        for (RosterRow r : roster) {
+            Vector<Object> row = new Vector<>();
+            row.add(r.enrollmentId());
+            row.add(r.studentId());
+            row.add(r.rollNo());
+            row.add(r.studentName() == null ? "" : r.studentName());
+            row.add(r.quiz());
+            row.add(r.midterm());
+            row.add(r.endsem());
+            row.add(r.finalScore());
+            for (int c = 0; c < COMPONENTS.length; c++) {
+                baseline.put(key(r.enrollmentId(), COMPONENTS[c]),
+                        new Baseline(toDouble(row.get(COL_QUIZ + c)), r.versions().get(COMPONENTS[c])));
+            }
+            addRow(row);
+        }
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        super.setValueAt(value, row, column);
+        if (column < COL_QUIZ || column > COL_FINAL) return;
+        String key = key((String) getValueAt(row, COL_ENROLLMENT), COMPONENTS[column - COL_QUIZ]);
+        Baseline b = baseline.get(key);
+        if (b != null && Objects.equals(b.score(), toDouble(value))) dirty.remove(key);
+        else dirty.add(key);
+    }
+
+    boolean isDirty(int row, int column) {
+        if (column < COL_QUIZ || column > COL_FINAL || row >= getRowCount()) return false;
+        return dirty.contains(key((String) getValueAt(row, COL_ENROLLMENT), COMPONENTS[column - COL_QUIZ]));
+    }
+
+    boolean hasChanges() {
+        return !dirty.isEmpty();
+    }
+
+    List<GradeChange> changes() {
+        List<GradeChange> out = new ArrayList<>();
+        for (int r = 0; r < getRowCount(); r++) {
+            String enrollmentId = (String) getValueAt(r, COL_ENROLLMENT);
+            for (int c = 0; c < COMPONENTS.length; c++) {
+                String key = key(enrollmentId, COMPONENTS[c]);
+                if (!dirty.contains(key)) continue;
+                Baseline b = baseline.get(key);
+                out.add(new GradeChange(enrollmentId, COMPONENTS[c], toDouble(getValueAt(r, COL_QUIZ + c)),
+                        b == null ? null : b.version()));
+            }
+        }
+        return out;
+    }
+
+    // saved cells get their new version; they stay dirty only if edited again while the save was running
+    void markSaved(List<GradeChange> saved) {
+        Map<String, Integer> rows = new HashMap<>();
+        for (int r = 0; r < getRowCount(); r++) rows.put((String) getValueAt(r, COL_ENROLLMENT), r);
+        for (GradeChange g : saved) {
+            String key = key(g.enrollmentId(), g.component());
+            baseline.put(key, new Baseline(g.score(), g.version()));
+            Integer r = rows.get(g.enrollmentId());
+            int column = COL_QUIZ + List.of(COMPONENTS).indexOf(g.component());
+            if (r != null && Objects.equals(g.score(), toDouble(getValueAt(r, column)))) dirty.remove(key);
+        }
+        if (getRowCount() > 0) fireTableRowsUpdated(0, getRowCount() - 1);
+    }
+
+    private static String key(String enrollmentId, String component) {
+        return enrollmentId + "|" + component;
+    }
+
+    static Double toDouble(Object o) {
+        if (o == null) return null;
+        if (o instanceof Number) return ((Number) o).doubleValue();
+        try {
+            String s = o.toString().trim();
+            if (s.isEmpty()) return null;
+            return Double.parseDouble(s);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package edu.univ.erp.ui;
 
+import edu.univ.erp.domain.ServiceResult;
+import edu.univ.erp.service.AsyncService;
+import edu.univ.erp.service.CsvWriter;
+import edu.univ.erp.service.GradeImporter;
 import edu.univ.erp.service.InstructorService;
-import edu.univ.erp.service.InstructorService.GradeRow;
+import edu.univ.erp.service.SessionContext;
+import edu.univ.erp.service.InstructorService.GradeChange;
+import edu.univ.erp.service.InstructorService.SaveReport;
 import edu.univ.erp.service.InstructorService.RosterRow;
 import edu.univ.erp.service.InstructorService.SectionRow;
 
@@ -13,16 +19,19 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.io.FileWriter;
-import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 
 public class InstructorDashboard extends JFrame {
 
     private final String instructorUserId;
     private final String username;
+    private final SessionContext session;
 
     private static final Color BG = new Color(240, 244, 248);              // Light blue-gray background
     private static final Color ACCENT = new Color(20, 184, 166);           // Teal
@@ -30,6 +39,7 @@ public class InstructorDashboard extends JFrame {
     private static final Color ACCENT_DARK = new Color(15, 118, 110);
     private static final Color MUTED = new Color(100, 116, 139);           // Slate gray for secondary text
     private static final Color SELECTION_COLOR = new Color(204, 251, 241); // Light teal selection
+    private static final Color DIRTY_COLOR = new Color(254, 249, 195);     // Pale yellow for unsaved edits
     private static final Color CARD_BG = Color.WHITE;
     private static final Color BORDER_COLOR = new Color(226, 232, 240);    // Light gray border
     private static final Color TEXT_PRIMARY = new Color(30, 41, 59);
@@ -53,7 +63,7 @@ public class InstructorDashboard extends JFrame {
         @Override public boolean isCellEditable(int row, int column) { return false; }
     };
 
-    private DefaultTableModel gradeModel;
+    private GradeTableModel gradeModel;
     private final JTable tblGrades;
 
     private final JLabel lblWelcome = new JLabel();
@@ -81,30 +91,29 @@ public class InstructorDashboard extends JFrame {
     private final JButton btnComputeFinal = new ModernButton("Compute Final Grades", true);
     private final JButton btnSave = new ModernButton("Save Grades", true);
     private final JButton btnExport = new ModernButton("Export CSV", true);
+    private final JButton btnImport = new ModernButton("Import CSV", true);
+    private String currentSectionId;
 
     private static final double W_QUIZ = 0.20;
     private static final double W_MID = 0.30;
     private static final double W_END = 0.50;
 
-    private final InstructorService service = new InstructorService();public InstructorDashboard(String instructorUserId, String username) {
+    private final InstructorService service = new InstructorService();
+    private final AsyncService<InstructorService> async = new AsyncService<>(service);
+    private final ServiceCalls<InstructorService> calls = new ServiceCalls<>(async,
+            message -> showModernDialog(message, "Database Error", JOptionPane.ERROR_MESSAGE));
+
+    public InstructorDashboard(String instructorUserId, String username) {
+        this(SessionContext.of(instructorUserId, username, "INSTRUCTOR"));
+    }
+
+    public InstructorDashboard(SessionContext session) {
         super("Instructor Dashboard");
-        this.instructorUserId = instructorUserId;
-        this.username = username;
-
-        gradeModel = new DefaultTableModel(new String[]{
-                "Enrollment ID","Student ID","Roll No","Student Name","Quiz","Midterm","EndSem","Final"
-        }, 0) {
-            @Override public Class<?> getColumnClass(int columnIndex) {
-                return switch (columnIndex) {
-                    case 4,5,6,7 -> Double.class;
-                    default -> String.class;
-                };
-            }
-            @Override public boolean isCellEditable(int row, int column) {
-                if (column >= 4 && column <= 6) return !maintenanceOn;
-                return false;
-            }
-        };
+        this.session = session;
+        this.instructorUserId = session.userId();
+        this.username = session.username();
+
+        gradeModel = new GradeTableModel(() -> !maintenanceOn);
 
         tblGrades = new JTable(gradeModel);
 
@@ -151,6 +160,13 @@ public class InstructorDashboard extends JFrame {
             int modelRow = tblSections.convertRowIndexToModel(viewRow);
             String sectionId = (String) sectionsModel.getValueAt(modelRow, 0);
             String courseName = (String) sectionsModel.getValueAt(modelRow, 2);
+            if (gradeModel.hasChanges() && JOptionPane.showConfirmDialog(this,
+                    "The current gradebook has unsaved changes. Discard them?",
+                    "Unsaved Changes", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+                // keep showing which section the open gradebook belongs to
+                selectSection(currentSectionId);
+                return;
+            }
 
             lblGradebookTitle.setText("Gradebook: " + courseName + " (" + sectionId + ")");
             loadRosterForSection(sectionId);
@@ -165,6 +181,7 @@ public class InstructorDashboard extends JFrame {
         btnComputeFinal.addActionListener((ActionEvent e) -> computeFinalAndUpdateTable());
         btnSave.addActionListener((ActionEvent e) -> saveGradesToDB());
         btnExport.addActionListener((ActionEvent e) -> exportGradesCSV());
+        btnImport.addActionListener((ActionEvent e) -> importGradesCSV());
         btnViewStats.addActionListener(e -> showEnhancedStatsDialog());
 
         // Maintenance timer
@@ -353,12 +370,14 @@ public class InstructorDashboard extends JFrame {
         btnComputeFinal.setPreferredSize(new Dimension(180, 40));
         btnSave.setPreferredSize(new Dimension(120, 40));
         btnExport.setPreferredSize(new Dimension(120, 40));
+        btnImport.setPreferredSize(new Dimension(120, 40));
 
         btnPanel.add(btnBack);
         btnPanel.add(Box.createHorizontalStrut(5));
         btnPanel.add(btnComputeFinal);
         btnPanel.add(btnSave);
         btnPanel.add(btnExport);
+        btnPanel.add(btnImport);
 
         tableCard.add(cardHeader, BorderLayout.NORTH);
         tableCard.add(scrollPane, BorderLayout.CENTER);
@@ -730,73 +749,35 @@ public class InstructorDashboard extends JFrame {
     }
 
     private void loadInstructorDepartment() {
-        new SwingWorker<String, Void>() {
-            @Override
-            protected String doInBackground() {
-                return service.getDepartment(instructorUserId);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    String dep = get();
-                    lblDepartment.setText(dep == null ? "Department: -" : dep);
-                } catch (Exception ignored) {}
-            }
-        }.execute();
+        // cached on the session; reopening panels does not query it again
+        async.call(s -> session.department()).thenAcceptAsync(dep ->
+                lblDepartment.setText(dep == null ? "Department: -" : dep), ServiceCalls.EDT);
     }
 
     private void loadSections() {
         sectionsModel.setRowCount(0);
-        new SwingWorker<List<SectionRow>, Void>() {
-            @Override
-            protected List<SectionRow> doInBackground() {
-                return service.getSectionsForInstructor(instructorUserId);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<SectionRow> rows = get();
-                    for (SectionRow s : rows) {
-                        Vector<Object> r = new Vector<>();
-                        r.add(s.sectionId());
-                        r.add(s.courseCode());
-                        r.add(s.courseName());
-                        r.add(s.semester());
-                        r.add(s.year());
-                        r.add(s.day());
-                        r.add(s.startTime());
-                        r.add(s.endTime());
-                        r.add(s.room());
-                        r.add(s.capacity());
-                        sectionsModel.addRow(r);
-                    }
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showModernDialog("Error loading sections: " + ex.getMessage(),
-                            "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+        calls.read(s -> s.getSectionsForInstructor(instructorUserId), rows -> {
+            for (SectionRow s : rows) {
+                Vector<Object> r = new Vector<>();
+                r.add(s.sectionId());
+                r.add(s.courseCode());
+                r.add(s.courseName());
+                r.add(s.semester());
+                r.add(s.year());
+                r.add(s.day());
+                r.add(s.startTime());
+                r.add(s.endTime());
+                r.add(s.room());
+                r.add(s.capacity());
+                sectionsModel.addRow(r);
             }
-        }.execute();
+        });
     }
 
     private void refreshMaintenanceBanner() {
-        new SwingWorker<Boolean, Void>() {
-            @Override
-            protected Boolean doInBackground() {
-                return service.isMaintenanceMode();
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    applyMaintenanceState(get());
-                } catch (Exception ex) {
-                    applyMaintenanceState(false);
-                }
-            }
-        }.execute();
+        // polled; a failed check just leaves the gradebook editable rather than popping a dialog each time
+        async.call(InstructorService::isMaintenanceMode)
+                .whenComplete((on, ex) -> applyMaintenanceState(ex == null && on));
     }
 
     private void applyMaintenanceState(boolean on) {
@@ -809,12 +790,27 @@ public class InstructorDashboard extends JFrame {
                 lblMaintenance.setVisible(false);
             }
             btnSave.setEnabled(!on);
+            btnImport.setEnabled(!on);
             btnComputeFinal.setEnabled(!on);
             btnLoadRoster.setEnabled(true);
             tblGrades.repaint();
         });
     }
 
+    private void selectSection(String sectionId) {
+        for (int r = 0; r < sectionsModel.getRowCount(); r++) {
+            if (sectionsModel.getValueAt(r, 0).equals(sectionId)) {
+                int viewRow = tblSections.convertRowIndexToView(r);
+                if (viewRow >= 0) {
+                    tblSections.setRowSelectionInterval(viewRow, viewRow);
+                    tblSections.scrollRectToVisible(tblSections.getCellRect(viewRow, 0, true));
+                    return;
+                }
+            }
+        }
+        tblSections.clearSelection();
+    }
+
     private void loadRosterForSection(String sectionId) {
         boolean found = false;
         for (int r = 0; r < sectionsModel.getRowCount(); r++) {
@@ -830,78 +826,54 @@ public class InstructorDashboard extends JFrame {
             return;
         }
 
-        gradeModel.setRowCount(0);
-        new SwingWorker<List<RosterRow>, Void>() {
-            @Override
-            protected List<RosterRow> doInBackground() {
-                return service.getRosterForSection(sectionId);
+        currentSectionId = sectionId;
+        gradeModel.load(List.of());
+        calls.read(s -> s.getRosterForSection(sectionId), roster -> {
+            double sumFinal = 0;
+            double minFinal = Double.MAX_VALUE;
+            double maxFinal = Double.MIN_VALUE;
+            int countFinal = 0;
+            int pass = 0;
+
+            gradeModel.load(roster);
+            for (RosterRow r : roster) {
+
+                if (r.finalScore() != null) {
+                    sumFinal += r.finalScore();
+                    minFinal = Math.min(minFinal, r.finalScore());
+                    maxFinal = Math.max(maxFinal, r.finalScore());
+                    countFinal++;
+                    if (r.finalScore() >= 50.0) pass++;
+                }
             }
 
-            @Override
-            protected void done() {
-                try {
-                    List<RosterRow> roster = get();
-                    double sumFinal = 0;
-                    double minFinal = Double.MAX_VALUE;
-                    double maxFinal = Double.MIN_VALUE;
-                    int countFinal = 0;
-                    int pass = 0;
-
-                    for (RosterRow r : roster) {
-                        Vector<Object> row = new Vector<>();
-                        row.add(r.enrollmentId());
-                        row.add(r.studentId());
-                        row.add(r.rollNo());
-                        row.add(r.studentName() == null ? "" : r.studentName());
-                        row.add(r.quiz());
-                        row.add(r.midterm());
-                        row.add(r.endsem());
-                        row.add(r.finalScore());
-                        gradeModel.addRow(row);
-
-                        if (r.finalScore() != null) {
-                            sumFinal += r.finalScore();
-                            minFinal = Math.min(minFinal, r.finalScore());
-                            maxFinal = Math.max(maxFinal, r.finalScore());
-                            countFinal++;
-                            if (r.finalScore() >= 50.0) pass++;
-                        }
-                    }
-
-                    if (countFinal > 0) {
-                        totalStudents = countFinal;
-                        avgScore = sumFinal / countFinal;
-                        maxScore = maxFinal;
-                        minScore = minFinal;
-                        passRate = pass * 100.0 / countFinal;
-
-                        currentStatsText = String.format(
-                                "Class Performance Summary:\n\n" +
-                                        "Total Graded Students: %d\n" +
-                                        "Average Score: %.2f\n" +
-                                        "Highest Score: %.2f\n" +
-                                        "Lowest Score: %.2f\n" +
-                                        "Pass Rate: %.1f%% (Score >= 50.0)",
-                                totalStudents, avgScore, maxScore, minScore, passRate
-                        );
-                    } else {
-                        totalStudents = 0;
-                        avgScore = 0.0;
-                        maxScore = 0.0;
-                        minScore = 0.0;
-                        passRate = 0.0;
-                        currentStatsText = "No final grades computed yet.";
-                    }
-
-                    updateStatCards();
-
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showModernDialog("Error loading roster: " + ex.getMessage(),
-                            "Database Error", JOptionPane.ERROR_MESSAGE);
-                }
+            if (countFinal > 0) {
+                totalStudents = countFinal;
+                avgScore = sumFinal / countFinal;
+                maxScore = maxFinal;
+                minScore = minFinal;
+                passRate = pass * 100.0 / countFinal;
+
+                currentStatsText = String.format(
+                        "Class Performance Summary:\n\n" +
+                                "Total Graded Students: %d\n" +
+                                "Average Score: %.2f\n" +
+                                "Highest Score: %.2f\n" +
+                                "Lowest Score: %.2f\n" +
+                                "Pass Rate: %.1f%% (Score >= 50.0)",
+                        totalStudents, avgScore, maxScore, minScore, passRate
+                );
+            } else {
+                totalStudents = 0;
+                avgScore = 0.0;
+                maxScore = 0.0;
+                minScore = 0.0;
+                passRate = 0.0;
+                currentStatsText = "No final grades computed yet.";
             }
-        }.execute();
+
+            updateStatCards();
+        });
     }
 
     private void computeFinalAndUpdateTable() {
@@ -914,9 +886,9 @@ public class InstructorDashboard extends JFrame {
         }
 
         for (int r = 0; r < gradeModel.getRowCount(); r++) {
-            Double q = toDouble(gradeModel.getValueAt(r, 4));
-            Double m = toDouble(gradeModel.getValueAt(r, 5));
-            Double e = toDouble(gradeModel.getValueAt(r, 6));
+            Double q = GradeTableModel.toDouble(gradeModel.getValueAt(r, 4));
+            Double m = GradeTableModel.toDouble(gradeModel.getValueAt(r, 5));
+            Double e = GradeTableModel.toDouble(gradeModel.getValueAt(r, 6));
 
             double finalScore = Math.round(((q == null ? 0.0 : q) * W_QUIZ
                     + (m == null ? 0.0 : m) * W_MID
@@ -928,18 +900,6 @@ public class InstructorDashboard extends JFrame {
         SwingUtilities.invokeLater(this::recalculateStatsFromTable);
     }
 
-    private static Double toDouble(Object o) {
-        if (o == null) return null;
-        if (o instanceof Number) return ((Number) o).doubleValue();
-        try {
-            String s = o.toString().trim();
-            if (s.isEmpty()) return null;
-            return Double.parseDouble(s);
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
     private void recalculateStatsFromTable() {
         double sum = 0;
         double min = Double.MAX_VALUE;
@@ -948,7 +908,7 @@ public class InstructorDashboard extends JFrame {
         int pass = 0;
 
         for (int r = 0; r < gradeModel.getRowCount(); r++) {
-            Double f = toDouble(gradeModel.getValueAt(r, 7));
+            Double f = GradeTableModel.toDouble(gradeModel.getValueAt(r, 7));
             if (f != null) {
                 sum += f;
                 min = Math.min(min, f);
@@ -995,46 +955,76 @@ public class InstructorDashboard extends JFrame {
             return;
         }
 
-        List<GradeRow> toSave = new ArrayList<>();
-        for (int r = 0; r < gradeModel.getRowCount(); r++) {
-            String enrollmentId = (String) gradeModel.getValueAt(r, 0);
-            Double quiz = toDouble(gradeModel.getValueAt(r, 4));
-            Double mid = toDouble(gradeModel.getValueAt(r, 5));
-            Double end = toDouble(gradeModel.getValueAt(r, 6));
-            Double finalScore = toDouble(gradeModel.getValueAt(r, 7));
-
-            if (quiz != null)
-                toSave.add(new GradeRow(enrollmentId, "QUIZ", quiz, (int)Math.round(W_QUIZ*100)));
-            if (mid != null)
-                toSave.add(new GradeRow(enrollmentId, "MIDTERM", mid, (int)Math.round(W_MID*100)));
-            if (end != null)
-                toSave.add(new GradeRow(enrollmentId, "ENDSEM", end, (int)Math.round(W_END*100)));
-            if (finalScore != null)
-                toSave.add(new GradeRow(enrollmentId, "FINAL", finalScore, 100));
+        if (tblGrades.isEditing()) tblGrades.getCellEditor().stopCellEditing();
+        List<GradeChange> changes = gradeModel.changes();
+        if (changes.isEmpty()) {
+            showModernDialog("No changes to save.", "Nothing to Save", JOptionPane.INFORMATION_MESSAGE);
+            return;
         }
 
-        new SwingWorker<Void, Void>() {
-            @Override
-            protected Void doInBackground() throws Exception {
-                service.saveGradesBatch(toSave);
-                return null;
+        calls.write(s -> s.saveGradeChanges(changes), sr -> {
+            if (!sr.isSuccess()) {
+                showModernDialog(sr.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            SaveReport report = sr.getData();
+            gradeModel.markSaved(report.saved());
+            recalculateStatsFromTable();
+            if (report.conflicts().isEmpty()) {
+                showModernDialog("Grades have been saved successfully (" + report.saved().size() + " change(s)).",
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                // conflicting cells stay marked as changed; reloading shows the other edit
+                showModernDialog(sr.getMessage() + "\n\nSomeone else changed " + report.conflicts().size() +
+                                " of these grade(s) after you loaded the roster. Load the roster again to see " +
+                                "their values, then re-apply your edits.",
+                        "Save Conflict", JOptionPane.WARNING_MESSAGE);
             }
+        });
+    }
+    //CSV Import
 
-            @Override
-            protected void done() {
-                try {
-                    get();
-                    showModernDialog("Grades have been saved successfully.",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                    recalculateStatsFromTable();
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showModernDialog("Error saving grades: " + ex.getMessage(),
-                            "Database Error", JOptionPane.ERROR_MESSAGE);
+    private void importGradesCSV() {
+        if (currentSectionId == null) return;
+        if (maintenanceOn) {
+            showModernDialog("System is in maintenance mode. Cannot import grades.",
+                    "Maintenance Mode", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import grades CSV (roll_no, quiz, midterm, endsem)");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        String sectionId = currentSectionId;
+
+        calls.write(s -> s.importGradesCsv(instructorUserId, sectionId, file), sr -> {
+            if (!sr.isSuccess()) {
+                showModernDialog(sr.getMessage(), "Import Failed", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            GradeImporter.Report report = sr.getData();
+            StringBuilder msg = new StringBuilder(sr.getMessage());
+            if (!report.errors().isEmpty()) {
+                msg.append("\n\n").append(report.errors().size()).append(" row(s) skipped:");
+                int shown = 0;
+                for (GradeImporter.RowError err : report.errors()) {
+                    if (shown++ == 15) {
+                        msg.append("\n...");
+                        break;
+                    }
+                    msg.append("\nLine ").append(err.line()).append(" (").append(err.rollNo()).append("): ").append(err.message());
                 }
             }
-        }.execute();
+            showModernDialog(msg.toString(), "Import Complete",
+                    report.errors().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+            if (report.scores() > 0 && sectionId.equals(currentSectionId) && !gradeModel.hasChanges()) {
+                loadRosterForSection(sectionId);
+            }
+        });
     }
+
     //CSV Export
 
     private void exportGradesCSV() {
@@ -1063,32 +1053,16 @@ public class InstructorDashboard extends JFrame {
         String path = chooser.getSelectedFile().getAbsolutePath();
         if (!path.toLowerCase().endsWith(".csv")) path += ".csv";
 
-        java.util.function.Function<String,String> esc = s -> {
-            if (s == null) return "";
-            String st = s;
-            if (st.contains("\"") || st.contains(",") || st.contains("\n") || st.contains("\r")) {
-                st = st.replace("\"", "\"\"");
-                return "\"" + st + "\"";
-            } else return st;
-        };
-
-        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
-            for (int c = 0; c < gradeModel.getColumnCount(); c++) {
-                pw.print(esc.apply(gradeModel.getColumnName(c)));
-                if (c < gradeModel.getColumnCount() - 1) pw.print(",");
-            }
-            pw.println();
+        // exports what the table shows, including edits not saved yet
+        try (CsvWriter csv = new CsvWriter(Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8))) {
+            Object[] cells = new Object[gradeModel.getColumnCount()];
+            for (int c = 0; c < cells.length; c++) cells[c] = gradeModel.getColumnName(c);
+            csv.writeRow(cells);
 
             for (int r = 0; r < gradeModel.getRowCount(); r++) {
-                for (int c = 0; c < gradeModel.getColumnCount(); c++) {
-                    Object vobj = gradeModel.getValueAt(r, c);
-                    String cell = vobj == null ? "" : vobj.toString();
-                    pw.print(esc.apply(cell));
-                    if (c < gradeModel.getColumnCount() - 1) pw.print(",");
-                }
-                pw.println();
+                for (int c = 0; c < cells.length; c++) cells[c] = gradeModel.getValueAt(r, c);
+                csv.writeRow(cells);
             }
-            pw.flush();
             showModernDialog("CSV exported successfully to:\n" + path,
                     "Export Complete", JOptionPane.INFORMATION_MESSAGE);
         } catch (Exception ex) {
@@ -1102,6 +1076,7 @@ public class InstructorDashboard extends JFrame {
     public void dispose() {
         if (maintenancePollTimer != null && maintenancePollTimer.isRunning())
             maintenancePollTimer.stop();
+        session.close();
         super.dispose();
     }
 
@@ -1237,6 +1212,10 @@ public class InstructorDashboard extends JFrame {
             if (isSelected) {
                 c.setBackground(SELECTION_COLOR);
                 c.setForeground(TEXT_PRIMARY);
+            } else if (table.getModel() instanceof GradeTableModel m
+                    && m.isDirty(table.convertRowIndexToModel(row), table.convertColumnIndexToModel(column))) {
+                c.setBackground(DIRTY_COLOR);
+                c.setForeground(TEXT_PRIMARY);
             } else {
                 c.setBackground(row % 2 == 0 ? CARD_BG : new Color(249, 250, 251));
                 c.setForeground(TEXT_PRIMARY);
@@ -1,6 +1,10 @@
 package edu.univ.erp.ui;
-import edu.univ.erp.data.DBConfig;
-import edu.univ.erp.auth.HashUtil;
+import edu.univ.erp.data.CatalogIndex;
+import edu.univ.erp.data.SchemaUpgrades;
+import edu.univ.erp.service.SessionContext;
+import edu.univ.erp.auth.AuthService;
+import edu.univ.erp.domain.Auth;
+import edu.univ.erp.auth.BcryptCost;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -11,9 +15,7 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.InputStream;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class MainApp {
 
@@ -22,11 +24,21 @@ public class MainApp {
     private static final Color ACCENT = new Color(0, 180, 180);
     private static final Color ACCENT_HOVER = new Color(0, 150, 150);
     private static BufferedImage heroOriginal = null;
+    private static final AtomicBoolean started = new AtomicBoolean(false);
 
+    // also called on the EDT when a dashboard logs out; only the first call (the real launch) does the startup work
     public static void main(String[] args) {
+        if (started.compareAndSet(false, true)) startUp();
+        SwingUtilities.invokeLater(MainApp::createAndShowGUI);
+    }
+
+    // runs once on the launching thread, before any window exists
+    private static void startUp() {
         try { UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName()); } catch (Exception ignored) {}
         heroOriginal = loadHeroOriginal();
-        SwingUtilities.invokeLater(MainApp::createAndShowGUI);
+        SchemaUpgrades.ensureApplied();
+        BcryptCost.ensureCalibrated();
+        Thread.ofVirtual().name("catalog-warmup").start(CatalogIndex::warmUp);
     }
 
     private static void createAndShowGUI() {
@@ -97,70 +109,50 @@ public class MainApp {
 
         DocumentChangeListener.watch(userText, passwordText, enabled -> loginButton.setEnabled(enabled));
 
+        AuthService authService = new AuthService();
         loginButton.addActionListener((ActionEvent e) -> {
             String username = userText.getText().trim();
             String password = new String(passwordText.getPassword());
 
-            String sql = "SELECT user_id, username, role, password_hash FROM users_auth WHERE username = ?";
-            try (Connection conn = DBConfig.getAuthConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-                stmt.setString(1, username);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (!rs.next()) {
-                        JOptionPane.showMessageDialog(frame, "Invalid username!", "Login Failed", JOptionPane.ERROR_MESSAGE);
-                        return;
-                    }
+            // the lookup and bcrypt check run off the EDT; the button shows where we are meanwhile
+            loginButton.setEnabled(false);
+            loginButton.setText("Signing in...");
+            authService.login(username, password, stage -> SwingUtilities.invokeLater(() -> loginButton.setText(switch (stage) {
+                case LOOKUP -> "Signing in...";
+                case VERIFY -> "Verifying...";
+                case FINISH -> "Opening dashboard...";
+            }))).thenAcceptAsync(result -> {
+                loginButton.setText("Login");
+                loginButton.setEnabled(!userText.getText().trim().isEmpty() && passwordText.getPassword().length > 0);
+
+                if (!result.isSuccess()) {
+                    String heading = result.outcome() == Auth.Outcome.ERROR ? "Error" : "Login Failed";
+                    JOptionPane.showMessageDialog(frame, result.message(), heading, JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
 
-                    String userId = rs.getString("user_id");
-                    String storedHash = rs.getString("password_hash");
-                    String role = rs.getString("role");
+                JOptionPane.showMessageDialog(frame, result.message(), "Success", JOptionPane.INFORMATION_MESSAGE);
 
-                    if (!HashUtil.checkPassword(password, storedHash)) {
-                        JOptionPane.showMessageDialog(frame, "Incorrect password!", "Login Failed", JOptionPane.ERROR_MESSAGE);
-                        return;
+                SessionContext session = new SessionContext(result.session());
+                switch (result.session().role()) {
+                    case INSTRUCTOR -> {
+                        InstructorDashboard dash = new InstructorDashboard(session);
+                        dash.setVisible(true);
                     }
-
-                    try (PreparedStatement updateStmt = conn.prepareStatement("UPDATE users_auth SET last_login = ? WHERE user_id = ?")) {
-                        updateStmt.setLong(1, System.currentTimeMillis());
-                        updateStmt.setString(2, userId);
-                        updateStmt.executeUpdate();
-                    } catch (Exception uex) {
-                        uex.printStackTrace();
+                    case STUDENT -> {
+                        StudentDashboard sd = new StudentDashboard(session);
+                        sd.setVisible(true);
+                    }
+                    case ADMIN -> {
+                        AdminDashboard adminDash = new AdminDashboard(session);
+                        adminDash.setVisible(true);
                     }
-
-                    JOptionPane.showMessageDialog(frame, "Login Successful! Redirecting...", "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                    final String rid = role == null ? "" : role.toUpperCase();
-                    final String uid = userId;
-                    final String uname = username;
-
-                    SwingUtilities.invokeLater(() -> {
-                        switch (rid) {
-                            case "INSTRUCTOR" -> {
-                                InstructorDashboard dash = new InstructorDashboard(uid, uname);
-                                dash.setVisible(true);
-                            }
-                            case "STUDENT" -> {
-                                StudentDashboard sd = new StudentDashboard(uid, uname);
-                                sd.setVisible(true);
-                            }
-                            case "ADMIN" -> {
-                                AdminDashboard adminDash = new AdminDashboard(uid, uname);
-                                adminDash.setVisible(true);
-                            }
-                            default -> JOptionPane.showMessageDialog(null, "Unknown role: " + rid);
-                        }
-                        frame.dispose();
-                    });
                 }
-
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(frame, "Database error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
+                frame.dispose();
+            }, SwingUtilities::invokeLater);
         });
 
+        BlurredBackground background = new BlurredBackground(heroOriginal, 14, bgLabel); // blur radius 14
         frame.addComponentListener(new ComponentAdapter() {
             @Override
             public void componentResized(ComponentEvent e) {
@@ -174,9 +166,7 @@ public class MainApp {
                 int gy = Math.max(40, (fh - glass.getHeight()) / 2);
                 glass.setLocation(gx, gy);
 
-                BufferedImage cover = makeBlurredCover(heroOriginal, fw, fh, 14); // blur radius 14
-                if (cover != null) bgLabel.setIcon(new ImageIcon(cover));
-                else bgLabel.setIcon(null);
+                background.resized(fw, fh);
             }
         });
 
@@ -189,8 +179,7 @@ public class MainApp {
             int gy = Math.max(40, (fh - glass.getHeight()) / 2);
             glass.setLocation(gx, gy);
 
-            BufferedImage cover = makeBlurredCover(heroOriginal, fw, fh, 14);
-            if (cover != null) bgLabel.setIcon(new ImageIcon(cover));
+            background.render(fw, fh);
         });
 
         frame.setVisible(true);
@@ -221,121 +210,6 @@ public class MainApp {
         return null;
     }
 
-    private static BufferedImage makeBlurredCover(BufferedImage src, int targetW, int targetH, int blurRadius) {
-        if (src == null || targetW <= 0 || targetH <= 0) return null;
-
-        double scaleX = (double) targetW / src.getWidth();
-        double scaleY = (double) targetH / src.getHeight();
-        double scale = Math.max(scaleX, scaleY); // cover
-
-        int scaledW = (int) Math.round(src.getWidth() * scale);
-        int scaledH = (int) Math.round(src.getHeight() * scale);
-
-        Image tmp = src.getScaledInstance(scaledW, scaledH, Image.SCALE_SMOOTH);
-        BufferedImage scaled = new BufferedImage(scaledW, scaledH, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = scaled.createGraphics();
-        g.drawImage(tmp, 0, 0, null);
-        g.dispose();
-
-        int x = (scaledW - targetW) / 2;
-        int y = (scaledH - targetH) / 2;
-        BufferedImage cropped = scaled.getSubimage(x, y, targetW, targetH);
-
-        BufferedImage blurred = applyGaussianBlur(cropped, blurRadius);
-
-        return applyTintAndDesaturate(blurred, 0.20f, new Color(0, 0, 0, 110));
-    }
-
-
-    private static BufferedImage applyGaussianBlur(BufferedImage img, int radius) {
-        if (radius < 1) return img;
-        int w = img.getWidth();
-        int h = img.getHeight();
-        int[] inPixels = img.getRGB(0, 0, w, h, null, 0, w);
-        int[] temp = new int[inPixels.length];
-        int[] outPixels = new int[inPixels.length];
-
-        int kernelSize = radius * 2 + 1;
-
-        for (int y = 0; y < h; y++) {
-            int yw = y * w;
-            for (int x = 0; x < w; x++) {
-                long r = 0, g = 0, b = 0;
-                for (int k = -radius; k <= radius; k++) {
-                    int px = x + k;
-                    if (px < 0) px = 0;
-                    else if (px >= w) px = w - 1;
-                    int rgb = inPixels[yw + px];
-                    r += (rgb >> 16) & 0xFF;
-                    g += (rgb >> 8) & 0xFF;
-                    b += rgb & 0xFF;
-                }
-                int rr = (int) (r / kernelSize);
-                int gg = (int) (g / kernelSize);
-                int bb = (int) (b / kernelSize);
-                temp[yw + x] = (0xFF << 24) | (rr << 16) | (gg << 8) | bb;
-            }
-        }
-
-        for (int x = 0; x < w; x++) {
-            for (int y = 0; y < h; y++) {
-                long r = 0, g = 0, b = 0;
-                for (int k = -radius; k <= radius; k++) {
-                    int py = y + k;
-                    if (py < 0) py = 0;
-                    else if (py >= h) py = h - 1;
-                    int rgb = temp[py * w + x];
-                    r += (rgb >> 16) & 0xFF;
-                    g += (rgb >> 8) & 0xFF;
-                    b += rgb & 0xFF;
-                }
-                int rr = (int) (r / kernelSize);
-                int gg = (int) (g / kernelSize);
-                int bb = (int) (b / kernelSize);
-                outPixels[y * w + x] = (0xFF << 24) | (rr << 16) | (gg << 8) | bb;
-            }
-        }
-
-        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
-        out.setRGB(0, 0, w, h, outPixels, 0, w);
-        return out;
-    }
-
-
-    private static BufferedImage applyTintAndDesaturate(BufferedImage src, float desaturateAmount, Color overlay) {
-        if (src == null) return null;
-        int w = src.getWidth(), h = src.getHeight();
-        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
-        Graphics2D g = out.createGraphics();
-        g.drawImage(src, 0, 0, null);
-
-        // simple desaturation per-pixel (cheap)
-        if (desaturateAmount > 0f) {
-            int[] pixels = out.getRGB(0, 0, w, h, null, 0, w);
-            for (int i = 0; i < pixels.length; i++) {
-                int argb = pixels[i];
-                int r = (argb >> 16) & 0xFF;
-                int gcol = (argb >> 8) & 0xFF;
-                int b = argb & 0xFF;
-                // luminance
-                int lum = (int)(0.2126*r + 0.7152*gcol + 0.0722*b);
-                int nr = (int)(r*(1-desaturateAmount) + lum*desaturateAmount);
-                int ng = (int)(gcol*(1-desaturateAmount) + lum*desaturateAmount);
-                int nb = (int)(b*(1-desaturateAmount) + lum*desaturateAmount);
-                pixels[i] = (0xFF<<24) | (nr<<16) | (ng<<8) | nb;
-            }
-            out.setRGB(0,0,w,h,pixels,0,w);
-        }
-
-        if (overlay != null) {
-            g.setColor(overlay);
-            g.fillRect(0, 0, w, h);
-        }
-        g.dispose();
-        return out;
-    }
-
-
     static class RoundedPanel extends JPanel {
         private final int radius;
         private final Color bg;
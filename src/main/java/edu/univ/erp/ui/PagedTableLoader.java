@@ -0,0 +1,98 @@
+package edu.univ.erp.ui;
+
+import edu.univ.erp.domain.Page;
+
+import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// fills a table one keyset page at a time: the first page on reload(), the next whenever the user scrolls near
+// the bottom. only the rows the user has actually scrolled past are ever fetched. all methods run on the EDT.
+final class PagedTableLoader<T> {
+
+    static final int PAGE_SIZE = Integer.getInteger("erp.ui.pageSize", 200);
+
+    // starts fetching the page after the given row (null = first page); hands it to the sink on the EDT
+    @FunctionalInterface
+    interface Fetch<T> {
+        CompletableFuture<Void> page(T after, Consumer<Page<T>> sink);
+    }
+
+    private final JScrollPane scroll;
+    private final Fetch<T> fetch;
+    private final Runnable clear;
+    private final Consumer<T> addRow;
+    private JLabel status;
+
+    private int generation = 0;
+    private boolean loading = false;
+    private boolean hasMore = false;
+    private T last;
+    private int loaded = 0;
+    private long estimatedTotal = -1;
+
+    PagedTableLoader(JScrollPane scroll, Fetch<T> fetch, Runnable clear, Consumer<T> addRow) {
+        this.scroll = scroll;
+        this.fetch = fetch;
+        this.clear = clear;
+        this.addRow = addRow;
+        scroll.getVerticalScrollBar().addAdjustmentListener(e -> maybeLoadMore());
+    }
+
+    // "Showing 200 of ~12,400" under the table
+    PagedTableLoader<T> withStatus(JLabel label) {
+        this.status = label;
+        return this;
+    }
+
+    // drops the loaded rows and fetches the first page again; the future is that page's load
+    CompletableFuture<Void> reload() {
+        int gen = ++generation;
+        last = null;
+        hasMore = false;
+        loaded = 0;
+        estimatedTotal = -1;
+        return load(gen, null);
+    }
+
+    private void maybeLoadMore() {
+        if (loading || !hasMore) return;
+        JScrollBar bar = scroll.getVerticalScrollBar();
+        // within one screen of the end (or the rows don't fill the viewport yet)
+        if (bar.getValue() + 2 * bar.getVisibleAmount() >= bar.getMaximum()) {
+            load(generation, last);
+        }
+    }
+
+    private CompletableFuture<Void> load(int gen, T after) {
+        loading = true;
+        CompletableFuture<Void> f = fetch.page(after, page -> {
+            if (gen != generation) return; // a reload started meanwhile
+            if (after == null) {
+                clear.run();
+                estimatedTotal = page.estimatedTotal();
+            }
+            for (T row : page.items()) addRow.accept(row);
+            loaded += page.items().size();
+            hasMore = page.hasMore();
+            if (page.last() != null) last = page.last();
+            loading = false;
+            updateStatus();
+            // the new rows may still not fill the viewport
+            SwingUtilities.invokeLater(this::maybeLoadMore);
+        });
+        f.whenComplete((v, ex) -> {
+            if (ex != null) SwingUtilities.invokeLater(() -> {
+                if (gen == generation) loading = false;
+            });
+        });
+        return f;
+    }
+
+    private void updateStatus() {
+        if (status == null) return;
+        if (!hasMore) status.setText(loaded + " row(s)");
+        else if (estimatedTotal > loaded) status.setText(String.format("Showing %,d of ~%,d", loaded, estimatedTotal));
+        else status.setText(String.format("Showing %,d (scroll for more)", loaded));
+    }
+}
@@ -0,0 +1,83 @@
+package edu.univ.erp.ui;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// starts independent panel loads together and times each one. every load renders its own panel as soon as
+// its data arrives, so the whole refresh takes about as long as the slowest query.
+final class RefreshOrchestrator {
+
+    // -Derp.ui.refresh.log=true prints each report to stdout; the dashboards show them in the UI either way
+    private static final boolean LOG = Boolean.getBoolean("erp.ui.refresh.log");
+
+    record PanelTiming(
+            String panel,
+            long millis,
+            boolean ok
+    ) {}
+
+    record Report(
+            long totalMillis,
+            List<PanelTiming> panels
+    ) {
+        PanelTiming slowest() {
+            return panels.stream().max(Comparator.comparingLong(PanelTiming::millis)).orElse(null);
+        }
+
+        boolean allOk() {
+            return panels.stream().allMatch(PanelTiming::ok);
+        }
+
+        String summary() {
+            StringBuilder sb = new StringBuilder("total " + totalMillis + " ms");
+            for (PanelTiming t : panels) {
+                sb.append(", ").append(t.panel()).append(' ').append(t.millis()).append(" ms");
+                if (!t.ok()) sb.append(" (failed)");
+            }
+            return sb.toString();
+        }
+    }
+
+    private record Load(String panel, Supplier<CompletableFuture<?>> start) {}
+
+    private final String name;
+    private final List<Load> loads = new ArrayList<>();
+
+    RefreshOrchestrator(String name) {
+        this.name = name;
+    }
+
+    // start must kick off the load and return a future that completes once the panel is rendered
+    RefreshOrchestrator add(String panel, Supplier<CompletableFuture<?>> start) {
+        loads.add(new Load(panel, start));
+        return this;
+    }
+
+    // never completes exceptionally; failed panels are marked in the report instead
+    CompletableFuture<Report> run() {
+        long begin = System.nanoTime();
+        List<CompletableFuture<PanelTiming>> timings = new ArrayList<>();
+        for (Load load : loads) {
+            long started = System.nanoTime();
+            CompletableFuture<?> future;
+            try {
+                future = load.start().get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            timings.add(future.handle((result, ex) ->
+                    new PanelTiming(load.panel(), (System.nanoTime() - started) / 1_000_000, ex == null)));
+        }
+
+        return CompletableFuture.allOf(timings.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<PanelTiming> panels = new ArrayList<>();
+            for (CompletableFuture<PanelTiming> t : timings) panels.add(t.join());
+            Report report = new Report((System.nanoTime() - begin) / 1_000_000, panels);
+            if (LOG) System.out.println(name + " refresh: " + report.summary());
+            return report;
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package edu.univ.erp.ui;
+
+import edu.univ.erp.service.AsyncService;
+
+import javax.swing.*;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+// how the dashboards call their service: the op runs off the EDT through AsyncService and its result is handed back
+// on the EDT; a failure is shown to the user and leaves the returned future failed, so callers (e.g. the refresh
+// orchestrator) can tell. reads give up after AsyncService.DEFAULT_TIMEOUT. writes never time out, because cutting
+// one off interrupts a transaction that may already have committed.
+final class ServiceCalls<S> {
+
+    static final Executor EDT = SwingUtilities::invokeLater;
+
+    private final AsyncService<S> async;
+    private final Consumer<String> showError;
+
+    ServiceCalls(AsyncService<S> async, Consumer<String> showError) {
+        this.async = async;
+        this.showError = showError;
+    }
+
+    <T> CompletableFuture<Void> read(AsyncService.Call<S, T> op, Consumer<T> onResult) {
+        return read(op, AsyncService.DEFAULT_TIMEOUT, onResult);
+    }
+
+    // timeout null for long reads such as exports
+    <T> CompletableFuture<Void> read(AsyncService.Call<S, T> op, Duration timeout, Consumer<T> onResult) {
+        return handle(async.call(op, timeout), onResult);
+    }
+
+    <T> CompletableFuture<Void> write(AsyncService.Call<S, T> op, Consumer<T> onResult) {
+        return handle(async.call(op, null), onResult);
+    }
+
+    // EDT only
+    void showFailure(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        cause.printStackTrace();
+        showError.accept(cause instanceof TimeoutException
+                ? "The server took too long to respond. Please try again."
+                : "Database error: " + cause.getMessage());
+    }
+
+    private <T> CompletableFuture<Void> handle(CompletableFuture<T> call, Consumer<T> onResult) {
+        return call.handleAsync((result, ex) -> {
+            if (ex != null) {
+                showFailure(ex);
+                throw ex instanceof CompletionException ce ? ce : new CompletionException(ex);
+            }
+            onResult.accept(result);
+            return null;
+        }, EDT);
+    }
+}
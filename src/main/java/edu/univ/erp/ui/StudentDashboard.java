@@ -1,4 +1,6 @@
 package edu.univ.erp.ui;
+import edu.univ.erp.service.AsyncService;
+import edu.univ.erp.service.SessionContext;
 import edu.univ.erp.service.StudentService;
 import edu.univ.erp.service.StudentService.*;
 import edu.univ.erp.domain.ServiceResult;
@@ -8,7 +10,7 @@ import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableRowSorter;
 import java.awt.*;
-import java.io.FileWriter;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -27,6 +29,7 @@ import java.util.HashMap;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 public class StudentDashboard extends JFrame {
 
     private static final Color TEAL_COLOR = new Color(0, 180, 180);           // RGB(0, 180, 180)
@@ -40,25 +43,38 @@ public class StudentDashboard extends JFrame {
 
     private final String userId;
     private final String username;
+    private final SessionContext session;
     private final StudentService studentService;
+    private final AsyncService<StudentService> async;
+    private final ServiceCalls<StudentService> calls;
     private JTable enrollTable;
     private DefaultTableModel enrollModel;
     private JLabel maintenanceBanner;
     private DefaultTableModel catalogModel;
+    private PagedTableLoader<CourseCatalogView> catalogPages;
+    private String catalogKeyword;
+    private String catalogSemester;
     private DefaultTableModel timetableModel;
     private DefaultTableModel gradesModel;
     private JTabbedPane mainTabbedPane;
 
 
     public StudentDashboard(String userId, String username) {
-        super("Student Dashboard - " + username);
-        this.userId = userId;
-        this.username = username;
+        this(SessionContext.of(userId, username, "STUDENT"));
+    }
+
+    public StudentDashboard(SessionContext session) {
+        super("Student Dashboard - " + session.username());
+        this.session = session;
+        this.userId = session.userId();
+        this.username = session.username();
         this.studentService = new StudentService();
+        this.async = new AsyncService<>(studentService);
+        this.calls = new ServiceCalls<>(async,
+                message -> JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE));
 
         initUI();
-        checkMaintenanceMode();
-        loadEnrollments();
+        refreshPlan().run();
     }
 
     private void initUI() {
@@ -338,6 +354,11 @@ public class StudentDashboard extends JFrame {
         headerLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
 
         panel.add(headerLabel, BorderLayout.NORTH);  // Add this line
+        calls.read(s -> session.profile(), profile -> {
+            if (profile.rollNo() == null) return;
+            headerLabel.setText("Welcome, " + username + " !  (" + profile.rollNo()
+                    + (profile.program() == null ? "" : ", " + profile.program()) + ")");
+        });
 
         enrollModel = new DefaultTableModel() {
             @Override
@@ -375,21 +396,22 @@ public class StudentDashboard extends JFrame {
         return panel;
     }
 
-    private void loadEnrollments() {
-        enrollModel.setRowCount(0);
-        List<EnrollmentView> enrollments = studentService.getStudentEnrollments(userId);
-        for (EnrollmentView enrollment : enrollments) {
-            Vector<Object> row = new Vector<>();
-            row.add(enrollment.sectionId());
-            row.add(enrollment.courseCode());
-            row.add(enrollment.courseName());
-            row.add(enrollment.credits());
-            row.add(enrollment.instructorId());
-            row.add(enrollment.semester());
-            row.add(enrollment.room());
-            row.add(enrollment.status());
-            enrollModel.addRow(row);
-        }
+    private CompletableFuture<Void> loadEnrollments() {
+        return calls.read(s -> s.getStudentEnrollments(userId), enrollments -> {
+            enrollModel.setRowCount(0);
+            for (EnrollmentView enrollment : enrollments) {
+                Vector<Object> row = new Vector<>();
+                row.add(enrollment.sectionId());
+                row.add(enrollment.courseCode());
+                row.add(enrollment.courseName());
+                row.add(enrollment.credits());
+                row.add(enrollment.instructorId());
+                row.add(enrollment.semester());
+                row.add(enrollment.room());
+                row.add(enrollment.status());
+                enrollModel.addRow(row);
+            }
+        });
     }
     //COURSE CATALOG
     private JPanel createCourseCatalogPanel() {
@@ -465,6 +487,18 @@ public class StudentDashboard extends JFrame {
             scroll.getViewport().setBackground(Color.WHITE);
             scroll.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
             scroll.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+            catalogPages = new PagedTableLoader<CourseCatalogView>(scroll,
+                    (after, sink) -> {
+                        String keyword = catalogKeyword;
+                        String semester = catalogSemester;
+                        return calls.read(s -> s.getCourseCatalogPage(keyword, semester, after, PagedTableLoader.PAGE_SIZE), sink);
+                    },
+                    () -> catalogModel.setRowCount(0),
+                    section -> catalogModel.addRow(new Object[]{
+                            section.sectionId(), section.courseCode(), section.courseName(), section.credits(),
+                            section.instructorId(), section.semester(), section.room(),
+                            section.capacity(), section.enrolled(), section.available()})
+            );
 
             JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 10));
             buttonPanel.setBackground(Color.WHITE);
@@ -511,23 +545,11 @@ public class StudentDashboard extends JFrame {
             return panel;
     }
 
-    private void loadCourseCatalog(DefaultTableModel model, String keyword, String semester) {
-        model.setRowCount(0);
-        List<CourseCatalogView> sections = studentService.getCourseCatalog(keyword, semester);
-        for (CourseCatalogView section : sections) {
-            Vector<Object> row = new Vector<>();
-            row.add(section.sectionId());
-            row.add(section.courseCode());
-            row.add(section.courseName());
-            row.add(section.credits());
-            row.add(section.instructorId());
-            row.add(section.semester());
-            row.add(section.room());
-            row.add(section.capacity());
-            row.add(section.enrolled());
-            row.add(section.available());
-            model.addRow(row);
-        }
+    // model is always catalogModel; rows arrive page by page as the table is scrolled
+    private CompletableFuture<Void> loadCourseCatalog(DefaultTableModel model, String keyword, String semester) {
+        catalogKeyword = keyword;
+        catalogSemester = semester;
+        return catalogPages.reload();
     }
 
     private void viewSectionDetails(JTable table, DefaultTableModel model) {
@@ -623,7 +645,8 @@ public class StudentDashboard extends JFrame {
         headerLabel.setForeground(TEAL_COLOR);
         headerLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 15, 0));
 
-        JPanel calendarPanel = createCalendarTimetable();
+        // filled in by refreshTimetable() once the data arrives
+        JPanel calendarPanel = createCalendarTimetable(List.of());
         JPanel contentWrapper = new JPanel(new BorderLayout(0, 0));
         contentWrapper.setBackground(Color.WHITE);
         contentWrapper.add(headerLabel, BorderLayout.NORTH);
@@ -642,7 +665,7 @@ public class StudentDashboard extends JFrame {
 
         return panel;
     }
-    private JPanel createCalendarTimetable() {
+    private JPanel createCalendarTimetable(List<TimetableView> timetable) {
         JPanel calendarPanel = new JPanel(new BorderLayout(10, 10));
         calendarPanel.setBackground(Color.WHITE);
 
@@ -682,8 +705,6 @@ public class StudentDashboard extends JFrame {
             gridPanel.add(dayLabel, gbc);
         }
 
-        List<TimetableView> timetable = studentService.getStudentTimetable(userId);
-
         Map<String, List<TimetableView>> scheduleMap = new HashMap<>();
         for (TimetableView entry : timetable) {
             scheduleMap.putIfAbsent(entry.day(), new ArrayList<>());
@@ -711,7 +732,7 @@ public class StudentDashboard extends JFrame {
                 gbc.gridheight = 1;
 
                 String day = days[col];
-                String currentTimeSlot = timeSlots[row];
+                int slotStart = 8 * 60 + row * 30;
                 String cellKey = day + "-" + row;
 
                 if (occupiedCells.contains(cellKey)) {
@@ -721,8 +742,7 @@ public class StudentDashboard extends JFrame {
                 List<TimetableView> classesAtThisTime = new ArrayList<>();
                 if (scheduleMap.containsKey(day)) {
                     for (TimetableView entry : scheduleMap.get(day)) {
-                        String classStartTime = entry.time().substring(0, 5); // Get HH:MM
-                        if (classStartTime.equals(currentTimeSlot)) {
+                        if (entry.startMinute() >= slotStart && entry.startMinute() < slotStart + 30) {
                             classesAtThisTime.add(entry);
                         }
                     }
@@ -735,21 +755,8 @@ public class StudentDashboard extends JFrame {
                 if (!classesAtThisTime.isEmpty()) {
                     TimetableView firstClass = classesAtThisTime.get(0);
 
-
-                    String startTimeStr = firstClass.time().substring(0, 5);
-                    String endTimeStr = firstClass.endTime().substring(0, 5);
-
-                    String[] startParts = startTimeStr.split(":");
-                    String[] endParts = endTimeStr.split(":");
-
-                    int startHour = Integer.parseInt(startParts[0]);
-                    int startMin = Integer.parseInt(startParts[1]);
-                    int endHour = Integer.parseInt(endParts[0]);
-                    int endMin = Integer.parseInt(endParts[1]);
-
-                    int startTotalMin = startHour * 60 + startMin;
-                    int endTotalMin = endHour * 60 + endMin;
-                    int durationMin = endTotalMin - startTotalMin;
+                    // minutes were parsed once when the timetable was loaded
+                    int durationMin = Math.max(firstClass.endMinute() - firstClass.startMinute(), 0);
 
                     int slotsNeeded = (durationMin / 30) + 1;
 
@@ -820,7 +827,11 @@ public class StudentDashboard extends JFrame {
 
         return calendarPanel;
     }
-       private void refreshTimetable() {
+    private CompletableFuture<Void> refreshTimetable() {
+        return calls.read(s -> s.getStudentTimetable(userId), this::showTimetable);
+    }
+
+    private void showTimetable(List<TimetableView> timetable) {
         Component timetableTab = mainTabbedPane.getComponentAt(2);
         if (timetableTab instanceof JPanel) {
             JPanel panel = (JPanel) timetableTab;
@@ -831,7 +842,7 @@ public class StudentDashboard extends JFrame {
             panel.setBackground(Color.WHITE);
             panel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
 
-            JPanel calendarPanel = createCalendarTimetable();
+            JPanel calendarPanel = createCalendarTimetable(timetable);
 
             //refresh button
             JButton refreshBtn = createRoundedButton("Refresh Timetable", TEAL_COLOR);
@@ -895,19 +906,20 @@ public class StudentDashboard extends JFrame {
         return panel;
     }
 
-    private void loadGrades(DefaultTableModel model) {
-        model.setRowCount(0);
-        List<GradeView> grades = studentService.getStudentGrades(userId);
-        for (GradeView grade : grades) {
-            Vector<Object> row = new Vector<>();
-            row.add(grade.courseCode());
-            row.add(grade.courseName());
-            row.add(grade.sectionId());
-            row.add(grade.component() == null ? "N/A" : grade.component());
-            row.add(grade.score() == null ? "N/A" : grade.score());
-            row.add(grade.finalGrade() == null ? "Pending" : grade.finalGrade());
-            model.addRow(row);
-        }
+    private CompletableFuture<Void> loadGrades(DefaultTableModel model) {
+        return calls.read(s -> s.getStudentGrades(userId), grades -> {
+            model.setRowCount(0);
+            for (GradeView grade : grades) {
+                Vector<Object> row = new Vector<>();
+                row.add(grade.courseCode());
+                row.add(grade.courseName());
+                row.add(grade.sectionId());
+                row.add(grade.component() == null ? "N/A" : grade.component());
+                row.add(grade.score() == null ? "N/A" : grade.score());
+                row.add(grade.finalGrade() == null ? "Pending" : grade.finalGrade());
+                model.addRow(row);
+            }
+        });
     }
 
     private void registerForSection(JTable table, DefaultTableModel model) {
@@ -943,26 +955,26 @@ public class StudentDashboard extends JFrame {
                 JOptionPane.QUESTION_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            ServiceResult<String> result = studentService.registerForSection(userId, sectionId);
-
-            if (result.isSuccess()) {
-                JOptionPane.showMessageDialog(this,
-                        String.format("✅ Registration Successful!\n\n" +
-                                        "You have been enrolled in:\n" +
-                                        "Section: %s\n" +
-                                        "Course: %s - %s\n\n" +
-                                        "Check 'My Enrollments' and 'Timetable' tabs.",
-                                sectionId, courseCode, courseTitle),
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-
-                loadEnrollments();
-                loadCourseCatalog(model, null, null);
+            calls.write(s -> s.registerForSection(userId, sectionId), result -> {
+                if (result.isSuccess()) {
+                    JOptionPane.showMessageDialog(this,
+                            String.format("✅ Registration Successful!\n\n" +
+                                            "You have been enrolled in:\n" +
+                                            "Section: %s\n" +
+                                            "Course: %s - %s\n\n" +
+                                            "Check 'My Enrollments' and 'Timetable' tabs.",
+                                    sectionId, courseCode, courseTitle),
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+
+                    loadEnrollments();
+                    loadCourseCatalog(model, null, null);
 
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "❌ " + result.getMessage(),
-                        "Registration Failed", JOptionPane.ERROR_MESSAGE);
-            }
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                            "❌ " + result.getMessage(),
+                            "Registration Failed", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
@@ -984,92 +996,72 @@ public class StudentDashboard extends JFrame {
                 "Confirm Drop", JOptionPane.YES_NO_OPTION);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            ServiceResult<String> result = studentService.dropSection(userId, sectionId);
-
-            if (result.isSuccess()) {
-                JOptionPane.showMessageDialog(this,
-                        "✅ " + result.getMessage(),
-                        "Success", JOptionPane.INFORMATION_MESSAGE);
-                loadEnrollments();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "❌ " + result.getMessage(),
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            calls.write(s -> s.dropSection(userId, sectionId), result -> {
+                if (result.isSuccess()) {
+                    JOptionPane.showMessageDialog(this,
+                            "✅ " + result.getMessage(),
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                    loadEnrollments();
+                } else {
+                    JOptionPane.showMessageDialog(this,
+                            "❌ " + result.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
         }
     }
 
     private void downloadTranscript() {
-        List<TranscriptView> transcript = studentService.getTranscript(userId);
-
-        if (transcript.isEmpty()) {
-            JOptionPane.showMessageDialog(this,
-                    "No enrollment records found.",
-                    "Empty Transcript", JOptionPane.INFORMATION_MESSAGE);
-            return;
-        }
-
-        try {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-            String file = "transcript_" + username + "_" + timestamp + ".csv";
-
-            try (FileWriter fw = new FileWriter(file)) {
-                fw.write("Course Code,Course Name,Credits,Semester,Year,Final Grade\n");
-
-                for (TranscriptView entry : transcript) {
-                    fw.write(String.format("%s,%s,%d,%s,%d,%s\n",
-                            escapeCsv(entry.courseCode()),
-                            escapeCsv(entry.courseName()),
-                            entry.credits(),
-                            entry.semester(),
-                            entry.year(),
-                            entry.finalGrade() == null ? "Pending" : escapeCsv(entry.finalGrade())));
-                }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        Path file = Path.of("transcript_" + username + "_" + timestamp + ".csv");
+
+        calls.read(s -> s.exportTranscript(userId, file), sr -> {
+            if (!sr.isSuccess()) {
+                JOptionPane.showMessageDialog(this, sr.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            } else if (sr.getData() == 0) {
+                JOptionPane.showMessageDialog(this, sr.getMessage(), "Empty Transcript", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, sr.getMessage(), "Success", JOptionPane.INFORMATION_MESSAGE);
             }
-
-            JOptionPane.showMessageDialog(this,
-                    "Transcript saved as: " + file,
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
-
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            JOptionPane.showMessageDialog(this,
-                    "Failed to download transcript: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
-    }
-
-    private String escapeCsv(String s) {
-        if (s == null) return "";
-        if (s.contains(",") || s.contains("\n") || s.contains("\r") || s.contains("\"")) {
-            return '"' + s.replace("\"", "\"\"") + '"';
-        }
-        return s;
+        });
     }
 
     // ==================== MAINTENANCE MODE ====================
-    private void checkMaintenanceMode() {
-        boolean maintenanceMode = studentService.isMaintenanceMode();
-        maintenanceBanner.setVisible(maintenanceMode);
+    private CompletableFuture<Void> checkMaintenanceMode() {
+        return calls.read(StudentService::isMaintenanceMode, maintenanceBanner::setVisible);
     }
 
-    private void refreshAllData() {
-        checkMaintenanceMode();
-
-        loadEnrollments();
-
+    // panels whose data is fetched on open and on "Refresh"; tabs without a model yet are skipped
+    private RefreshOrchestrator refreshPlan() {
+        RefreshOrchestrator refresh = new RefreshOrchestrator("Student dashboard")
+                .add("maintenance", this::checkMaintenanceMode)
+                .add("enrollments", this::loadEnrollments)
+                .add("timetable", this::refreshTimetable);
         if (catalogModel != null) {
-            loadCourseCatalog(catalogModel, null, null);
+            refresh.add("catalog", () -> loadCourseCatalog(catalogModel, null, null));
         }
-
-        refreshTimetable();
-
         if (gradesModel != null) {
-            loadGrades(gradesModel);
+            refresh.add("grades", () -> loadGrades(gradesModel));
         }
+        return refresh;
+    }
+
+    private void refreshAllData() {
+        refreshPlan().run().thenAcceptAsync(report -> {
+            // failed panels already showed their own error dialog
+            if (!report.allOk()) return;
+            RefreshOrchestrator.PanelTiming slowest = report.slowest();
+            JOptionPane.showMessageDialog(this,
+                    "All data refreshed successfully!\n\n" +
+                            "Took " + report.totalMillis() + " ms" +
+                            (slowest == null ? "" : " (slowest: " + slowest.panel() + ", " + slowest.millis() + " ms)"),
+                    "Refresh Complete", JOptionPane.INFORMATION_MESSAGE);
+        }, ServiceCalls.EDT);
+    }
 
-        JOptionPane.showMessageDialog(this,
-                "All data refreshed successfully!",
-                "Refresh Complete", JOptionPane.INFORMATION_MESSAGE);
+    @Override
+    public void dispose() {
+        session.close();
+        super.dispose();
     }
 }
\ No newline at end of file
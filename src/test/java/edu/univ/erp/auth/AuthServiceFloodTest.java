@@ -0,0 +1,83 @@
+package edu.univ.erp.auth;
+
+import edu.univ.erp.domain.Auth;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static edu.univ.erp.ConcurrentRunner.runAtOnce;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// a login flood through AuthService.login with the database lookup and bcrypt swapped for in-memory stand-ins:
+// only attempts inside the global limit may reach the password check, and once the verify queue is full the
+// rest are turned away as BUSY instead of queueing.
+class AuthServiceFloodTest {
+
+    private static final int THREADS = 64;
+    private static final int ATTEMPTS = 5_000;
+    private static final int GLOBAL_LIMIT = 300;
+    private static final int WORKERS = 2;
+    private static final int QUEUE = 8;
+
+    @Test
+    void floodStaysWithinTheGlobalLimitAndOverflowsAsBusy() throws Exception {
+        // per-user limits out of the way; windows long enough not to roll over mid-test
+        LoginThrottle throttle = new LoginThrottle(1_000, 60_000, GLOBAL_LIMIT, 60_000, 5, 900_000, 10_000);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(WORKERS, WORKERS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE), new ThreadPoolExecutor.AbortPolicy());
+        AtomicInteger checks = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        // stands in for bcrypt: slow enough that the queue fills, and always a wrong password so nothing else
+        // (rehash, last-login write) needs the database
+        BiPredicate<String, String> slowCheck = (password, hash) -> {
+            checks.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return false;
+        };
+        Function<String, AuthService.UserRow> lookup =
+                name -> new AuthService.UserRow("id-" + name, name, Auth.Role.STUDENT, "hash", "ACTIVE");
+        AuthService auth = new AuthService(throttle, pool, lookup, slowCheck);
+
+        try {
+            List<Callable<Auth.Outcome>> calls = IntStream.range(0, ATTEMPTS)
+                    .mapToObj(i -> (Callable<Auth.Outcome>) () ->
+                            auth.login("flood" + i, "wrong", null).join().outcome())
+                    .toList();
+
+            Map<Auth.Outcome, Long> outcomes = runAtOnce(THREADS, calls).stream()
+                    .collect(Collectors.groupingBy(o -> o, Collectors.counting()));
+
+            long verified = outcomes.getOrDefault(Auth.Outcome.BAD_PASSWORD, 0L);
+            long busy = outcomes.getOrDefault(Auth.Outcome.BUSY, 0L);
+            long throttled = outcomes.getOrDefault(Auth.Outcome.THROTTLED, 0L);
+            assertEquals(ATTEMPTS, verified + busy + throttled, "unexpected outcomes: " + outcomes);
+            assertEquals(verified, checks.get(), "password checks");
+            assertTrue(checks.get() <= GLOBAL_LIMIT, checks.get() + " checks past a global limit of " + GLOBAL_LIMIT);
+            assertEquals(GLOBAL_LIMIT, verified + busy, "attempts let through by the throttle");
+            assertEquals(ATTEMPTS - GLOBAL_LIMIT, throttled, "throttled");
+            assertTrue(busy > 0, "the verify queue never overflowed: " + outcomes);
+            assertTrue(maxRunning.get() <= WORKERS, "checks ran " + maxRunning.get() + " at once");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
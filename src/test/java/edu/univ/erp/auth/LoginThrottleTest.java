@@ -0,0 +1,111 @@
+package edu.univ.erp.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static edu.univ.erp.ConcurrentRunner.runAtOnce;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// LoginThrottle under a flood of concurrent attempts, and lockout counting per exact username. every call uses
+// one fixed clock value so the windows never roll over mid-test.
+class LoginThrottleTest {
+
+    private static final int THREADS = 32;
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void floodOnOneUserAllowsExactlyTheLimit() throws Exception {
+        LoginThrottle throttle = new LoginThrottle(50, 60_000, 1_000_000, 1_000, 5, 900_000, 1000);
+        List<Callable<LoginThrottle.Verdict>> calls = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) calls.add(() -> throttle.tryAcquire("alice", NOW));
+
+        List<LoginThrottle.Verdict> verdicts = runAtOnce(THREADS, calls);
+
+        assertEquals(50, verdicts.stream().filter(v -> v == LoginThrottle.Verdict.ALLOW).count(), "allowed");
+        assertEquals(LoginThrottle.Verdict.USER_LIMIT, throttle.tryAcquire("alice", NOW));
+    }
+
+    @Test
+    void floodOnManyUsersNeverPassesTheGlobalLimit() throws Exception {
+        LoginThrottle throttle = new LoginThrottle(1_000_000, 60_000, 200, 1_000, 5, 900_000, 1000);
+        List<Callable<LoginThrottle.Verdict>> calls = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String name = "user" + i;
+            calls.add(() -> throttle.tryAcquire(name, NOW));
+        }
+
+        List<LoginThrottle.Verdict> verdicts = runAtOnce(THREADS, calls);
+
+        long allowed = verdicts.stream().filter(v -> v == LoginThrottle.Verdict.ALLOW).count();
+        assertTrue(allowed <= 200, "allowed " + allowed + " of a global limit of 200");
+        assertTrue(allowed > 0, "nothing allowed");
+    }
+
+    @Test
+    void usersSharingAStripeDoNotLockEachOther() {
+        LoginThrottle throttle = new LoginThrottle(10, 60_000, 1000, 1_000, 5, 900_000, 1000);
+        String[] pair = collidingPair();
+
+        for (int i = 0; i < 4; i++) assertFalse(throttle.recordFailure(pair[0], NOW));
+        assertFalse(throttle.recordFailure(pair[1], NOW), pair[1] + " locked by " + pair[0] + "'s failures");
+        assertTrue(throttle.recordFailure(pair[0], NOW), pair[0] + " not locked at the threshold");
+    }
+
+    @Test
+    void successClearsOnlyThatUsersFailures() {
+        LoginThrottle throttle = new LoginThrottle(10, 60_000, 1000, 1_000, 5, 900_000, 1000);
+        String[] pair = collidingPair();
+
+        for (int i = 0; i < 4; i++) throttle.recordFailure(pair[0], NOW);
+        throttle.recordSuccess(pair[1]);
+        assertTrue(throttle.recordFailure(pair[0], NOW), "another user's login reset the count");
+
+        throttle.recordSuccess(pair[0]);
+        assertFalse(throttle.recordFailure(pair[0], NOW));
+    }
+
+    @Test
+    void concurrentFailuresLockAtTheThreshold() throws Exception {
+        LoginThrottle throttle = new LoginThrottle(10, 60_000, 1000, 1_000, 5, 900_000, 1000);
+        List<Callable<Boolean>> calls = new ArrayList<>();
+        for (int i = 0; i < 200; i++) calls.add(() -> throttle.recordFailure("Mallory", NOW));
+
+        List<Boolean> locked = runAtOnce(THREADS, calls);
+
+        // at least every failure from the 5th on sees the threshold; earlier ones may too if others land first
+        assertTrue(locked.stream().filter(b -> b).count() >= 196, "failures at or past the threshold");
+        assertTrue(locked.contains(false), "locked before any failure was counted");
+        assertTrue(throttle.recordFailure("mallory", NOW), "usernames differ only in case");
+    }
+
+    @Test
+    void trackedUsersStayBounded() {
+        LoginThrottle throttle = new LoginThrottle(10, 60_000, 1000, 1_000, 5, 900_000, 100);
+        for (int i = 0; i < 5_000; i++) throttle.recordFailure("user" + i, NOW);
+        assertTrue(throttle.trackedUsers() <= 100, "tracked " + throttle.trackedUsers());
+
+        // expired entries go first
+        LoginThrottle expiring = new LoginThrottle(10, 60_000, 1000, 1_000, 5, 60_000, 100);
+        for (int i = 0; i < 100; i++) expiring.recordFailure("old" + i, NOW);
+        for (int i = 0; i < 4; i++) expiring.recordFailure("fresh", NOW + 120_000);
+        assertEquals(1, expiring.trackedUsers());
+        assertTrue(expiring.recordFailure("fresh", NOW + 120_000));
+    }
+
+    private static String[] collidingPair() {
+        int first = LoginThrottle.stripe("user0");
+        for (int i = 1; ; i++) {
+            String other = "user" + i;
+            if (LoginThrottle.stripe(other) == first) {
+                assertNotEquals("user0", other);
+                return new String[]{"user0", other};
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.data.ScheduleIndex.Booking;
+import edu.univ.erp.data.ScheduleIndex.Conflict;
+import edu.univ.erp.data.ScheduleIndex.Resource;
+import edu.univ.erp.domain.WeekSlots.Meeting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// the lane search against a brute-force pairwise check over a random schedule, loaded without the database. few
+// rooms, instructors and days, so lanes are crowded and nested, chained and touching meetings all come up.
+// conflicts() reports one pair per clashing booking rather than every pair, so what is compared is which
+// (resource, section) pairs take part in some clash; every reported pair must be a real clash too
+class ScheduleIndexTest {
+
+    private static final int SECTIONS = 400;
+    private static final int PROBES = 2_000;
+    private static final String[] SEMESTERS = {"Fall", "Spring"};
+    private static final String[] ROOMS = {"A101", "a101 ", "B202", "C303", "", null};
+    private static final String[] INSTRUCTORS = {"I1", "I2", "I3", "I4", null};
+
+    private final Random random = new Random(7);
+
+    @AfterEach
+    void forgetTestSchedule() {
+        ScheduleIndex.refresh();
+    }
+
+    @Test
+    void conflictsMatchPairwiseCheck() throws Exception {
+        List<Booking> bookings = randomBookings();
+        ScheduleIndex.load(bookings);
+
+        assertInvolved(bookings, null, 0, ScheduleIndex.conflicts(null, 0));
+        assertInvolved(bookings, "Fall", 2099, ScheduleIndex.conflicts("fall ", 2099));
+        assertInvolved(bookings, "Spring", 2098, ScheduleIndex.conflicts("Spring", 2098));
+    }
+
+    @Test
+    void checkMatchesPairwiseCheck() throws Exception {
+        List<Booking> bookings = randomBookings();
+        ScheduleIndex.load(bookings);
+
+        for (int i = 0; i < PROBES; i++) {
+            // half new sections, half moves of existing ones (which must not clash with themselves)
+            String id = random.nextBoolean() ? "NEW" : bookings.get(random.nextInt(bookings.size())).sectionId();
+            Booking probe = booking(id);
+            Conflict c = ScheduleIndex.check(probe);
+            boolean expected = bookings.stream().anyMatch(b -> !b.sectionId().equals(id) && clashes(probe, b) != null);
+            if (expected) {
+                assertNotNull(c, "missed a clash for " + probe);
+                assertEquals(c.resource(), clashes(probe, c.clashesWith()), "reported " + c.clashesWith() + " for " + probe);
+            } else {
+                assertNull(c, "false clash for " + probe);
+            }
+        }
+    }
+
+    private void assertInvolved(List<Booking> bookings, String semester, int year, List<Conflict> conflicts) {
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking a = bookings.get(i);
+            if (semester != null && (!semester.equals(a.semester()) || year != a.year())) continue;
+            for (int j = i + 1; j < bookings.size(); j++) {
+                Booking b = bookings.get(j);
+                for (Resource r : Resource.values()) {
+                    if (clashes(a, b, r)) {
+                        expected.add(r + " " + a.sectionId());
+                        expected.add(r + " " + b.sectionId());
+                    }
+                }
+            }
+        }
+
+        Set<String> actual = new HashSet<>();
+        for (Conflict c : conflicts) {
+            assertTrue(clashes(c.booking(), c.clashesWith(), c.resource()), "not a clash: " + c);
+            assertFalse(c.booking().sectionId().equals(c.clashesWith().sectionId()), "clashes with itself: " + c);
+            actual.add(c.resource() + " " + c.booking().sectionId());
+            actual.add(c.resource() + " " + c.clashesWith().sectionId());
+        }
+
+        assertFalse(expected.isEmpty(), "random schedule has no clashes to find");
+        assertEquals(expected, actual);
+    }
+
+    // the first resource a and b clash on, or null
+    private static Resource clashes(Booking a, Booking b) {
+        for (Resource r : Resource.values()) {
+            if (clashes(a, b, r)) return r;
+        }
+        return null;
+    }
+
+    private static boolean clashes(Booking a, Booking b, Resource r) {
+        if (a.meeting() == null || b.meeting() == null) return false;
+        String x = normalize(r == Resource.ROOM ? a.room() : a.instructorId());
+        String y = normalize(r == Resource.ROOM ? b.room() : b.instructorId());
+        return !x.isEmpty() && x.equals(y)
+                && normalize(a.semester()).equals(normalize(b.semester())) && a.year() == b.year()
+                && a.meeting().day() == b.meeting().day() && a.meeting().overlaps(b.meeting());
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private List<Booking> randomBookings() {
+        List<Booking> out = new ArrayList<>();
+        for (int i = 0; i < SECTIONS; i++) out.add(booking("S" + i));
+        return out;
+    }
+
+    // quarter-hour starts between 08:00 and 18:00, 15 minutes to 3 hours long; a few have no time at all
+    private Booking booking(String sectionId) {
+        String semester = SEMESTERS[random.nextInt(SEMESTERS.length)];
+        int year = semester.equals("Fall") ? 2099 : 2098;
+        Meeting m = null;
+        if (random.nextInt(20) != 0) {
+            int start = 8 * 60 + 15 * random.nextInt(40);
+            m = new Meeting(random.nextInt(3), start, start + 15 * (1 + random.nextInt(12)));
+        }
+        return new Booking(sectionId, semester, year, ROOMS[random.nextInt(ROOMS.length)],
+                INSTRUCTORS[random.nextInt(INSTRUCTORS.length)], m);
+    }
+}
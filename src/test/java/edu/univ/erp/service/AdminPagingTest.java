@@ -0,0 +1,87 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.SchemaUpgrades;
+import edu.univ.erp.domain.Page;
+import edu.univ.erp.service.AdminService.CourseView;
+import edu.univ.erp.service.AdminService.SectionView;
+import edu.univ.erp.service.AdminService.UserView;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// the admin keyset pages against a real database: walking every page from the first must return exactly the
+// full listing, in the same order, with no row skipped or repeated at a page boundary. a small page size puts
+// boundaries inside runs of equal leading keys (same role, same term). skipped when the ERP database is not
+// reachable.
+class AdminPagingTest {
+
+    private static final int PAGE = 7;
+
+    private final AdminService service = new AdminService();
+
+    @BeforeAll
+    static void needsDatabase() {
+        assumeTrue(TestData.databaseAvailable(), "ERP database not reachable");
+        SchemaUpgrades.ensureApplied();
+    }
+
+    @Test
+    void coursePagesMatchTheFullListing() throws Exception {
+        try (TestData data = new TestData()) {
+            for (int i = 0; i < 3 * PAGE; i++) data.course();
+
+            assertEquals(ids(service.getAllCourses(), CourseView::courseId),
+                    ids(walk(service::getCoursesPage), CourseView::courseId));
+        }
+    }
+
+    @Test
+    void sectionPagesMatchTheFullListing() throws Exception {
+        try (TestData data = new TestData()) {
+            int course = data.course();
+            // two terms in one year and one in the next, so pages break inside a year and inside a term
+            for (int i = 0; i < 2 * PAGE; i++) data.section(course, 10, "Fall", 2098, "Monday", "09:00", "10:00");
+            for (int i = 0; i < PAGE; i++) data.section(course, 10, "Spring", 2098, "Monday", "09:00", "10:00");
+            for (int i = 0; i < PAGE; i++) data.section(course, 10, "Fall", 2099, "Monday", "09:00", "10:00");
+            AdminService.sectionsChanged();
+
+            List<SectionView> all = service.getAllSections();
+            List<SectionView> paged = walk(service::getSectionsPage);
+
+            assertEquals(ids(all, SectionView::sectionId), ids(paged, SectionView::sectionId));
+            assertTrue(paged.stream().filter(s -> s.courseId() == course).count() >= 4L * PAGE, "test sections missing");
+        }
+    }
+
+    @Test
+    void userPagesMatchTheFullListing() {
+        List<UserView> all = service.getAllUsers();
+        assertFalse(all.isEmpty(), "no users to page through");
+
+        assertEquals(ids(all, UserView::userId), ids(walk(service::getUsersPage), UserView::userId));
+    }
+
+    private static <T> List<T> walk(BiFunction<T, Integer, Page<T>> pages) {
+        List<T> out = new ArrayList<>();
+        T after = null;
+        while (true) {
+            Page<T> page = pages.apply(after, PAGE);
+            out.addAll(page.items());
+            if (!page.hasMore()) return out;
+            after = page.last();
+        }
+    }
+
+    private static <T, K> List<K> ids(List<T> rows, Function<T, K> id) {
+        return rows.stream().map(id).toList();
+    }
+}
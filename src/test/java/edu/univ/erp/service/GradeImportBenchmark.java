@@ -0,0 +1,78 @@
+package edu.univ.erp.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// gradebook CSV import throughput in rows/s for a 1,000-student section: GradeImporter end to end (enrollment
+// lookup, validation, chunked upserts and the FINAL recompute, one transaction). every invocation re-imports the
+// same file, so scores are updated in place. needs the ERP database; the section is created per trial and removed
+// afterwards. run main() with the test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradeImportBenchmark {
+
+    private static final int SECTION_SIZE = 1_000;
+
+    private TestData data;
+    private String section;
+    private String csv;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        if (!TestData.databaseAvailable()) throw new IllegalStateException("GradeImportBenchmark needs the ERP database");
+        data = new TestData();
+        section = data.section(SECTION_SIZE);
+        data.enroll(section, data.students(SECTION_SIZE));
+
+        Random random = new Random(42);
+        List<String> rolls = data.rollNos(section);
+        StringBuilder sb = new StringBuilder("roll_no,quiz,midterm,endsem\n");
+        for (String roll : rolls) {
+            sb.append(roll).append(',').append(random.nextInt(101)).append(',')
+                    .append(random.nextInt(101)).append(',').append(random.nextInt(101)).append('\n');
+        }
+        csv = sb.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        data.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SECTION_SIZE)
+    public GradeImporter.Report importSection() throws IOException, SQLException {
+        GradeImporter.Report report = GradeImporter.importCsv(new StringReader(csv), section);
+        if (!report.errors().isEmpty()) throw new IllegalStateException("import errors: " + report.errors());
+        return report;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GradeImportBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.SettingsCache;
+import edu.univ.erp.domain.ServiceResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static edu.univ.erp.ConcurrentRunner.runAtOnce;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// registerForSection against a real database: many students released at once onto one section must never
+// push it past capacity, and sections.enrolled_count must match the ENROLLED rows afterwards.
+// skipped when the ERP database is not reachable, in maintenance mode, or past the add/drop deadline.
+class RegistrationConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    private final StudentService service = new StudentService();
+
+    @BeforeAll
+    static void needsDatabase() {
+        assumeTrue(TestData.databaseAvailable(), "ERP database not reachable");
+        assumeFalse(SettingsCache.isMaintenanceMode(), "maintenance mode is on");
+        assumeFalse(SettingsCache.isPastDropDeadline(), "past the add/drop deadline");
+    }
+
+    @Test
+    void sectionNeverExceedsCapacity() throws Exception {
+        try (TestData data = new TestData()) {
+            int capacity = 25;
+            String section = data.section(capacity);
+            List<String> students = data.students(300);
+
+            List<ServiceResult<String>> results = runAtOnce(THREADS, students.stream()
+                    .map(s -> (Callable<ServiceResult<String>>) () -> service.registerForSection(s, section))
+                    .toList());
+
+            long registered = results.stream().filter(ServiceResult::isSuccess).count();
+            assertEquals(capacity, registered, "successful registrations");
+            assertEquals(capacity, data.enrolledRows(section), "ENROLLED rows");
+            assertEquals(capacity, data.enrolledCount(section), "sections.enrolled_count");
+        }
+    }
+
+    @Test
+    void duplicateRegistrationsTakeOneSeat() throws Exception {
+        try (TestData data = new TestData()) {
+            String section = data.section(10);
+            String student = data.students(1).get(0);
+
+            List<Callable<ServiceResult<String>>> calls = new ArrayList<>();
+            for (int i = 0; i < 50; i++) calls.add(() -> service.registerForSection(student, section));
+            List<ServiceResult<String>> results = runAtOnce(THREADS, calls);
+
+            assertEquals(1, results.stream().filter(ServiceResult::isSuccess).count(), "successful registrations");
+            assertEquals(1, data.enrolledRows(section), "ENROLLED rows");
+            assertEquals(1, data.enrolledCount(section), "sections.enrolled_count");
+        }
+    }
+
+    @Test
+    void dropsAndRegistrationsKeepCounterExact() throws Exception {
+        try (TestData data = new TestData()) {
+            int capacity = 20;
+            String section = data.section(capacity);
+            List<String> enrolled = data.students(capacity);
+            data.enroll(section, enrolled);
+            List<String> waiting = data.students(100);
+
+            // half the class drops while a crowd tries to take the freed seats
+            List<Callable<ServiceResult<String>>> calls = new ArrayList<>();
+            for (String s : enrolled.subList(0, capacity / 2)) calls.add(() -> service.dropSection(s, section));
+            for (String s : waiting) calls.add(() -> service.registerForSection(s, section));
+            runAtOnce(THREADS, calls);
+
+            int rows = data.enrolledRows(section);
+            assertEquals(rows, data.enrolledCount(section), "sections.enrolled_count vs ENROLLED rows");
+            assertTrue(rows <= capacity, "over capacity: " + rows);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DBConfig;
+import edu.univ.erp.service.InstructorService.RosterRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// roster load time against section size: getRosterForSection (one pivoting query) next to the per-student
+// grades query it replaced. needs the ERP database; sections, students and grades are created per trial and
+// removed afterwards. run main() with the test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RosterBenchmark {
+
+    private static final String[] COMPONENTS = {"QUIZ", "MIDTERM", "ENDSEM"};
+
+    @Param({"30", "100", "300", "1000"})
+    public int sectionSize;
+
+    private final InstructorService service = new InstructorService();
+    private TestData data;
+    private String section;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        if (!TestData.databaseAvailable()) throw new IllegalStateException("RosterBenchmark needs the ERP database");
+        data = new TestData();
+        section = data.section(sectionSize);
+        data.enroll(section, data.students(sectionSize));
+
+        Random random = new Random(42);
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO grades (enrollment_id, component, score, max_score) VALUES (?, ?, ?, 100)")) {
+            for (String enrollmentId : data.enrollmentIds(section)) {
+                for (String c : COMPONENTS) {
+                    ps.setString(1, enrollmentId);
+                    ps.setString(2, c);
+                    ps.setDouble(3, random.nextInt(101));
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        data.close();
+    }
+
+    @Benchmark
+    public List<RosterRow> singleQuery() {
+        return service.getRosterForSection(section);
+    }
+
+    // the loader before user-006: the enrollment list, then one grades query per student
+    @Benchmark
+    public List<RosterRow> queryPerStudent() throws SQLException {
+        List<RosterRow> out = new ArrayList<>();
+        String sql = "SELECT e.enrollment_id, st.user_id as student_id, st.roll_no, u.username as student_name " +
+                "FROM enrollments e JOIN students st ON e.student_id = st.user_id " +
+                "LEFT JOIN auth_db.users_auth u ON st.user_id = u.user_id " +
+                "WHERE e.section_id = ? AND (e.status IS NULL OR e.status = 'ENROLLED')";
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, section);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String enrollmentId = rs.getString("enrollment_id");
+                    Double[] scores = new Double[4];
+                    try (PreparedStatement gps = conn.prepareStatement(
+                            "SELECT component, score FROM grades WHERE enrollment_id = ?")) {
+                        gps.setString(1, enrollmentId);
+                        try (ResultSet grs = gps.executeQuery()) {
+                            while (grs.next()) {
+                                Double score = grs.getObject("score") instanceof Number n ? n.doubleValue() : null;
+                                switch (grs.getString("component").toUpperCase()) {
+                                    case "QUIZ" -> scores[0] = score;
+                                    case "MIDTERM" -> scores[1] = score;
+                                    case "ENDSEM" -> scores[2] = score;
+                                    case "FINAL" -> scores[3] = score;
+                                    default -> { }
+                                }
+                            }
+                        }
+                    }
+                    out.add(new RosterRow(enrollmentId, rs.getString("student_id"), rs.getString("roll_no"),
+                            rs.getString("student_name"), scores[0], scores[1], scores[2], scores[3], Map.of()));
+                }
+            }
+        }
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RosterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
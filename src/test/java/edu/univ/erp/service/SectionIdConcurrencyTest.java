@@ -0,0 +1,62 @@
+package edu.univ.erp.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static edu.univ.erp.ConcurrentRunner.runAtOnce;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// section ids handed out by AdminService under concurrent admins: every id is unique, keeps the CODE-F99-NN
+// format, and the first block is seeded past the sections already in the table. skipped when the ERP database is
+// not reachable.
+class SectionIdConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int IDS = 400;
+
+    private final AdminService service = new AdminService();
+
+    @BeforeAll
+    static void needsDatabase() {
+        assumeTrue(TestData.databaseAvailable(), "ERP database not reachable");
+    }
+
+    @Test
+    void concurrentSectionIdsNeverCollide() throws Exception {
+        try (TestData data = new TestData()) {
+            int course = data.course();
+            List<Callable<String>> calls = new ArrayList<>();
+            for (int i = 0; i < IDS; i++) calls.add(() -> service.generateSectionId(course, "Fall", 2099));
+
+            List<String> ids = runAtOnce(THREADS, calls);
+
+            Set<String> distinct = new HashSet<>(ids);
+            assertEquals(IDS, distinct.size(), "duplicate section ids");
+            for (String id : ids) assertTrue(id.matches(".+-F99-\\d{2,}"), "unexpected id " + id);
+        }
+    }
+
+    @Test
+    void newSequenceStartsPastExistingSections() throws Exception {
+        try (TestData data = new TestData()) {
+            int course = data.course();
+            // an existing section with a high number and no id_sequences row yet, as after an upgrade
+            String code = data.courseCode(course);
+            data.section(course, 10, "Fall", 2098, "Monday", "09:00", "10:30", code + "-F98-41");
+
+            String id = service.generateSectionId(course, "Fall", 2098);
+
+            assertTrue(id.startsWith(code + "-F98-"), id);
+            int n = Integer.parseInt(id.substring(id.lastIndexOf('-') + 1));
+            assertTrue(n > 41, id + " reuses a number at or below the existing section's");
+        }
+    }
+}
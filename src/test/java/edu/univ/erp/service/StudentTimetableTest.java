@@ -0,0 +1,76 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.domain.WeekSlots;
+import edu.univ.erp.domain.WeekSlots.Meeting;
+import edu.univ.erp.service.StudentService.TimetableView;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// clash checks against a student's timetable: only meetings of the same term count, and quarter-hour rounding of
+// the slot bits never reports a clash on its own
+class StudentTimetableTest {
+
+    private static TimetableView entry(String sectionId, String day, String start, String end, String semester, int year) {
+        return new TimetableView(day, start, "TEST - " + sectionId, sectionId, "R1", "TBA", end,
+                WeekSlots.minutes(start), WeekSlots.minutes(end), semester, year);
+    }
+
+    private static Meeting meeting(String day, String start, String end) {
+        return Meeting.parse(day, start, end);
+    }
+
+    @Test
+    void earlierTermDoesNotBlockRegistration() {
+        StudentTimetable t = new StudentTimetable(List.of(
+                entry("OLD", "Monday", "09:00", "10:30", "Fall", 2023)), 0L);
+
+        assertNull(t.clashWith("NEW", "Fall", 2024, meeting("Monday", "09:00", "10:30")));
+        assertNull(t.clashWith("NEW", "Spring", 2023, meeting("Monday", "09:00", "10:30")));
+        assertNotNull(t.clashWith("NEW", "Fall", 2023, meeting("Monday", "10:00", "11:00")));
+    }
+
+    @Test
+    void termMatchIgnoresCaseAndSpaces() {
+        StudentTimetable t = new StudentTimetable(List.of(
+                entry("A", "Tuesday", "14:00", "15:30", "Fall", 2024)), 0L);
+
+        TimetableView clash = t.clashWith("B", " fall ", 2024, meeting("Tuesday", "15:00", "16:00"));
+        assertNotNull(clash);
+        assertEquals("A", clash.sectionId());
+    }
+
+    @Test
+    void touchingMeetingsDoNotClash() {
+        StudentTimetable t = new StudentTimetable(List.of(
+                entry("A", "Wednesday", "09:00", "09:50", "Fall", 2024)), 0L);
+
+        // share the 09:45 slot bit, but do not overlap
+        assertNull(t.clashWith("B", "Fall", 2024, meeting("Wednesday", "09:50", "10:40")));
+        assertNotNull(t.clashWith("B", "Fall", 2024, meeting("Wednesday", "09:49", "10:40")));
+    }
+
+    @Test
+    void sectionNeverClashesWithItself() {
+        StudentTimetable t = new StudentTimetable(List.of(
+                entry("A", "Friday", "11:00", "12:00", "Spring", 2025)), 0L);
+
+        assertNull(t.clashWith("A", "Spring", 2025, meeting("Friday", "11:00", "12:00")));
+    }
+
+    @Test
+    void slotsArePerTerm() {
+        StudentTimetable t = new StudentTimetable(List.of(
+                entry("A", "Monday", "09:00", "10:00", "Fall", 2024),
+                entry("B", "Monday", "13:00", "14:00", "Spring", 2025)), 0L);
+
+        assertTrue(t.slots("Fall", 2024).intersects(WeekSlots.of(meeting("Monday", "09:30", "09:45"))));
+        assertTrue(t.slots("Fall", 2025).isEmpty());
+        assertNull(t.clashWith("C", "Fall", 2024, meeting("Monday", "13:00", "14:00")));
+    }
+}
@@ -0,0 +1,243 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.DBConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// throwaway rows in the real ERP database for tests and benchmarks that need it. every id carries a random
+// tag, and close() removes everything that was created, grades and enrollments included
+public final class TestData implements AutoCloseable {
+
+    private final String tag = "T" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private final Random random = new Random();
+    private final List<Integer> courses = new ArrayList<>();
+    private final List<String> sections = new ArrayList<>();
+    private final List<String> students = new ArrayList<>();
+    private int usernames = 0;
+
+    // tests call this first and skip themselves when no database is reachable
+    public static boolean databaseAvailable() {
+        try (Connection conn = DBConfig.getErpConnection()) {
+            return conn.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    public int course() throws SQLException {
+        String sql = "INSERT INTO courses (course_code, course_name, credits, description) VALUES (?, ?, 4, 'test data')";
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setString(1, tag + courses.size());
+            ps.setString(2, "Test course " + tag);
+            ps.executeUpdate();
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                rs.next();
+                courses.add(rs.getInt(1));
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    public String section(int courseId, int capacity, String semester, int year,
+                          String day, String start, String end) throws SQLException {
+        return section(courseId, capacity, semester, year, day, start, end, tag + "-S" + sections.size());
+    }
+
+    // sectionId must start with this instance's tag (e.g. a course code from courseCode) so close() finds it
+    public String section(int courseId, int capacity, String semester, int year,
+                          String day, String start, String end, String sectionId) throws SQLException {
+        String sql = "INSERT INTO sections (section_id, course_id, instructor_id, semester, year, day, start_time, " +
+                "end_time, room, capacity) VALUES (?, ?, NULL, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, sectionId);
+            ps.setInt(2, courseId);
+            ps.setString(3, semester);
+            ps.setInt(4, year);
+            ps.setString(5, day);
+            ps.setString(6, start);
+            ps.setString(7, end);
+            ps.setString(8, tag);
+            ps.setInt(9, capacity);
+            ps.executeUpdate();
+        }
+        sections.add(sectionId);
+        return sectionId;
+    }
+
+    public String courseCode(int courseId) throws SQLException {
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT course_code FROM courses WHERE course_id = ?")) {
+            ps.setInt(1, courseId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    public String section(int capacity) throws SQLException {
+        return section(course(), capacity, "Fall", 2099, "Monday", "09:00", "10:30");
+    }
+
+    public List<String> students(int n) throws SQLException {
+        String sql = "INSERT INTO students (user_id, roll_no, program, year_of_study, enrollment_date) " +
+                "VALUES (?, ?, 'TEST', 1, CURDATE())";
+        List<String> created = new ArrayList<>(n);
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            while (created.size() < n) {
+                String userId = tag + "-" + UUID.randomUUID();
+                ps.setString(1, userId);
+                ps.setString(2, String.valueOf(9_000_000 + random.nextInt(1_000_000)));
+                try {
+                    ps.executeUpdate();
+                } catch (SQLIntegrityConstraintViolationException e) {
+                    continue;   // roll number already taken; draw another
+                }
+                created.add(userId);
+                students.add(userId);
+            }
+        }
+        return created;
+    }
+
+    // a username for users created through the application (e.g. UserImporter); close() removes them by this prefix
+    public String username() {
+        return tag.toLowerCase() + "_u" + usernames++;
+    }
+
+    // user ids of the users_auth rows created under username()
+    public List<String> authUserIds() throws SQLException {
+        List<String> ids = new ArrayList<>();
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT user_id FROM users_auth WHERE username LIKE ?")) {
+            ps.setString(1, tag.toLowerCase() + "\\_u%");
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    public int studentRows(List<String> userIds) throws SQLException {
+        int n = 0;
+        for (String id : userIds) n += queryInt("SELECT COUNT(*) FROM students WHERE user_id = ?", id);
+        return n;
+    }
+
+    // enrolls students directly, without going through registerForSection
+    public void enroll(String sectionId, List<String> studentIds) throws SQLException {
+        String sql = "INSERT INTO enrollments (student_id, section_id, status, enrollment_date) " +
+                "VALUES (?, ?, 'ENROLLED', NOW())";
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (String s : studentIds) {
+                ps.setString(1, s);
+                ps.setString(2, sectionId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "UPDATE sections SET enrolled_count = enrolled_count + ? WHERE section_id = ?")) {
+            ps.setInt(1, studentIds.size());
+            ps.setString(2, sectionId);
+            ps.executeUpdate();
+        }
+    }
+
+    public List<String> enrollmentIds(String sectionId) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT enrollment_id FROM enrollments WHERE section_id = ?")) {
+            ps.setString(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    // roll numbers of the students enrolled in a section
+    public List<String> rollNos(String sectionId) throws SQLException {
+        List<String> rolls = new ArrayList<>();
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(
+                     "SELECT st.roll_no FROM enrollments e JOIN students st ON e.student_id = st.user_id WHERE e.section_id = ?")) {
+            ps.setString(1, sectionId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rolls.add(rs.getString(1));
+            }
+        }
+        return rolls;
+    }
+
+    public int enrolledCount(String sectionId) throws SQLException {
+        return queryInt("SELECT enrolled_count FROM sections WHERE section_id = ?", sectionId);
+    }
+
+    public int enrolledRows(String sectionId) throws SQLException {
+        return queryInt("SELECT COUNT(*) FROM enrollments WHERE section_id = ? AND status = 'ENROLLED'", sectionId);
+    }
+
+    private static int queryInt(String sql, String arg) throws SQLException {
+        try (Connection conn = DBConfig.getErpConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, arg);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        List<String> users = authUserIds();
+        try (Connection conn = DBConfig.getErpConnection()) {
+            for (String table : new String[]{"students", "instructors"}) {
+                try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + table + " WHERE user_id = ?")) {
+                    for (String id : users) {
+                        ps.setString(1, id);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+        }
+        try (Connection conn = DBConfig.getAuthConnection();
+             PreparedStatement ps = conn.prepareStatement("DELETE FROM users_auth WHERE user_id = ?")) {
+            for (String id : users) {
+                ps.setString(1, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (Connection conn = DBConfig.getErpConnection()) {
+            String like = tag + "%";
+            for (String sql : new String[]{
+                    "DELETE g FROM grades g JOIN enrollments e ON g.enrollment_id = e.enrollment_id WHERE e.section_id LIKE ?",
+                    "DELETE FROM enrollments WHERE section_id LIKE ? OR student_id LIKE ?",
+                    "DELETE FROM sections WHERE section_id LIKE ?",
+                    "DELETE FROM courses WHERE course_code LIKE ?",
+                    "DELETE FROM students WHERE user_id LIKE ?",
+                    "DELETE FROM id_sequences WHERE name LIKE CONCAT('section.', ?)"}) {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    long params = sql.chars().filter(c -> c == '?').count();
+                    for (int i = 1; i <= params; i++) ps.setString(i, like);
+                    ps.executeUpdate();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.domain.WeekSlots;
+import edu.univ.erp.domain.WeekSlots.Meeting;
+import edu.univ.erp.service.StudentService.TimetableView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// the in-memory part of a registration clash check: building a student's StudentTimetable and checking candidate
+// sections against it, next to comparing every enrolled meeting directly. enrolled is the number of ENROLLED rows
+// across all terms (a senior student carries several finished terms); candidates are in the latest term.
+// no database needed; run main() with the test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimetableBenchmark {
+
+    private static final String[] DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday"};
+    private static final String[] SEMESTERS = {"Spring", "Fall"};
+    private static final int SECTIONS_PER_TERM = 6;
+    private static final int CANDIDATES = 64;
+
+    @Param({"6", "24", "48"})
+    public int enrolled;
+
+    private List<TimetableView> entries;
+    private StudentTimetable timetable;
+    private Meeting[] candidates;
+    private String semester;
+    private int year;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        entries = new ArrayList<>();
+        for (int i = 0; i < enrolled; i++) {
+            int term = i / SECTIONS_PER_TERM;
+            int start = 8 * 60 + random.nextInt(36) * 15;
+            String day = DAYS[random.nextInt(DAYS.length)];
+            entries.add(new TimetableView(day, WeekSlots.clock(start), "C" + i, "S" + i, "R", "TBA",
+                    WeekSlots.clock(start + 90), start, start + 90, SEMESTERS[term % 2], 2020 + term / 2));
+        }
+        int last = (enrolled - 1) / SECTIONS_PER_TERM;
+        semester = SEMESTERS[last % 2];
+        year = 2020 + last / 2;
+        timetable = new StudentTimetable(entries, 0L);
+
+        candidates = new Meeting[CANDIDATES];
+        for (int i = 0; i < CANDIDATES; i++) {
+            int start = 8 * 60 + random.nextInt(36) * 15;
+            candidates[i] = new Meeting(random.nextInt(DAYS.length), start, start + 60 + random.nextInt(4) * 15);
+        }
+    }
+
+    @Benchmark
+    public StudentTimetable build() {
+        return new StudentTimetable(entries, 0L);
+    }
+
+    @Benchmark
+    public void check(Blackhole bh) {
+        for (Meeting m : candidates) bh.consume(timetable.clashWith("X", semester, year, m));
+    }
+
+    // every enrolled meeting of the term compared with each candidate, no slot bits
+    @Benchmark
+    public void checkEachMeeting(Blackhole bh) {
+        for (Meeting m : candidates) {
+            TimetableView clash = null;
+            for (TimetableView v : entries) {
+                if (v.year() != year || !v.semester().equalsIgnoreCase(semester)) continue;
+                Meeting e = Meeting.parse(v.day(), v.time(), v.endTime());
+                if (e != null && e.overlaps(m)) {
+                    clash = v;
+                    break;
+                }
+            }
+            bh.consume(clash);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TimetableBenchmark.class.getSimpleName()).build()).run();
+    }
+}
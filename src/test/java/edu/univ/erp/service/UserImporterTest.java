@@ -0,0 +1,59 @@
+package edu.univ.erp.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// UserImporter against a real database. a row that passes validation but fails the students insert breaks the
+// whole chunk's batch: the chunk's auth rows must be removed again and the chunk retried row by row, so every
+// other row still lands and the bad one is the only error. skipped when the ERP database is not reachable.
+class UserImporterTest {
+
+    private static final int ROWS = 40;
+    private static final int BAD_ROW = 17;
+
+    private final Random random = new Random();
+
+    @BeforeAll
+    static void needsDatabase() {
+        assumeTrue(TestData.databaseAvailable(), "ERP database not reachable");
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() throws Exception {
+        try (TestData data = new TestData()) {
+            StringBuilder csv = new StringBuilder("username,password,roll_no,program,year_of_study\n");
+            for (int i = 0; i < ROWS; i++) {
+                // too long for any text column, so only the database rejects it
+                String program = i == BAD_ROW ? "X".repeat(70_000) : "TEST";
+                csv.append(data.username()).append(",secret123,").append(rollNo(i)).append(',')
+                        .append(program).append(",1\n");
+            }
+
+            UserImporter.Report report = UserImporter.importCsv(new StringReader(csv.toString()), "STUDENT");
+
+            assertEquals(ROWS, report.rows());
+            assertEquals(ROWS - 1, report.created(), "created; errors: " + report.errors());
+            assertEquals(1, report.errors().size(), "errors: " + report.errors());
+            assertEquals(BAD_ROW + 2, report.errors().get(0).line(), "reported line");   // header is line 1
+            assertTrue(report.errors().get(0).message().contains("(erp)"), report.errors().get(0).message());
+
+            // the failed chunk left no login without a student record behind
+            List<String> users = data.authUserIds();
+            assertEquals(ROWS - 1, users.size(), "users_auth rows");
+            assertEquals(ROWS - 1, data.studentRows(users), "students rows");
+        }
+    }
+
+    // 7 digits, spread out so other runs and existing students are unlikely to collide
+    private String rollNo(int i) {
+        return String.valueOf(8_000_000 + random.nextInt(900) * 1_000 + i);
+    }
+}
@@ -0,0 +1,129 @@
+package edu.univ.erp.ui;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+// one login background render at common window sizes: BlurredBackground.makeCover (what a cache miss costs) next
+// to the MainApp pipeline it replaced. uses the bundled iiit.png; run main() with the
+// test classpath.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BlurBenchmark {
+
+    private static final int RADIUS = 14;   // what MainApp passes
+
+    @Param({"900x600", "1200x760", "1920x1080"})
+    public String size;
+
+    private BufferedImage source;
+    private int width;
+    private int height;
+
+    @Setup
+    public void setUp() throws IOException {
+        source = loadHero();
+        String[] wh = size.split("x");
+        width = Integer.parseInt(wh[0]);
+        height = Integer.parseInt(wh[1]);
+    }
+
+    @Benchmark
+    public BufferedImage cover() {
+        return BlurredBackground.makeCover(source, width, height, RADIUS);
+    }
+
+    @Benchmark
+    public BufferedImage reference() {
+        return referenceCover(source, width, height, RADIUS);
+    }
+
+    static BufferedImage loadHero() throws IOException {
+        try (InputStream in = BlurBenchmark.class.getClassLoader().getResourceAsStream("iiit.png")) {
+            if (in == null) throw new IOException("iiit.png not on the classpath");
+            return ImageIO.read(in);
+        }
+    }
+
+    // the renderer before user-010: SCALE_SMOOTH scaling, a direct box blur (cost grows with the radius), then
+    // desaturation and a composited overlay, all at the exact size
+    static BufferedImage referenceCover(BufferedImage src, int targetW, int targetH, int radius) {
+        double scale = Math.max((double) targetW / src.getWidth(), (double) targetH / src.getHeight());
+        int scaledW = (int) Math.round(src.getWidth() * scale);
+        int scaledH = (int) Math.round(src.getHeight() * scale);
+
+        Image tmp = src.getScaledInstance(scaledW, scaledH, Image.SCALE_SMOOTH);
+        BufferedImage scaled = new BufferedImage(scaledW, scaledH, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        g.drawImage(tmp, 0, 0, null);
+        g.dispose();
+        BufferedImage cropped = scaled.getSubimage((scaledW - targetW) / 2, (scaledH - targetH) / 2, targetW, targetH);
+
+        int w = targetW, h = targetH, kernel = radius * 2 + 1;
+        int[] in = cropped.getRGB(0, 0, w, h, null, 0, w);
+        int[] temp = new int[in.length];
+        int[] out = new int[in.length];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int r = 0, gg = 0, b = 0;
+                for (int k = -radius; k <= radius; k++) {
+                    int rgb = in[y * w + Math.min(w - 1, Math.max(0, x + k))];
+                    r += (rgb >> 16) & 0xFF;
+                    gg += (rgb >> 8) & 0xFF;
+                    b += rgb & 0xFF;
+                }
+                temp[y * w + x] = (0xFF << 24) | ((r / kernel) << 16) | ((gg / kernel) << 8) | (b / kernel);
+            }
+        }
+        for (int x = 0; x < w; x++) {
+            for (int y = 0; y < h; y++) {
+                int r = 0, gg = 0, b = 0;
+                for (int k = -radius; k <= radius; k++) {
+                    int rgb = temp[Math.min(h - 1, Math.max(0, y + k)) * w + x];
+                    r += (rgb >> 16) & 0xFF;
+                    gg += (rgb >> 8) & 0xFF;
+                    b += rgb & 0xFF;
+                }
+                int rr = r / kernel, gn = gg / kernel, bb = b / kernel;
+                int lum = (int) (0.2126 * rr + 0.7152 * gn + 0.0722 * bb);
+                rr = (int) (rr * 0.8f + lum * 0.2f);
+                gn = (int) (gn * 0.8f + lum * 0.2f);
+                bb = (int) (bb * 0.8f + lum * 0.2f);
+                out[y * w + x] = (0xFF << 24) | (rr << 16) | (gn << 8) | bb;
+            }
+        }
+        BufferedImage result = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        result.setRGB(0, 0, w, h, out, 0, w);
+        Graphics2D o = result.createGraphics();
+        o.setColor(new Color(0, 0, 0, 110));
+        o.fillRect(0, 0, w, h);
+        o.dispose();
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BlurBenchmark.class.getSimpleName()).build()).run();
+    }
+}